@@ -0,0 +1,115 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngine;
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngineBuilder;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.engines.Constants.PerformanceProfiles;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static fiftyone.pipeline.util.FileFinder.getFilePath;
+
+/**
+ * Data files and engines shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    /**
+     * System property which can be set to the path of the Hash data file to
+     * use. If it is not set, the file is found in the same way as the tests
+     * find it.
+     */
+    static final String DATA_FILE_PROPERTY = "dataFile";
+
+    /**
+     * The User-Agent corpus used when none is specified.
+     */
+    static final String DEFAULT_CORPUS = FileUtils.UA_FILE_NAME;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Get the Hash data file to benchmark against.
+     * @return the data file
+     */
+    static File getDataFile() {
+        String path = System.getProperty(DATA_FILE_PROPERTY);
+        File file = path == null ? FileUtils.getHashFile() : new File(path);
+        if (file == null || file.exists() == false) {
+            throw new IllegalStateException(
+                "No Hash data file could be found. Set the '" +
+                DATA_FILE_PROPERTY + "' system property to its path.");
+        }
+        return file;
+    }
+
+    /**
+     * Load a corpus of User-Agents, one per line. The corpus is either a path
+     * to a file, or the name of a file which is found in the same way as the
+     * test data.
+     * @param corpus path or name of the corpus file
+     * @return the non-empty lines of the file
+     * @throws IOException if the file could not be read
+     */
+    static String[] loadUserAgents(String corpus) throws IOException {
+        File file = new File(corpus);
+        if (file.exists() == false) {
+            file = getFilePath(corpus);
+        }
+        List<String> lines = Files.readAllLines(
+                file.toPath(),
+                StandardCharsets.UTF_8)
+            .stream()
+            .filter(line -> line.trim().isEmpty() == false)
+            .collect(Collectors.toList());
+        if (lines.isEmpty()) {
+            throw new IllegalStateException(
+                "The corpus '" + corpus + "' does not contain any User-Agents.");
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    /**
+     * Build a Hash engine which only uses the local data file.
+     * @param profile performance profile to build the engine with
+     * @return a new engine
+     * @throws Exception if the engine could not be built
+     */
+    static DeviceDetectionHashEngine buildEngine(PerformanceProfiles profile)
+        throws Exception {
+        return new DeviceDetectionHashEngineBuilder(
+                LoggerFactory.getILoggerFactory())
+            .setPerformanceProfile(profile)
+            .setAutoUpdate(false)
+            .build(getDataFile().getPath(), false);
+    }
+}
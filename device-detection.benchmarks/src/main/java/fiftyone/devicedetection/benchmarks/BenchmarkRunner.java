@@ -0,0 +1,90 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks once for each thread count, with the GC profiler
+ * enabled so that allocations per operation are reported alongside the
+ * scores. The results of each run are written to a JSON file named after the
+ * thread count.
+ * <p>
+ * The first argument, if given, is a regular expression selecting the
+ * benchmarks to run. The following system properties are also read:
+ * <ul>
+ *     <li>threads - comma separated thread counts, defaulting to 1 and the
+ *     number of available processors</li>
+ *     <li>corpus - path or name of the User-Agent file to use, defaulting to
+ *     the 20,000 User-Agents used by the tests</li>
+ *     <li>dataFile - path to the Hash data file, defaulting to the file used
+ *     by the tests</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        for (int threads : getThreadCounts()) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-" + threads + "-threads.json");
+            String corpus = System.getProperty("corpus");
+            if (corpus != null) {
+                options.param("corpus", corpus);
+            }
+            // Benchmarks run in a forked JVM, so the data file location must
+            // be passed on explicitly.
+            String dataFile = System.getProperty(
+                BenchmarkData.DATA_FILE_PROPERTY);
+            if (dataFile != null) {
+                options.jvmArgsAppend(
+                    "-D" + BenchmarkData.DATA_FILE_PROPERTY + "=" + dataFile);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+
+    private static List<Integer> getThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        String value = System.getProperty(
+            "threads",
+            processors > 1 ? "1," + processors : "1");
+        List<Integer> threadCounts = new ArrayList<>();
+        for (String threads : value.split(",")) {
+            threadCounts.add(Integer.parseInt(threads.trim()));
+        }
+        return threadCounts;
+    }
+}
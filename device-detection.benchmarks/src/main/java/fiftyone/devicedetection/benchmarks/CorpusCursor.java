@@ -0,0 +1,49 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in a corpus, so that each benchmark thread works
+ * through the evidence in turn rather than all threads processing the same
+ * item.
+ */
+@State(Scope.Thread)
+public class CorpusCursor {
+
+    private int next = 0;
+
+    /**
+     * Get the next item from the corpus, wrapping at the end.
+     * @param corpus items to return
+     * @param <T> type of item
+     * @return the next item
+     */
+    public <T> T next(T[] corpus) {
+        T item = corpus[next];
+        next = next + 1 == corpus.length ? 0 : next + 1;
+        return item;
+    }
+}
@@ -0,0 +1,90 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngine;
+import fiftyone.pipeline.engines.Constants.PerformanceProfiles;
+import fiftyone.pipeline.engines.fiftyone.data.CloseableIterable;
+import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of iterating the meta data exposed by the Hash engine. Each
+ * operation is a complete iteration, so scores are reported as average time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MetaDataBenchmarks {
+
+    @Param({"MaxPerformance", "LowMemory"})
+    public PerformanceProfiles profile;
+
+    private DeviceDetectionHashEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        engine = BenchmarkData.buildEngine(profile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        engine.close();
+    }
+
+    @Benchmark
+    public void getProfiles(Blackhole blackhole) throws Exception {
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 engine.getProfiles()) {
+            for (ProfileMetaData profile : profiles) {
+                blackhole.consume(profile.getProfileId());
+                profile.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void getValues(Blackhole blackhole) throws Exception {
+        try (CloseableIterable<ValueMetaData> values = engine.getValues()) {
+            for (ValueMetaData value : values) {
+                blackhole.consume(value.getName());
+                value.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void getProperties(Blackhole blackhole) {
+        for (FiftyOneAspectPropertyMetaData property : engine.getProperties()) {
+            blackhole.consume(property.getName());
+        }
+    }
+}
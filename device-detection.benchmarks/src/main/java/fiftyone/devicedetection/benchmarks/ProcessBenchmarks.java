@@ -0,0 +1,105 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngine;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants.PerformanceProfiles;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of processing evidence with the Hash engine, for every
+ * {@link PerformanceProfiles} value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProcessBenchmarks {
+
+    /**
+     * With no values given, JMH runs every value of the enum.
+     */
+    @Param
+    public PerformanceProfiles profile;
+
+    @Param(BenchmarkData.DEFAULT_CORPUS)
+    public String corpus;
+
+    private DeviceDetectionHashEngine engine;
+
+    private Pipeline pipeline;
+
+    private String[] userAgents;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userAgents = BenchmarkData.loadUserAgents(corpus);
+        engine = BenchmarkData.buildEngine(profile);
+        pipeline = new PipelineBuilder(LoggerFactory.getILoggerFactory())
+            .addFlowElement(engine)
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pipeline.close();
+        engine.close();
+    }
+
+    /**
+     * Process a User-Agent, and read the device id so that the results are
+     * used.
+     */
+    @Benchmark
+    public Object process(CorpusCursor cursor) throws Exception {
+        try (FlowData flowData = pipeline.createFlowData()) {
+            flowData
+                .addEvidence("header.user-agent", cursor.next(userAgents))
+                .process();
+            return flowData.getFromElement(engine).getDeviceId();
+        }
+    }
+
+    /**
+     * Process a User-Agent, and get the values of all properties as a map.
+     */
+    @Benchmark
+    public Map<String, Object> processAsKeyMap(CorpusCursor cursor)
+        throws Exception {
+        try (FlowData flowData = pipeline.createFlowData()) {
+            flowData
+                .addEvidence("header.user-agent", cursor.next(userAgents))
+                .process();
+            return flowData.getFromElement(engine).asKeyMap();
+        }
+    }
+}
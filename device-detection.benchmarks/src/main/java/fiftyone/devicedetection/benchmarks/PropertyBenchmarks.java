@@ -0,0 +1,136 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.benchmarks;
+
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngine;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants.PerformanceProfiles;
+import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading property values from {@link DeviceDataHash} instances
+ * which have already been processed. The same results are read repeatedly,
+ * so the typed getters measure the memoised path after the first read, while
+ * the primitive getters read from the results every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PropertyBenchmarks {
+
+    @Param("MaxPerformance")
+    public PerformanceProfiles profile;
+
+    @Param(BenchmarkData.DEFAULT_CORPUS)
+    public String corpus;
+
+    /**
+     * Number of User-Agents from the corpus to process up front.
+     */
+    @Param("1000")
+    public int count;
+
+    private DeviceDetectionHashEngine engine;
+
+    private Pipeline pipeline;
+
+    private FlowData[] flowDatas;
+
+    private DeviceDataHash[] devices;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String[] userAgents = BenchmarkData.loadUserAgents(corpus);
+        engine = BenchmarkData.buildEngine(profile);
+        pipeline = new PipelineBuilder(LoggerFactory.getILoggerFactory())
+            .addFlowElement(engine)
+            .build();
+        flowDatas = new FlowData[Math.min(count, userAgents.length)];
+        devices = new DeviceDataHash[flowDatas.length];
+        for (int i = 0; i < flowDatas.length; i++) {
+            flowDatas[i] = pipeline.createFlowData();
+            flowDatas[i]
+                .addEvidence("header.user-agent", userAgents[i])
+                .process();
+            devices[i] = flowDatas[i].getFromElement(engine);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (FlowData flowData : flowDatas) {
+            flowData.close();
+        }
+        pipeline.close();
+        engine.close();
+    }
+
+    @Benchmark
+    public AspectPropertyValue<Boolean> getIsMobile(CorpusCursor cursor) {
+        return cursor.next(devices).getIsMobile();
+    }
+
+    @Benchmark
+    public AspectPropertyValue<Integer> getScreenPixelsWidth(
+        CorpusCursor cursor) {
+        return cursor.next(devices).getScreenPixelsWidth();
+    }
+
+    @Benchmark
+    public AspectPropertyValue<String> getPlatformName(CorpusCursor cursor) {
+        return cursor.next(devices).getPlatformName();
+    }
+
+    @Benchmark
+    public AspectPropertyValue<List<String>> getValues(CorpusCursor cursor) {
+        return cursor.next(devices).getValues("HardwareName");
+    }
+
+    @Benchmark
+    public boolean getBoolValue(CorpusCursor cursor) {
+        return cursor.next(devices).getBoolValue("IsMobile", false);
+    }
+
+    @Benchmark
+    public int getIntValue(CorpusCursor cursor) {
+        return cursor.next(devices).getIntValue("ScreenPixelsWidth", -1);
+    }
+
+    @Benchmark
+    public double getDoubleValue(CorpusCursor cursor) {
+        return cursor.next(devices).getDoubleValue(
+            "ScreenInchesDiagonal",
+            -1);
+    }
+}
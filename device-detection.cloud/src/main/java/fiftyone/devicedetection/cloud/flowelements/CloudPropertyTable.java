@@ -0,0 +1,119 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.flowelements;
+
+import fiftyone.pipeline.engines.data.AspectPropertyMetaData;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled lookup for the properties returned by the cloud engine. Each
+ * property is given a slot index, and the {@link PropertyDecoder} for its
+ * type. This is built once for a list of properties, and shared by all the
+ * {@link DeviceDataCloudInternal} instances populated from it.
+ */
+final class CloudPropertyTable {
+
+    private final List<AspectPropertyMetaData> properties;
+
+    private final String[] names;
+
+    private final PropertyDecoder[] decoders;
+
+    /**
+     * Lower case property name to slot index.
+     */
+    private final Map<String, Integer> slots;
+
+    /**
+     * Construct a new table for the properties.
+     * @param properties list of properties, which may be null
+     */
+    CloudPropertyTable(List<AspectPropertyMetaData> properties) {
+        this.properties = properties;
+        int count = properties == null ? 0 : properties.size();
+        this.names = new String[count];
+        this.decoders = new PropertyDecoder[count];
+        this.slots = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            AspectPropertyMetaData property = properties.get(i);
+            names[i] = property.getName();
+            decoders[i] = PropertyDecoder.forType(property.getType());
+            slots.put(property.getName().toLowerCase(), i);
+        }
+    }
+
+    /**
+     * Determine whether this table was built from the list of properties.
+     * @param properties list of properties
+     * @return true if the table is for the same list instance
+     */
+    boolean isFor(List<AspectPropertyMetaData> properties) {
+        return this.properties == properties;
+    }
+
+    /**
+     * @return number of slots
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * @param slot slot index
+     * @return name of the property in the slot
+     */
+    String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * @param slot slot index
+     * @return decoder for the property in the slot
+     */
+    PropertyDecoder getDecoder(int slot) {
+        return decoders[slot];
+    }
+
+    /**
+     * Get the slot for a lower case key as it appears in the JSON response.
+     * @param key lower case property name
+     * @return slot index, or -1 if the key is not a property
+     */
+    int getSlot(String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Get the slot for a property name in any case.
+     * @param name property name
+     * @return slot index, or -1 if the name is not a property
+     */
+    int findSlot(String name) {
+        int slot = getSlot(name);
+        return slot >= 0 ? slot : getSlot(name.toLowerCase());
+    }
+}
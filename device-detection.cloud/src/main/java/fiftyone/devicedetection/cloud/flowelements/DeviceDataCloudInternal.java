@@ -25,15 +25,18 @@ package fiftyone.devicedetection.cloud.flowelements;
 import fiftyone.devicedetection.cloud.data.DeviceDataCloud;
 import fiftyone.devicedetection.shared.DeviceDataBase;
 import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.data.TryGetResult;
 import fiftyone.pipeline.engines.data.AspectData;
 import fiftyone.pipeline.engines.data.AspectPropertyMetaData;
 import fiftyone.pipeline.engines.data.AspectPropertyValue;
 import fiftyone.pipeline.engines.data.AspectPropertyValueDefault;
 import fiftyone.pipeline.engines.flowelements.AspectEngine;
+import fiftyone.pipeline.engines.exceptions.NoValueException;
 import fiftyone.pipeline.engines.services.MissingPropertyService;
 import org.slf4j.Logger;
 
-import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Internal implementation of the {@link DeviceDataCloud} interface. This can
@@ -42,6 +45,28 @@ import java.util.List;
 public class DeviceDataCloudInternal
     extends DeviceDataBase
     implements DeviceDataCloud {
+
+    private volatile CloudPropertyTable table = null;
+
+    /**
+     * Values indexed by the slots in {@link #table}.
+     */
+    private AspectPropertyValue<?>[] values = null;
+
+    /**
+     * Case-insensitive map of values for keys in the response which are not
+     * in {@link #table}, or null if there are none.
+     */
+    private Map<String, AspectPropertyValue<?>> otherValues = null;
+
+    private volatile boolean mapPopulated = false;
+
+    private final FlowData flowData;
+
+    private final AspectEngine<? extends AspectData, ? extends AspectPropertyMetaData> engine;
+
+    private final MissingPropertyService missingPropertyService;
+
     /**
      * Constructs a new instance.
      * @param logger used for logging
@@ -57,5 +82,134 @@ public class DeviceDataCloudInternal
         AspectEngine<? extends AspectData, ? extends AspectPropertyMetaData> engine,
         MissingPropertyService missingPropertyService) {
         super(logger, flowData, engine, missingPropertyService);
+        this.flowData = flowData;
+        this.engine = engine;
+        this.missingPropertyService = missingPropertyService;
+    }
+
+    /**
+     * Create a new instance with the same values as this one. Property values
+     * are mutable, so each value is copied and changes made to one instance
+     * are not seen by the other. Values are held on the heap, so the copy can
+     * be used after the {@link FlowData} has been closed, as can this
+     * instance.
+     * @return new instance with the same values
+     */
+    public DeviceDataCloudInternal copy() {
+        DeviceDataCloudInternal result = new DeviceDataCloudInternal(
+            logger,
+            flowData,
+            engine,
+            missingPropertyService);
+        CloudPropertyTable table = this.table;
+        if (table != null) {
+            AspectPropertyValue<?>[] copiedValues =
+                new AspectPropertyValue<?>[values.length];
+            for (int i = 0; i < values.length; i++) {
+                copiedValues[i] = copy(values[i]);
+            }
+            Map<String, AspectPropertyValue<?>> copiedOtherValues = null;
+            if (otherValues != null) {
+                copiedOtherValues = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (Map.Entry<String, AspectPropertyValue<?>> entry :
+                    otherValues.entrySet()) {
+                    copiedOtherValues.put(entry.getKey(), copy(entry.getValue()));
+                }
+            }
+            result.setValues(table, copiedValues, copiedOtherValues);
+        }
+        return result;
+    }
+
+    private static AspectPropertyValue<?> copy(AspectPropertyValue<?> value) {
+        if (value == null) {
+            return null;
+        }
+        AspectPropertyValueDefault<Object> result =
+            new AspectPropertyValueDefault<>();
+        if (value.hasValue()) {
+            try {
+                result.setValue(value.getValue());
+            } catch (NoValueException e) {
+                result.setNoValueMessage(e.getMessage());
+            }
+        } else {
+            result.setNoValueMessage(value.getNoValueMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Set the values for the properties in the table. Values are read from
+     * the slots when requested, so the base map is only populated if
+     * {@link #asKeyMap()} is called.
+     * @param table property table the values are indexed by
+     * @param values values indexed by the slots in the table
+     * @param otherValues case-insensitive map of values which are not in the
+     *                    table, or null if there are none
+     */
+    void setValues(
+        CloudPropertyTable table,
+        AspectPropertyValue<?>[] values,
+        Map<String, AspectPropertyValue<?>> otherValues) {
+        this.values = values;
+        this.otherValues = otherValues;
+        this.mapPopulated = false;
+        this.table = table;
+    }
+
+    @Override
+    public Map<String, Object> asKeyMap() {
+        CloudPropertyTable table = this.table;
+        if (table != null && mapPopulated == false) {
+            synchronized (this) {
+                if (mapPopulated == false) {
+                    Map<String, Object> map =
+                        new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                    for (int i = 0; i < values.length; i++) {
+                        map.put(table.getName(i), values[i]);
+                    }
+                    if (otherValues != null) {
+                        map.putAll(otherValues);
+                    }
+                    populateFromMap(map);
+                    mapPopulated = true;
+                }
+            }
+        }
+        return super.asKeyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <T> TryGetResult<T> tryGetValue(
+        String key,
+        Class<T> type,
+        Class<?>... parameterisedTypes) {
+        CloudPropertyTable table = this.table;
+        if (table == null || mapPopulated) {
+            return super.tryGetValue(key, type, parameterisedTypes);
+        }
+        Object obj;
+        int slot = table.findSlot(key);
+        if (slot >= 0) {
+            obj = values[slot];
+        }
+        else if (otherValues != null && otherValues.containsKey(key)) {
+            obj = otherValues.get(key);
+        }
+        else {
+            return super.tryGetValue(key, type, parameterisedTypes);
+        }
+        TryGetResult<T> result = new TryGetResult<>();
+        try {
+            result.setValue(type.cast(obj));
+        } catch (ClassCastException e) {
+            throw new ClassCastException(
+                "Expected property '" + key + "' to be of " +
+                    "type '" + type.getSimpleName() + "' but it is " +
+                    "'" + obj.getClass().getSimpleName() + "'");
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -31,22 +31,19 @@ import fiftyone.pipeline.core.data.EvidenceKeyFilter;
 import fiftyone.pipeline.core.data.EvidenceKeyFilterWhitelist;
 import fiftyone.pipeline.core.data.FlowData;
 import fiftyone.pipeline.core.data.factories.ElementDataFactory;
-import fiftyone.pipeline.core.data.types.JavaScript;
 import fiftyone.pipeline.core.exceptions.PipelineConfigurationException;
+import fiftyone.pipeline.core.exceptions.PipelineDataException;
 import fiftyone.pipeline.core.flowelements.Pipeline;
 import fiftyone.pipeline.engines.data.AspectPropertyMetaData;
 import fiftyone.pipeline.engines.data.AspectPropertyMetaDataDefault;
 import fiftyone.pipeline.engines.data.AspectPropertyValue;
 import fiftyone.pipeline.engines.data.AspectPropertyValueDefault;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.TreeMap;
-import org.json.JSONArray;
 
 /**
  * Engine that takes the JSON response from the {@link CloudRequestEngine} and
@@ -58,6 +55,9 @@ public class DeviceDetectionCloudEngine
     List<AspectPropertyMetaData> aspectProperties;
     private String dataSourceTier;
     CloudRequestEngine cloudRequestEngine;
+    private volatile CloudPropertyTable propertyTable;
+
+    private static final String NULL_REASON_SUFFIX = "nullreason";
 
     /**
      * Construct a new instance of the {@link DeviceDetectionCloudEngine}.
@@ -106,76 +106,10 @@ public class DeviceDetectionCloudEngine
         else {
             CloudRequestData requestData =
                 data.getFromElement(cloudRequestEngine);
-            String json = "";
-            json = requestData.getJsonResponse();
+            String json = requestData.getJsonResponse();
 
             // Extract data from json to the aspectData instance.
-            JSONObject jsonObj = new JSONObject(json);
-            JSONObject deviceObj = jsonObj.getJSONObject("device");
-
-            Map<String, Object> deviceMap =
-                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-
-            for (AspectPropertyMetaData property : getProperties()) {
-                String type = property.getType().getSimpleName();
-                switch(type) {
-                    case ("List"):
-                        deviceMap.put(
-                            property.getName(),
-                            getListAspectPropertyValue(deviceObj, property));
-                        break;
-                    case ("JavaScript"):
-                        deviceMap.put(
-                            property.getName(),
-                            getJavaScriptAspectPropertyValue(deviceObj, property));
-                        break;
-                    case ("String"):
-                        deviceMap.put(
-                            property.getName(),
-                            getStringAspectPropertyValue(deviceObj, property));
-                            break;
-                    case ("boolean"):
-                        deviceMap.put(
-                            property.getName(),
-                            getBooleanAspectPropertyValue(deviceObj, property));
-                        break;
-                    case ("int"):
-                        deviceMap.put(
-                            property.getName(),
-                            getIntegerAspectPropertyValue(deviceObj, property));
-                        break;
-                    case ("double"):
-                        deviceMap.put(
-                            property.getName(),
-                            getDoubleAspectPropertyValue(deviceObj, property));
-                        break;
-                    default:
-                        deviceMap.put(
-                            property.getName(),
-                            getStringAspectPropertyValue(deviceObj, property));
-                            break;
-                }
-            }
-
-            // Add no value messages for any properties which have not yet been
-            // populated.
-            for (String key : deviceObj.keySet()) {
-                if (key.endsWith("nullreason")) {
-                    String actualKey = key
-                        .replace("nullreason", "");
-                    if (deviceMap.containsKey(actualKey) == false) {
-                        AspectPropertyValue<?> nullValue =
-                            new AspectPropertyValueDefault<Object>();
-                        nullValue.setNoValueMessage(
-                            deviceObj.optString(key, "Unknown"));
-                        deviceMap.put(
-                            actualKey,
-                            nullValue);
-                    }
-                }
-            }
-
-            aspectData.populateFromMap(deviceMap);
+            readDevice(json, aspectData);
         }
     }
 
@@ -225,6 +159,7 @@ public class DeviceDetectionCloudEngine
                     true);
                 aspectProperties.add(property);
             }
+            propertyTable = new CloudPropertyTable(aspectProperties);
             return true;
         }
         else {
@@ -235,154 +170,119 @@ public class DeviceDetectionCloudEngine
     }
 
     /**
-     * Get the integer representation of a value from the cloud engine's JSON
-     * response, and wrap it in an {@link AspectPropertyValue}.
-     * @param deviceObj to get the value from
-     * @param property to get the value of
-     * @return {@link AspectPropertyValue} with a parsed value, or the reason
-     * for the value not being present
+     * Get the property table for the current {@link #aspectProperties}. This
+     * is built in {@link #loadAspectProperties(CloudRequestEngine)}, and only
+     * rebuilt here if the properties have been replaced since.
+     * @return property table for the properties
      */
-    private AspectPropertyValue<Integer> getIntegerAspectPropertyValue(
-        JSONObject deviceObj,
-        AspectPropertyMetaData property) {
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<Integer> intValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key)){
-            intValue.setNoValueMessage(getNoValueReason(deviceObj, key));
+    private CloudPropertyTable getPropertyTable() {
+        CloudPropertyTable table = propertyTable;
+        if (table == null || table.isFor(aspectProperties) == false) {
+            table = new CloudPropertyTable(aspectProperties);
+            propertyTable = table;
         }
-        else {
-            intValue.setValue(deviceObj.getInt(key));
-        }
-        return intValue;
-    }
-
-    private AspectPropertyValue<Double> getDoubleAspectPropertyValue(JSONObject deviceObj, AspectPropertyMetaData property) {
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<Double> doubleValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key)){
-            doubleValue.setNoValueMessage(getNoValueReason(deviceObj, key));
-        }
-        else {
-            doubleValue.setValue(deviceObj.getDouble(key));
-        }
-        return doubleValue;
+        return table;
     }
 
     /**
-     * Get the boolean representation of a value from the cloud engine's JSON
-     * response, and wrap it in an {@link AspectPropertyValue}.
-     * @param deviceObj to get the value from
-     * @param property to get the value of
-     * @return {@link AspectPropertyValue} with a parsed value, or the reason
-     * for the value not being present
+     * Read the 'device' object from the cloud engine's JSON response in a
+     * single pass, and populate the aspect data with the values. Values are
+     * decoded straight into the slot for their property, and null reasons
+     * are recorded as they are found. Any other members of the response are
+     * skipped without being decoded.
+     * @param json the JSON response from the cloud engine
+     * @param aspectData the data to populate
      */
-    private AspectPropertyValue<Boolean> getBooleanAspectPropertyValue(
-        JSONObject deviceObj,
-        AspectPropertyMetaData property) {
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<Boolean> booleanValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key)){
-            booleanValue.setNoValueMessage(getNoValueReason(deviceObj, key));
-        }
-        else {
-            booleanValue.setValue(deviceObj.getBoolean(key));
-        }
-        return booleanValue;
-    }
+    private void readDevice(String json, DeviceDataCloud aspectData) {
+        CloudPropertyTable table = getPropertyTable();
+        Object[] rawValues = new Object[table.size()];
+        String[] noValueReasons = new String[table.size()];
+        Map<String, AspectPropertyValue<?>> otherValues = null;
+        boolean found = false;
 
-    /**
-     * Get the string list representation of a value from the cloud engine's
-     * JSON response, and wrap it in an {@link AspectPropertyValue}.
-     * @param deviceObj to get the value from
-     * @param property to get the value of
-     * @return {@link AspectPropertyValue} with a parsed value, or the reason
-     * for the value not being present
-     */
-    private AspectPropertyValue<List<String>> getListAspectPropertyValue(
-        JSONObject deviceObj,
-        AspectPropertyMetaData property){
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<List<String>> listValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key))
-        {
-            listValue.setNoValueMessage(getNoValueReason(deviceObj, key));
-        }
-        else 
-        {
-            JSONArray jsonArray = deviceObj.getJSONArray(key);
-            List<String> strings = new ArrayList<>(jsonArray.length());
-            for (Object object : jsonArray.toList()) {
-                strings.add(Objects.toString(object, null));
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNextMember()) {
+            String name = reader.nextName();
+            if (found || name.equals(getElementDataKey()) == false) {
+                reader.skipValue();
+                continue;
+            }
+            found = true;
+            reader.beginObject();
+            while (reader.hasNextMember()) {
+                String key = reader.nextName();
+                int slot = table.getSlot(key);
+                if (slot >= 0) {
+                    rawValues[slot] = table.getDecoder(slot).decode(reader);
+                }
+                else if (key.endsWith(NULL_REASON_SUFFIX)) {
+                    String actualKey = key.substring(
+                        0,
+                        key.length() - NULL_REASON_SUFFIX.length());
+                    String reason = reader.nextNull() ?
+                        null :
+                        PropertyDecoder.readScalar(reader);
+                    slot = table.findSlot(actualKey);
+                    if (slot >= 0) {
+                        noValueReasons[slot] = reason;
+                    }
+                    else {
+                        // Add no value messages for any properties which are
+                        // not in the list of properties.
+                        if (otherValues == null) {
+                            otherValues =
+                                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                        }
+                        AspectPropertyValue<?> nullValue =
+                            new AspectPropertyValueDefault<Object>();
+                        nullValue.setNoValueMessage(
+                            reason == null ? "Unknown" : reason);
+                        otherValues.put(actualKey, nullValue);
+                    }
+                }
+                else {
+                    reader.skipValue();
+                }
             }
-            listValue.setValue(strings);
         }
-        return listValue;
-    }
+        if (found == false) {
+            throw new PipelineDataException(
+                "The JSON response from the cloud service does not contain " +
+                    "a '" + getElementDataKey() + "' object.");
+        }
 
-    /**
-     * Get the JavaScript representation of a value from the cloud engine's JSON
-     * response, and wrap it in an {@link AspectPropertyValue}.
-     * @param deviceObj to get the value from
-     * @param property to get the value of
-     * @return {@link AspectPropertyValue} with a parsed value, or the reason
-     * for the value not being present
-     */
-    private AspectPropertyValue<JavaScript> getJavaScriptAspectPropertyValue(
-        JSONObject deviceObj,
-        AspectPropertyMetaData property){
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<JavaScript> jsValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key)){
-            jsValue.setNoValueMessage(getNoValueReason(deviceObj, key));
-        } else {
-            jsValue.setValue(new JavaScript(deviceObj.getString(key)));
+        AspectPropertyValue<?>[] values =
+            new AspectPropertyValue<?>[rawValues.length];
+        for (int i = 0; i < rawValues.length; i++) {
+            AspectPropertyValue<Object> value =
+                new AspectPropertyValueDefault<>();
+            if (rawValues[i] != null) {
+                value.setValue(rawValues[i]);
+            }
+            else {
+                value.setNoValueMessage(noValueReasons[i]);
+            }
+            values[i] = value;
         }
-        return jsValue;
-    }
 
-    /**
-     * Get the string representation of a value from the cloud engine's JSON
-     * response, and wrap it in an {@link AspectPropertyValue}.
-     * @param deviceObj to get the value from
-     * @param property to get the value of
-     * @return {@link AspectPropertyValue} with a parsed value, or the reason
-     * for the value not being present
-     */
-    private AspectPropertyValue<String> getStringAspectPropertyValue(
-        JSONObject deviceObj,
-        AspectPropertyMetaData property){
-        String key = property.getName().toLowerCase();
-        AspectPropertyValue<String> stringValue = new AspectPropertyValueDefault<>();
-        if(deviceObj.isNull(key)){
-            stringValue.setNoValueMessage(getNoValueReason(deviceObj, key));
+        if (aspectData instanceof DeviceDataCloudInternal) {
+            ((DeviceDataCloudInternal) aspectData).setValues(
+                table,
+                values,
+                otherValues);
         }
         else {
-            stringValue.setValue(deviceObj.getString(key));
+            // Data from a custom factory can only be populated from a map.
+            Map<String, Object> deviceMap =
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < values.length; i++) {
+                deviceMap.put(table.getName(i), values[i]);
+            }
+            if (otherValues != null) {
+                deviceMap.putAll(otherValues);
+            }
+            aspectData.populateFromMap(deviceMap);
         }
-        return stringValue;
-    }
-
-    /**
-     * Get the reason for the value of a property not being present in the cloud
-     * engine's JSON response.
-     * @param deviceObj to get the null reason from
-     * @param key to get the null reason from
-     * @return the reason for the missing property
-     */
-    private String getNoValueReason(JSONObject deviceObj, String key){
-        Object reason = tryToGet(deviceObj, key + "nullreason");
-        return reason == null ? null : reason.toString();
-    }
-
-    /**
-     * Try to get a value from a JSON object.
-     * @param jsonObj to get the value from
-     * @param key to get the value of
-     * @return the value or null
-     */
-    private Object tryToGet(JSONObject jsonObj, String key) {
-        if (jsonObj.has(key))
-            return jsonObj.opt(key);
-        return null;
     }
 }
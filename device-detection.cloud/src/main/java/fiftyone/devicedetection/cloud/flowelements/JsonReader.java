@@ -0,0 +1,354 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.flowelements;
+
+/**
+ * Minimal pull parser for JSON held in a {@link String}. Values are read, or
+ * skipped, one at a time in document order without building a tree, so
+ * parts of a document which are not needed cost only a scan of their
+ * characters.
+ * <p>
+ * As with the org.json library previously used for cloud responses, strings
+ * may be in single or double quotes, and a trailing comma before a closing
+ * brace or bracket is ignored.
+ */
+final class JsonReader {
+
+    /**
+     * The type of the next value in the document.
+     */
+    enum Token {
+        OBJECT,
+        ARRAY,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL
+    }
+
+    private final String json;
+
+    private int position = 0;
+
+    /**
+     * Construct a new reader at the start of the document.
+     * @param json the JSON document
+     */
+    JsonReader(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Consume the opening brace of an object.
+     */
+    void beginObject() {
+        expect('{');
+    }
+
+    /**
+     * Move to the next member of the current object. If there are no more
+     * members, the closing brace is consumed.
+     * @return true if there is another member to read with
+     * {@link #nextName()}
+     */
+    boolean hasNextMember() {
+        return hasNext('}');
+    }
+
+    /**
+     * Read the name of the current member of an object, and consume the
+     * colon which follows it.
+     * @return member name
+     */
+    String nextName() {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Consume the opening bracket of an array.
+     */
+    void beginArray() {
+        expect('[');
+    }
+
+    /**
+     * Move to the next element of the current array. If there are no more
+     * elements, the closing bracket is consumed.
+     * @return true if there is another element to read
+     */
+    boolean hasNextElement() {
+        return hasNext(']');
+    }
+
+    /**
+     * Get the type of the next value without consuming it.
+     * @return type of the next value
+     */
+    Token peek() {
+        char c = peekChar();
+        switch (c) {
+            case '{':
+                return Token.OBJECT;
+            case '[':
+                return Token.ARRAY;
+            case '"':
+            case '\'':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    /**
+     * Read a quoted string, decoding any escape sequences.
+     * @return the string
+     */
+    String nextString() {
+        char quote = peekChar();
+        if (quote != '"' && quote != '\'') {
+            throw error("Expected a string");
+        }
+        int start = ++position;
+        StringBuilder builder = null;
+        while (true) {
+            if (position >= json.length()) {
+                throw error("Unterminated string");
+            }
+            char c = json.charAt(position);
+            if (c == quote) {
+                String value = builder == null ?
+                    json.substring(start, position) :
+                    builder.append(json, start, position).toString();
+                position++;
+                return value;
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(json, start, position);
+                builder.append(readEscape());
+                start = position;
+            }
+            else {
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Read an unquoted literal, which is a number, true, false or null.
+     * @return the literal as it appears in the document
+     */
+    String nextLiteral() {
+        peekChar();
+        int start = position;
+        while (position < json.length() &&
+            isLiteralChar(json.charAt(position))) {
+            position++;
+        }
+        if (start == position) {
+            throw error("Expected a value");
+        }
+        return json.substring(start, position);
+    }
+
+    /**
+     * Read a literal true or false.
+     * @return the boolean
+     */
+    boolean nextBoolean() {
+        String literal = nextLiteral();
+        if (literal.equals("true")) {
+            return true;
+        }
+        if (literal.equals("false")) {
+            return false;
+        }
+        throw error("Expected a boolean but found '" + literal + "'");
+    }
+
+    /**
+     * Consume the next value if it is null.
+     * @return true if the value was null and has been consumed
+     */
+    boolean nextNull() {
+        if (peek() == Token.NULL) {
+            String literal = nextLiteral();
+            if (literal.equals("null") == false) {
+                throw error("Unexpected literal '" + literal + "'");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skip the next value, including any nested objects or arrays, without
+     * decoding it.
+     */
+    void skipValue() {
+        switch (peek()) {
+            case OBJECT:
+                beginObject();
+                while (hasNextMember()) {
+                    skipString();
+                    expect(':');
+                    skipValue();
+                }
+                break;
+            case ARRAY:
+                beginArray();
+                while (hasNextElement()) {
+                    skipValue();
+                }
+                break;
+            case STRING:
+                skipString();
+                break;
+            default:
+                nextLiteral();
+                break;
+        }
+    }
+
+    /**
+     * Create an exception describing a problem at the current position.
+     * @param message description of the problem
+     * @return exception to throw
+     */
+    IllegalStateException error(String message) {
+        return new IllegalStateException(
+            message + " at position " + position + " of the JSON response.");
+    }
+
+    private void skipString() {
+        char quote = peekChar();
+        if (quote != '"' && quote != '\'') {
+            throw error("Expected a string");
+        }
+        position++;
+        while (true) {
+            if (position >= json.length()) {
+                throw error("Unterminated string");
+            }
+            char c = json.charAt(position++);
+            if (c == '\\') {
+                position++;
+            }
+            else if (c == quote) {
+                return;
+            }
+        }
+    }
+
+    private boolean hasNext(char close) {
+        char c = peekChar();
+        if (c == ',') {
+            position++;
+            c = peekChar();
+        }
+        if (c == close) {
+            position++;
+            return false;
+        }
+        return true;
+    }
+
+    private char readEscape() {
+        // Skip the backslash.
+        position++;
+        if (position >= json.length()) {
+            throw error("Unterminated escape sequence");
+        }
+        char c = json.charAt(position++);
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'u':
+                if (position + 4 > json.length()) {
+                    throw error("Invalid unicode escape sequence");
+                }
+                try {
+                    char value = (char) Integer.parseInt(
+                        json.substring(position, position + 4),
+                        16);
+                    position += 4;
+                    return value;
+                } catch (NumberFormatException e) {
+                    throw error("Invalid unicode escape sequence");
+                }
+            default:
+                // Quotes, slashes and anything else escape to themselves.
+                return c;
+        }
+    }
+
+    private void expect(char expected) {
+        if (peekChar() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Skip any whitespace and return the next character without consuming
+     * it.
+     * @return next character
+     */
+    private char peekChar() {
+        while (position < json.length() &&
+            Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+        if (position >= json.length()) {
+            throw error("Unexpected end of input");
+        }
+        return json.charAt(position);
+    }
+
+    private static boolean isLiteralChar(char c) {
+        return (c >= '0' && c <= '9') ||
+            (c >= 'a' && c <= 'z') ||
+            (c >= 'A' && c <= 'Z') ||
+            c == '-' || c == '+' || c == '.';
+    }
+}
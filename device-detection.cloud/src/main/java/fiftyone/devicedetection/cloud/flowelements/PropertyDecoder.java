@@ -0,0 +1,158 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.flowelements;
+
+import fiftyone.pipeline.core.data.types.JavaScript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the value of a property from the cloud engine's JSON response into
+ * the type of the property. The decoder for each property is chosen once,
+ * when the {@link CloudPropertyTable} is built, so processing a response
+ * needs no checks on the property type.
+ */
+enum PropertyDecoder {
+    STRING {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            return readScalar(reader);
+        }
+    },
+    JAVASCRIPT {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            return new JavaScript(readScalar(reader));
+        }
+    },
+    LIST {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            List<String> strings = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNextElement()) {
+                strings.add(reader.nextNull() ? null : readScalar(reader));
+            }
+            return strings;
+        }
+    },
+    BOOLEAN {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            if (reader.peek() == JsonReader.Token.BOOLEAN) {
+                return reader.nextBoolean();
+            }
+            String value = readScalar(reader);
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw reader.error(
+                "Expected a boolean but found '" + value + "'");
+        }
+    },
+    INTEGER {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            return readNumber(reader).intValue();
+        }
+    },
+    DOUBLE {
+        @Override
+        Object decodeValue(JsonReader reader) {
+            return readNumber(reader);
+        }
+    };
+
+    /**
+     * Decode the next value from the reader.
+     * @param reader positioned at the value
+     * @return the value, or null if the value is null in the response
+     */
+    Object decode(JsonReader reader) {
+        return reader.nextNull() ? null : decodeValue(reader);
+    }
+
+    /**
+     * Decode the next value from the reader, which is known not to be null.
+     * @param reader positioned at the value
+     * @return the value
+     */
+    abstract Object decodeValue(JsonReader reader);
+
+    /**
+     * Get the decoder for values of the type given.
+     * @param type type of the property
+     * @return decoder for the type
+     */
+    static PropertyDecoder forType(Class<?> type) {
+        if (type == null) {
+            return STRING;
+        }
+        else if (List.class.isAssignableFrom(type)) {
+            return LIST;
+        }
+        else if (JavaScript.class.equals(type)) {
+            return JAVASCRIPT;
+        }
+        else if (boolean.class.equals(type) || Boolean.class.equals(type)) {
+            return BOOLEAN;
+        }
+        else if (int.class.equals(type) || Integer.class.equals(type)) {
+            return INTEGER;
+        }
+        else if (double.class.equals(type) || Double.class.equals(type)) {
+            return DOUBLE;
+        }
+        return STRING;
+    }
+
+    /**
+     * Read a string, number or boolean value as a string.
+     * @param reader positioned at the value
+     * @return string representation of the value
+     */
+    static String readScalar(JsonReader reader) {
+        switch (reader.peek()) {
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+            case BOOLEAN:
+                return reader.nextLiteral();
+            default:
+                throw reader.error("Expected a single value");
+        }
+    }
+
+    private static Double readNumber(JsonReader reader) {
+        String value = readScalar(reader);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw reader.error("Expected a number but found '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import fiftyone.pipeline.engines.services.HttpClient;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link HttpClient} decorator which caches successful responses from the
+ * cloud service. Responses are keyed on the URL, headers and body of the
+ * request. The body of a request made by the cloud request engine contains
+ * the evidence which passes the engine's evidence filter, so a repeat visit
+ * with the same evidence is answered without a round trip.
+ * <p>
+ * A response is fresh for the time to live given. After that, it is stale
+ * for the stale-while-revalidate period. A stale response is returned
+ * straight away, and a single background refresh of the entry is started.
+ * If the refresh fails, the stale response continues to be served until the
+ * end of the stale period, after which the next request goes to the cloud
+ * service. Failed refreshes are logged as warnings.
+ * <p>
+ * The cache is bounded by the approximate number of bytes held by the keys
+ * and responses. When adding a response would exceed the limit, the least
+ * recently used entries are removed.
+ * <p>
+ * Requests which are not posted, e.g. those for the property meta data, are
+ * passed straight to the decorated client.
+ * <p>
+ * Closing this instance stops the refresh threads if they were created by
+ * this instance. They are daemon threads which stop once idle, so an
+ * instance which is not closed does not keep threads running.
+ */
+public class CachingHttpClient implements HttpClient, AutoCloseable {
+
+    /**
+     * Approximate number of bytes used by each entry in addition to the key
+     * and response content.
+     */
+    private static final long ENTRY_OVERHEAD = 256;
+
+    /**
+     * Maximum number of threads refreshing stale entries at once when no
+     * executor is provided.
+     */
+    public static final int DEFAULT_REFRESH_THREADS = 4;
+
+    /**
+     * Maximum number of refreshes which can wait for a thread when no
+     * executor is provided. Further refreshes are skipped, and the stale
+     * response is served until a refresh succeeds or the stale period ends.
+     */
+    public static final int DEFAULT_REFRESH_QUEUE_SIZE = 1000;
+
+    private final Logger logger;
+    private final HttpClient client;
+    private final long timeToLiveMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long maxSize;
+    private final Executor executor;
+
+    /**
+     * The executor created by this instance, or null if the executor was
+     * provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    private final LongSupplier clock;
+
+    /**
+     * Access ordered map of entries, guarded by itself.
+     */
+    private final LinkedHashMap<CloudRequestKey, Entry> entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size = 0;
+
+    private final ConcurrentMap<CloudRequestKey, Boolean> refreshing =
+        new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong staleHits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong refreshFailures = new AtomicLong(0);
+
+    /**
+     * Construct a new instance which refreshes stale entries using a pool of
+     * up to {@link #DEFAULT_REFRESH_THREADS} daemon threads, with a queue of
+     * {@link #DEFAULT_REFRESH_QUEUE_SIZE}.
+     * @param logger used to log failed refreshes
+     * @param client the client to make requests with
+     * @param timeToLiveMillis time in milliseconds a response is fresh for
+     * @param staleWhileRevalidateMillis time in milliseconds after it stops
+     *                                   being fresh that a response can still
+     *                                   be returned while it is refreshed
+     * @param maxSize approximate maximum number of bytes held by the cache
+     */
+    public CachingHttpClient(
+        Logger logger,
+        HttpClient client,
+        long timeToLiveMillis,
+        long staleWhileRevalidateMillis,
+        long maxSize) {
+        this(
+            logger,
+            client,
+            timeToLiveMillis,
+            staleWhileRevalidateMillis,
+            maxSize,
+            null,
+            System::currentTimeMillis);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param logger used to log failed refreshes
+     * @param client the client to make requests with
+     * @param timeToLiveMillis time in milliseconds a response is fresh for
+     * @param staleWhileRevalidateMillis time in milliseconds after it stops
+     *                                   being fresh that a response can still
+     *                                   be returned while it is refreshed
+     * @param maxSize approximate maximum number of bytes held by the cache
+     * @param executor used to refresh stale entries in the background. This
+     *                 is not shut down when this instance is closed
+     */
+    public CachingHttpClient(
+        Logger logger,
+        HttpClient client,
+        long timeToLiveMillis,
+        long staleWhileRevalidateMillis,
+        long maxSize,
+        Executor executor) {
+        this(
+            logger,
+            client,
+            timeToLiveMillis,
+            staleWhileRevalidateMillis,
+            maxSize,
+            requireExecutor(executor),
+            System::currentTimeMillis);
+    }
+
+    CachingHttpClient(
+        Logger logger,
+        HttpClient client,
+        long timeToLiveMillis,
+        long staleWhileRevalidateMillis,
+        long maxSize,
+        Executor executor,
+        LongSupplier clock) {
+        if (logger == null) {
+            throw new IllegalArgumentException("logger must not be null.");
+        }
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null.");
+        }
+        if (timeToLiveMillis <= 0) {
+            throw new IllegalArgumentException(
+                "The time to live must be greater than 0.");
+        }
+        if (staleWhileRevalidateMillis < 0) {
+            throw new IllegalArgumentException(
+                "The stale-while-revalidate period must not be negative.");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(
+                "The maximum size of the cache must be greater than 0.");
+        }
+        this.logger = logger;
+        this.client = client;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        this.maxSize = maxSize;
+        if (executor == null) {
+            this.ownedExecutor = createExecutor();
+            this.executor = ownedExecutor;
+        }
+        else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.clock = clock;
+    }
+
+    private static Executor requireExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null.");
+        }
+        return executor;
+    }
+
+    /**
+     * Create a bounded pool of daemon threads which are started as needed,
+     * and stopped again once they have been idle for a minute. Refreshes
+     * submitted when the queue is full are rejected.
+     * @return new executor
+     */
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            DEFAULT_REFRESH_THREADS,
+            DEFAULT_REFRESH_THREADS,
+            1,
+            TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(DEFAULT_REFRESH_QUEUE_SIZE),
+            runnable -> {
+                Thread thread = new Thread(
+                    runnable,
+                    "51d-cloud-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public HttpURLConnection connect(URL url) throws IOException {
+        return new DeferredConnection(url);
+    }
+
+    @Override
+    public String postData(
+        HttpURLConnection connection,
+        Map<String, String> headers,
+        byte[] data) throws IOException {
+        if (connection instanceof DeferredConnection == false) {
+            return client.postData(connection, headers, data);
+        }
+        DeferredConnection deferred = (DeferredConnection) connection;
+        CloudRequestKey key =
+            CoalescingHttpClient.getKey(deferred, headers, data);
+        long now = clock.getAsLong();
+        Entry entry = get(key);
+        CloudResponse response;
+        if (entry != null && now < entry.expires) {
+            hits.incrementAndGet();
+            response = entry.response;
+        }
+        else if (entry != null && now < entry.staleUntil) {
+            staleHits.incrementAndGet();
+            refresh(key, deferred.copy(), headers, data);
+            response = entry.response;
+        }
+        else {
+            misses.incrementAndGet();
+            response = deferred.post(client, headers, data);
+            put(key, response, now);
+        }
+        deferred.setResponse(response);
+        return response.getBody();
+    }
+
+    @Override
+    public String getResponseString(HttpURLConnection connection)
+        throws IOException {
+        return getResponseString(
+            connection,
+            Collections.<String, String>emptyMap());
+    }
+
+    @Override
+    public String getResponseString(
+        HttpURLConnection connection,
+        Map<String, String> headers) throws IOException {
+        if (connection instanceof DeferredConnection == false) {
+            return client.getResponseString(connection, headers);
+        }
+        return ((DeferredConnection) connection).get(client, headers).getBody();
+    }
+
+    /**
+     * @return number of requests answered with a fresh response
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of requests answered with a stale response while it was
+     * refreshed
+     */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    /**
+     * @return number of requests which were sent to the cloud service
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of background refreshes which failed
+     */
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * @return number of responses in the cache
+     */
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return approximate number of bytes held by the cache
+     */
+    public long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     * Remove all responses from the cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    private Entry get(CloudRequestKey key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Add the response to the cache if it was successful, removing the least
+     * recently used entries if needed to keep within the maximum size.
+     * @param key key for the request
+     * @param response response to the request
+     * @param now time the request was made
+     */
+    private void put(CloudRequestKey key, CloudResponse response, long now) {
+        if (response.getResponseCode() != HttpURLConnection.HTTP_OK ||
+            response.getBody() == null) {
+            return;
+        }
+        Entry entry = new Entry(
+            response,
+            now + timeToLiveMillis,
+            now + timeToLiveMillis + staleWhileRevalidateMillis,
+            key.getSize() + response.getSize() + ENTRY_OVERHEAD);
+        if (entry.size > maxSize) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                size -= previous.size;
+            }
+            size += entry.size;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                if (eldest != entry) {
+                    size -= eldest.size;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a background refresh of the entry, unless one is already running.
+     * @param key key for the request
+     * @param connection connection to make the request on
+     * @param headers headers to add to the request
+     * @param data body of the request
+     */
+    private void refresh(
+        CloudRequestKey key,
+        DeferredConnection connection,
+        Map<String, String> headers,
+        byte[] data) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long now = clock.getAsLong();
+                    put(key, connection.post(client, headers, data), now);
+                } catch (Exception e) {
+                    refreshFailures.incrementAndGet();
+                    logger.warn("Failed to refresh a cached response from " +
+                        "the cloud service. The stale response will be " +
+                        "used until the end of the stale period.", e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            refreshFailures.incrementAndGet();
+            logger.warn("Too many cached responses are being refreshed, so " +
+                "a stale response was not refreshed.", e);
+        }
+    }
+
+    /**
+     * Stop the refresh threads if they were created by this instance.
+     * Refreshes which have already started are allowed to finish.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private static final class Entry {
+        private final CloudResponse response;
+        private final long expires;
+        private final long staleUntil;
+        private final long size;
+
+        private Entry(
+            CloudResponse response,
+            long expires,
+            long staleUntil,
+            long size) {
+            this.response = response;
+            this.expires = expires;
+            this.staleUntil = staleUntil;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies a request to the cloud service by everything which can affect
+ * the response: the URL, the request headers and the body. For requests made
+ * by the cloud request engine, the body contains the evidence which was
+ * allowed through the engine's evidence filter, so two requests with the
+ * same key are guaranteed the same response from the same data.
+ */
+final class CloudRequestKey {
+
+    private final String url;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final int hashCode;
+
+    /**
+     * Construct a new key.
+     * @param url the URL the request is made to
+     * @param headers all headers sent with the request
+     * @param body the body of the request
+     */
+    CloudRequestKey(
+        URL url,
+        Map<String, List<String>> headers,
+        byte[] body) {
+        this.url = url.toString();
+        this.headers = new TreeMap<>(headers);
+        this.body = body == null ? new byte[0] : body.clone();
+        int hash = this.url.hashCode();
+        hash = 31 * hash + this.headers.hashCode();
+        hash = 31 * hash + Arrays.hashCode(this.body);
+        this.hashCode = hash;
+    }
+
+    /**
+     * @return approximate number of bytes held by the key
+     */
+    long getSize() {
+        long size = url.length() * 2L + body.length;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length() * 2L;
+            for (String value : header.getValue()) {
+                size += value == null ? 0 : value.length() * 2L;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof CloudRequestKey == false) {
+            return false;
+        }
+        CloudRequestKey other = (CloudRequestKey) obj;
+        return hashCode == other.hashCode &&
+            url.equals(other.url) &&
+            headers.equals(other.headers) &&
+            Arrays.equals(body, other.body);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,98 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of the response to a request made to the cloud service. This
+ * can be shared by any number of callers which made the same request.
+ */
+final class CloudResponse {
+
+    private final int responseCode;
+    private final String responseMessage;
+    private final String body;
+    private final Map<String, List<String>> headers;
+
+    /**
+     * Construct a new instance.
+     * @param responseCode HTTP status code
+     * @param responseMessage HTTP status message
+     * @param body response body
+     * @param headers response headers
+     */
+    CloudResponse(
+        int responseCode,
+        String responseMessage,
+        String body,
+        Map<String, List<String>> headers) {
+        this.responseCode = responseCode;
+        this.responseMessage = responseMessage;
+        this.body = body;
+        Map<String, List<String>> copy =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                // The status line has a null key, which the map can't hold.
+                if (header.getKey() != null) {
+                    copy.put(header.getKey(), header.getValue());
+                }
+            }
+        }
+        this.headers = Collections.unmodifiableMap(copy);
+    }
+
+    int getResponseCode() {
+        return responseCode;
+    }
+
+    String getResponseMessage() {
+        return responseMessage;
+    }
+
+    String getBody() {
+        return body;
+    }
+
+    Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return approximate number of bytes held by the response
+     */
+    long getSize() {
+        long size = body == null ? 0 : body.length() * 2L;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length() * 2L;
+            for (String value : header.getValue()) {
+                size += value == null ? 0 : value.length() * 2L;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,205 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import fiftyone.pipeline.engines.services.HttpClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link HttpClient} decorator which coalesces identical requests to the
+ * cloud service. If a request is posted while an identical request (same
+ * URL, headers and body) is still in flight, it waits for, and shares, the
+ * response to the request in flight rather than making its own round trip.
+ * <p>
+ * The body of a request made by the cloud request engine contains only the
+ * evidence which passes the engine's evidence filter, so concurrent requests
+ * for the same device share a single call to the cloud service, and a
+ * single slot in the request quota.
+ * <p>
+ * Requests which are not posted, e.g. those for the property meta data, are
+ * passed straight to the decorated client.
+ */
+public class CoalescingHttpClient implements HttpClient {
+
+    private final HttpClient client;
+
+    private final ConcurrentMap<CloudRequestKey, CompletableFuture<CloudResponse>>
+        inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong(0);
+
+    private final AtomicLong coalesced = new AtomicLong(0);
+
+    /**
+     * Construct a new instance.
+     * @param client the client to make requests with
+     */
+    public CoalescingHttpClient(HttpClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null.");
+        }
+        this.client = client;
+    }
+
+    @Override
+    public HttpURLConnection connect(URL url) throws IOException {
+        return new DeferredConnection(url);
+    }
+
+    @Override
+    public String postData(
+        HttpURLConnection connection,
+        Map<String, String> headers,
+        byte[] data) throws IOException {
+        if (connection instanceof DeferredConnection == false) {
+            return client.postData(connection, headers, data);
+        }
+        DeferredConnection deferred = (DeferredConnection) connection;
+        CloudResponse response = post(deferred, headers, data);
+        deferred.setResponse(response);
+        return response.getBody();
+    }
+
+    @Override
+    public String getResponseString(HttpURLConnection connection)
+        throws IOException {
+        return getResponseString(
+            connection,
+            Collections.<String, String>emptyMap());
+    }
+
+    @Override
+    public String getResponseString(
+        HttpURLConnection connection,
+        Map<String, String> headers) throws IOException {
+        if (connection instanceof DeferredConnection == false) {
+            return client.getResponseString(connection, headers);
+        }
+        return ((DeferredConnection) connection).get(client, headers).getBody();
+    }
+
+    /**
+     * Get the number of requests which have been posted to this client.
+     * @return number of requests
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Get the number of requests which shared the response to an identical
+     * request rather than calling the cloud service.
+     * @return number of coalesced requests
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Post the request, or wait for an identical request which is already in
+     * flight.
+     * @param connection connection the request was made on
+     * @param headers headers to add to the request
+     * @param data body of the request
+     * @return the response
+     * @throws IOException if the request failed
+     */
+    CloudResponse post(
+        DeferredConnection connection,
+        Map<String, String> headers,
+        byte[] data) throws IOException {
+        requests.incrementAndGet();
+        CloudRequestKey key = getKey(connection, headers, data);
+        CompletableFuture<CloudResponse> future = new CompletableFuture<>();
+        CompletableFuture<CloudResponse> existing =
+            inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            CloudResponse response = connection.post(client, headers, data);
+            future.complete(response);
+            return response;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Get the key identifying a request from everything which is sent to the
+     * cloud service.
+     * @param connection connection the request was made on
+     * @param headers headers to add to the request
+     * @param data body of the request
+     * @return key for the request
+     */
+    static CloudRequestKey getKey(
+        HttpURLConnection connection,
+        Map<String, String> headers,
+        byte[] data) {
+        Map<String, List<String>> allHeaders =
+            new HashMap<>(connection.getRequestProperties());
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                allHeaders.put(
+                    header.getKey(),
+                    Collections.singletonList(header.getValue()));
+            }
+        }
+        return new CloudRequestKey(connection.getURL(), allHeaders, data);
+    }
+
+    private static CloudResponse await(
+        CompletableFuture<CloudResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                "Interrupted while waiting for an identical request to the " +
+                    "cloud service.");
+        } catch (ExecutionException e) {
+            throw new IOException(
+                "An identical request to the cloud service failed. " +
+                    e.getCause().getMessage(),
+                e.getCause());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import fiftyone.pipeline.engines.services.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection returned by the decorating {@link HttpClient}s in this package.
+ * No network connection is opened by this instance. It only records the
+ * request options which are set on it, so that the request can be made,
+ * or answered from a shared response, when data is posted. Once a response
+ * has been set, it can be read from this instance in the same way as from
+ * the connection which made the request.
+ */
+class DeferredConnection extends HttpURLConnection {
+
+    private volatile CloudResponse response = null;
+
+    /**
+     * Construct a new instance.
+     * @param url the URL to connect to
+     */
+    DeferredConnection(URL url) {
+        super(url);
+    }
+
+    /**
+     * Create a new instance with the same URL, timeouts and request properties
+     * as this one, but no response.
+     * @return new instance
+     */
+    DeferredConnection copy() {
+        DeferredConnection copy = new DeferredConnection(getURL());
+        copy.setConnectTimeout(getConnectTimeout());
+        copy.setReadTimeout(getReadTimeout());
+        for (Map.Entry<String, List<String>> property :
+            getRequestProperties().entrySet()) {
+            for (String value : property.getValue()) {
+                copy.addRequestProperty(property.getKey(), value);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Post data using the client provided, and set the response on this
+     * instance.
+     * @param client client to make the request with
+     * @param headers headers to add to the request
+     * @param data body of the request
+     * @return the response
+     * @throws IOException if the request failed
+     */
+    CloudResponse post(
+        HttpClient client,
+        Map<String, String> headers,
+        byte[] data) throws IOException {
+        HttpURLConnection connection = open(client);
+        String body = client.postData(connection, headers, data);
+        return complete(connection, body);
+    }
+
+    /**
+     * Get the response string using the client provided, and set the response
+     * on this instance.
+     * @param client client to make the request with
+     * @param headers headers to add to the request
+     * @return the response
+     * @throws IOException if the request failed
+     */
+    CloudResponse get(
+        HttpClient client,
+        Map<String, String> headers) throws IOException {
+        HttpURLConnection connection = open(client);
+        String body = client.getResponseString(connection, headers);
+        return complete(connection, body);
+    }
+
+    /**
+     * Open a real connection using the client provided, copying the timeouts
+     * and request properties set on this instance.
+     * @param client client to open the connection with
+     * @return new connection
+     * @throws IOException if the connection could not be opened
+     */
+    private HttpURLConnection open(HttpClient client) throws IOException {
+        HttpURLConnection connection = client.connect(getURL());
+        connection.setConnectTimeout(getConnectTimeout());
+        connection.setReadTimeout(getReadTimeout());
+        for (Map.Entry<String, List<String>> property :
+            getRequestProperties().entrySet()) {
+            for (String value : property.getValue()) {
+                connection.addRequestProperty(property.getKey(), value);
+            }
+        }
+        return connection;
+    }
+
+    private CloudResponse complete(
+        HttpURLConnection connection,
+        String body) throws IOException {
+        CloudResponse result = new CloudResponse(
+            connection.getResponseCode(),
+            connection.getResponseMessage(),
+            body,
+            connection.getHeaderFields());
+        setResponse(result);
+        return result;
+    }
+
+    /**
+     * Set the response to the request, which was either made by this
+     * instance or shared from another.
+     * @param response the response
+     */
+    void setResponse(CloudResponse response) {
+        this.response = response;
+        this.responseCode = response.getResponseCode();
+        this.responseMessage = response.getResponseMessage();
+    }
+
+    @Override
+    public void connect() {
+        // Nothing to connect, the request is made when data is posted.
+    }
+
+    @Override
+    public void disconnect() {
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        return getResponse().getResponseCode();
+    }
+
+    @Override
+    public String getResponseMessage() throws IOException {
+        return getResponse().getResponseMessage();
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        CloudResponse current = response;
+        return current == null ? super.getHeaderFields() : current.getHeaders();
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        List<String> values = getHeaderFields().get(name);
+        return values == null || values.isEmpty() ?
+            null :
+            values.get(values.size() - 1);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        CloudResponse current = getResponse();
+        if (current.getResponseCode() >= HTTP_BAD_REQUEST) {
+            throw new IOException(
+                "Server returned HTTP response code: " +
+                    current.getResponseCode() + " for URL: " + getURL());
+        }
+        return toStream(current);
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        CloudResponse current = response;
+        return current != null &&
+            current.getResponseCode() >= HTTP_BAD_REQUEST ?
+            toStream(current) :
+            null;
+    }
+
+    private CloudResponse getResponse() throws IOException {
+        CloudResponse current = response;
+        if (current == null) {
+            throw new IOException(
+                "No data has been posted to '" + getURL() + "' using this " +
+                    "connection.");
+        }
+        return current;
+    }
+
+    private static InputStream toStream(CloudResponse response) {
+        return new ByteArrayInputStream(
+            response.getBody() == null ?
+                new byte[0] :
+                response.getBody().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,168 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.flowelements;
+
+import fiftyone.devicedetection.cloud.data.DeviceDataCloud;
+import fiftyone.pipeline.cloudrequestengine.data.CloudRequestData;
+import fiftyone.pipeline.cloudrequestengine.flowelements.CloudRequestEngine;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.data.types.JavaScript;
+import fiftyone.pipeline.engines.data.AspectPropertyMetaData;
+import fiftyone.pipeline.engines.data.AspectPropertyMetaDataDefault;
+import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import fiftyone.pipeline.engines.services.MissingPropertyService;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeviceDataCloudTests {
+
+    protected static final ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+
+    /**
+     * Test that each property in the cloud response is decoded into a value
+     * of the property's type, and can be read from the slot backed data
+     * either by the typed getters or by name in any case.
+     *
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void DeviceData_TypedValues() throws Exception {
+        try (DeviceDetectionCloudEngine engine =
+                     new DeviceDetectionCloudEngineBuilder(loggerFactory)
+                             .build()) {
+            DeviceDataCloud device = process(engine, typedJson);
+
+            assertEquals("Windows", device.getPlatformName().getValue());
+            assertEquals(Boolean.FALSE, device.getIsMobile().getValue());
+            assertEquals(
+                    Integer.valueOf(1080),
+                    device.getScreenPixelsWidth().getValue());
+            assertEquals(
+                    Double.valueOf(2.5),
+                    device.getPixelRatio().getValue());
+            assertEquals(
+                    Arrays.asList("Desktop", "Laptop"),
+                    device.getHardwareName().getValue());
+            assertEquals(
+                    "document.cookie;",
+                    device.getJavascriptHardwareProfile().getValue().toString());
+
+            AspectPropertyValue<String> platformName = device.getAs(
+                    "PLATFORMNAME",
+                    AspectPropertyValue.class,
+                    String.class);
+            assertEquals("Windows", platformName.getValue());
+        }
+    }
+
+    /**
+     * Test that the key map contains every property in the response, along
+     * with the no value messages for properties which are not in the list of
+     * properties.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void DeviceData_AsKeyMap() throws Exception {
+        try (DeviceDetectionCloudEngine engine =
+                     new DeviceDetectionCloudEngineBuilder(loggerFactory)
+                             .build()) {
+            DeviceDataCloud device = process(engine, typedJson);
+
+            Map<String, Object> map = device.asKeyMap();
+            for (AspectPropertyMetaData property : properties) {
+                assertTrue(map.containsKey(property.getName()));
+            }
+            assertTrue(map.containsKey("priceband"));
+            AspectPropertyValue<?> priceBand =
+                    (AspectPropertyValue<?>) map.get("priceband");
+            assertFalse(priceBand.hasValue());
+            assertEquals("no price", priceBand.getNoValueMessage());
+        }
+    }
+
+    private DeviceDataCloud process(
+            DeviceDetectionCloudEngine engine,
+            String json) throws Exception {
+        FlowData flowData = mock(FlowData.class);
+        CloudRequestData cloudData = mock(CloudRequestData.class);
+        when(cloudData.getJsonResponse()).thenReturn(json);
+        when(flowData.getFromElement(any(CloudRequestEngine.class)))
+                .thenReturn(cloudData);
+
+        DeviceDataCloud device = new DeviceDataCloudInternal(
+                loggerFactory.getLogger(DeviceDataCloud.class.getSimpleName()),
+                flowData,
+                engine,
+                mock(MissingPropertyService.class));
+
+        engine.cloudRequestEngine = mock(CloudRequestEngine.class);
+        engine.aspectProperties = properties;
+        engine.processEngine(flowData, device);
+        return device;
+    }
+
+    private static String typedJson =
+            "{\n" +
+                    "  'device': {\n" +
+                    "    'platformname': 'Windows',\n" +
+                    "    'ismobile': false,\n" +
+                    "    'screenpixelswidth': 1080,\n" +
+                    "    'pixelratio': 2.5,\n" +
+                    "    'hardwarename': ['Desktop', 'Laptop'],\n" +
+                    "    'javascripthardwareprofile': 'document.cookie;',\n" +
+                    "    'priceband': null,\n" +
+                    "    'pricebandnullreason': 'no price'\n" +
+                    "  },\n" +
+                    "  'javascriptProperties': ['device.javascripthardwareprofile']\n" +
+                    "}\n";
+
+    private static List<AspectPropertyMetaData> properties =
+            new ArrayList<AspectPropertyMetaData>() {
+                /**
+                 * Serializable class version number, which is used during deserialization
+                 */
+                private static final long serialVersionUID = 4218836283581427421L;
+
+                {
+                    add(new AspectPropertyMetaDataDefault("PlatformName", null, null, String.class, null, true));
+                    add(new AspectPropertyMetaDataDefault("IsMobile", null, null, boolean.class, null, true));
+                    add(new AspectPropertyMetaDataDefault("ScreenPixelsWidth", null, null, int.class, null, true));
+                    add(new AspectPropertyMetaDataDefault("PixelRatio", null, null, double.class, null, true));
+                    add(new AspectPropertyMetaDataDefault("HardwareName", null, null, List.class, null, true));
+                    add(new AspectPropertyMetaDataDefault("JavascriptHardwareProfile", null, null, JavaScript.class, null, true));
+                }
+            };
+}
@@ -0,0 +1,132 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.flowelements;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JsonReaderTests {
+
+    /**
+     * Check that members are read in order, and that values of each type are
+     * read correctly.
+     */
+    @Test
+    public void JsonReader_Values() {
+        JsonReader reader = new JsonReader(
+            "{\"string\": \"value\", \"integer\": -12, \"double\": 1.5e2, " +
+                "\"boolean\": true, \"null\": null, " +
+                "\"array\": [\"a\", 1, null]}");
+        reader.beginObject();
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("string", reader.nextName());
+        assertEquals(JsonReader.Token.STRING, reader.peek());
+        assertEquals("value", reader.nextString());
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("integer", reader.nextName());
+        assertEquals(JsonReader.Token.NUMBER, reader.peek());
+        assertEquals("-12", reader.nextLiteral());
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("double", reader.nextName());
+        assertEquals("1.5e2", reader.nextLiteral());
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("boolean", reader.nextName());
+        assertEquals(JsonReader.Token.BOOLEAN, reader.peek());
+        assertTrue(reader.nextBoolean());
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("null", reader.nextName());
+        assertTrue(reader.nextNull());
+
+        assertTrue(reader.hasNextMember());
+        assertEquals("array", reader.nextName());
+        assertFalse(reader.nextNull());
+        reader.beginArray();
+        assertTrue(reader.hasNextElement());
+        assertEquals("a", reader.nextString());
+        assertTrue(reader.hasNextElement());
+        assertEquals("1", reader.nextLiteral());
+        assertTrue(reader.hasNextElement());
+        assertTrue(reader.nextNull());
+        assertFalse(reader.hasNextElement());
+
+        assertFalse(reader.hasNextMember());
+    }
+
+    /**
+     * Check that escape sequences in strings are decoded, and that strings
+     * in single quotes are accepted.
+     */
+    @Test
+    public void JsonReader_Strings() {
+        JsonReader reader = new JsonReader(
+            "['a\\\"b\\\\c\\/d', \"\\u0041\\n\", 'it\\'s', \"\"]");
+        reader.beginArray();
+        assertTrue(reader.hasNextElement());
+        assertEquals("a\"b\\c/d", reader.nextString());
+        assertTrue(reader.hasNextElement());
+        assertEquals("A\n", reader.nextString());
+        assertTrue(reader.hasNextElement());
+        assertEquals("it's", reader.nextString());
+        assertTrue(reader.hasNextElement());
+        assertEquals("", reader.nextString());
+        assertFalse(reader.hasNextElement());
+    }
+
+    /**
+     * Check that nested values are skipped entirely, including strings which
+     * contain braces, brackets and escaped quotes.
+     */
+    @Test
+    public void JsonReader_SkipValue() {
+        JsonReader reader = new JsonReader(
+            "{\"skip\": {\"a\": [1, {\"b\": \"}]\\\"\"}], \"c\": {}}, " +
+                "\"keep\": 'value'}");
+        reader.beginObject();
+        assertTrue(reader.hasNextMember());
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertTrue(reader.hasNextMember());
+        assertEquals("keep", reader.nextName());
+        assertEquals("value", reader.nextString());
+        assertFalse(reader.hasNextMember());
+    }
+
+    /**
+     * Check that a truncated document results in an exception rather than
+     * a partial result.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void JsonReader_Truncated() {
+        JsonReader reader = new JsonReader("{\"device\": {\"a\": \"b");
+        reader.beginObject();
+        reader.hasNextMember();
+        reader.nextName();
+        reader.skipValue();
+    }
+}
@@ -0,0 +1,191 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import com.sun.net.httpserver.HttpServer;
+import fiftyone.pipeline.engines.services.HttpClientDefault;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CachingHttpClientTests {
+
+    private static final long TTL = 1000;
+    private static final long STALE = 500;
+
+    private HttpServer server;
+    private URL url;
+    private final AtomicInteger calls = new AtomicInteger(0);
+    private final AtomicLong now = new AtomicLong(0);
+    private final AtomicBoolean failing = new AtomicBoolean(false);
+    private final Logger logger = mock(Logger.class);
+
+    /**
+     * Start a local HTTP server which stands in for the cloud service. It
+     * responds with the number of calls made so far, or closes the
+     * connection without a response while failing is set.
+     */
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (failing.get()) {
+                exchange.close();
+                return;
+            }
+            byte[] body = ("{\"call\": " + calls.incrementAndGet() + "}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        url = new URL(
+            "http://localhost:" + server.getAddress().getPort() + "/json");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Check that a repeat request within the time to live is answered from
+     * the cache.
+     */
+    @Test
+    public void Caching_Fresh() throws Exception {
+        CachingHttpClient client = createClient(1024 * 1024);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        now.set(TTL - 1);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        assertEquals(1, calls.get());
+        assertEquals(1, client.getHits());
+        assertEquals(1, client.getMisses());
+    }
+
+    /**
+     * Check that a stale response is returned while it is refreshed, and
+     * that the refreshed response is returned after that.
+     */
+    @Test
+    public void Caching_StaleWhileRevalidate() throws Exception {
+        CachingHttpClient client = createClient(1024 * 1024);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        now.set(TTL + 1);
+        // The refresh runs on the calling thread in this test, so is
+        // complete when the stale response is returned.
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        assertEquals(2, calls.get());
+        assertEquals(1, client.getStaleHits());
+        assertEquals("{\"call\": 2}", post(client, "ua=test"));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * Check that when a refresh fails, the stale response is still returned,
+     * and the failure is counted and logged as a warning.
+     */
+    @Test
+    public void Caching_RefreshFailure() throws Exception {
+        CachingHttpClient client = createClient(1024 * 1024);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        now.set(TTL + 1);
+        failing.set(true);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        assertEquals(1, client.getRefreshFailures());
+        verify(logger).warn(anyString(), any(Throwable.class));
+    }
+
+    /**
+     * Check that a response which is past the stale-while-revalidate period
+     * is not returned.
+     */
+    @Test
+    public void Caching_Expired() throws Exception {
+        CachingHttpClient client = createClient(1024 * 1024);
+        assertEquals("{\"call\": 1}", post(client, "ua=test"));
+        now.set(TTL + STALE);
+        assertEquals("{\"call\": 2}", post(client, "ua=test"));
+        assertEquals(0, client.getStaleHits());
+        assertEquals(2, client.getMisses());
+    }
+
+    /**
+     * Check that the least recently used responses are removed to keep the
+     * cache within its maximum size.
+     */
+    @Test
+    public void Caching_Bounded() throws Exception {
+        CachingHttpClient client = createClient(1024);
+        post(client, "ua=one");
+        assertEquals(1, client.getEntryCount());
+        post(client, "ua=two");
+        post(client, "ua=three");
+        post(client, "ua=four");
+        assertTrue(client.getSize() <= 1024);
+        assertTrue(client.getEntryCount() < 4);
+        // The first request has been evicted, so goes to the server again.
+        int before = calls.get();
+        post(client, "ua=one");
+        assertEquals(before + 1, calls.get());
+    }
+
+    private CachingHttpClient createClient(long maxSize) {
+        return new CachingHttpClient(
+            logger,
+            new HttpClientDefault(),
+            TTL,
+            STALE,
+            maxSize,
+            Runnable::run,
+            now::get);
+    }
+
+    private String post(CachingHttpClient client, String data)
+        throws IOException {
+        HttpURLConnection connection = client.connect(url);
+        String body = client.postData(
+            connection,
+            Collections.<String, String>emptyMap(),
+            data.getBytes(StandardCharsets.UTF_8));
+        assertEquals(200, connection.getResponseCode());
+        return body;
+    }
+}
@@ -0,0 +1,164 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.cloud.services;
+
+import com.sun.net.httpserver.HttpServer;
+import fiftyone.pipeline.engines.services.HttpClientDefault;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CoalescingHttpClientTests {
+
+    private HttpServer server;
+    private URL url;
+    private final AtomicInteger calls = new AtomicInteger(0);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    /**
+     * Start a local HTTP server which stands in for the cloud service. It
+     * responds with the number of calls made so far, after waiting for the
+     * test to release it.
+     */
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            int call = calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"call\": " + call + "}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = new URL(
+            "http://localhost:" + server.getAddress().getPort() + "/json");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Check that concurrent identical requests result in a single call to the
+     * server, and all get the same response.
+     */
+    @Test
+    public void Coalescing_IdenticalRequests() throws Exception {
+        int threads = 8;
+        CoalescingHttpClient client =
+            new CoalescingHttpClient(new HttpClientDefault());
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> post(client, "ua=test")));
+            }
+            // Wait for all the followers to be waiting on the first request
+            // before letting the server respond.
+            long timeout = System.currentTimeMillis() + 10000;
+            while (client.getCoalescedCount() < threads - 1 &&
+                System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("{\"call\": 1}", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(threads, client.getRequestCount());
+            assertEquals(threads - 1, client.getCoalescedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Check that requests with different bodies are not coalesced, and that
+     * identical requests which are not concurrent each call the server.
+     */
+    @Test
+    public void Coalescing_DistinctRequests() throws Exception {
+        CoalescingHttpClient client =
+            new CoalescingHttpClient(new HttpClientDefault());
+        assertEquals("{\"call\": 1}", post(client, "ua=one"));
+        assertEquals("{\"call\": 2}", post(client, "ua=two"));
+        assertEquals("{\"call\": 3}", post(client, "ua=one"));
+        assertEquals(3, calls.get());
+        assertEquals(0, client.getCoalescedCount());
+    }
+
+    /**
+     * Check that the response code of the shared response can be read from
+     * the connection the request was posted on.
+     */
+    @Test
+    public void Coalescing_ResponseCode() throws Exception {
+        CoalescingHttpClient client =
+            new CoalescingHttpClient(new HttpClientDefault());
+        HttpURLConnection connection = client.connect(url);
+        client.postData(
+            connection,
+            Collections.<String, String>emptyMap(),
+            "ua=test".getBytes(StandardCharsets.UTF_8));
+        assertEquals(200, connection.getResponseCode());
+    }
+
+    private String post(CoalescingHttpClient client, String data)
+        throws IOException {
+        HttpURLConnection connection = client.connect(url);
+        return client.postData(
+            connection,
+            Collections.<String, String>emptyMap(),
+            data.getBytes(StandardCharsets.UTF_8));
+    }
+}
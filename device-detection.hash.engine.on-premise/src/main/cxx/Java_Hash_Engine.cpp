@@ -442,6 +442,177 @@ SWIGINTERN void SWIG_JavaException(JNIEnv *jenv, int code, const char *msg) {
     return results->containsProperty(propertyName);
   }
 
+  /* Elements of a Java long array, which are copied back and released when
+     this goes out of scope. The wrapper returns as soon as an exception has
+     been passed to Java, so the release cannot be left to the freearg
+     typemap. */
+  class LongArrayElements {
+  public:
+    LongArrayElements() : jenv(NULL), array(NULL), elements(NULL) {}
+    ~LongArrayElements() {
+      if (elements != NULL) {
+        jenv->ReleaseLongArrayElements(array, elements, 0);
+      }
+    }
+    long long *get(JNIEnv *jenv, jlongArray array) {
+      this->jenv = jenv;
+      this->array = array;
+      elements = jenv->GetLongArrayElements(array, 0);
+      return (long long *)elements;
+    }
+  private:
+    JNIEnv *jenv;
+    jlongArray array;
+    jlong *elements;
+  };
+
+  void Engine_ProcessBatch(EngineHash *engine, long long handles[], size_t count) {
+    size_t i = 0;
+    try {
+      for (; i < count; i++) {
+        handles[i] = (long long)engine->process(
+          (EvidenceDeviceDetection*)handles[i]);
+      }
+    }
+    catch (...) {
+      /* Free any results which were created before the failure, as the
+         caller will not be given the pointers. */
+      for (size_t j = 0; j < i; j++) {
+        delete (ResultsHash*)handles[j];
+        handles[j] = 0;
+      }
+      throw;
+    }
+  }
+
+  bool Results_GetValueAsBoolOrDefault(ResultsBase *results, int requiredPropertyIndex, bool defaultValue) {
+    Value<bool> value = results->getValueAsBool(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+  int Results_GetValueAsIntegerOrDefault(ResultsBase *results, int requiredPropertyIndex, int defaultValue) {
+    Value<int> value = results->getValueAsInteger(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+  double Results_GetValueAsDoubleOrDefault(ResultsBase *results, int requiredPropertyIndex, double defaultValue) {
+    Value<double> value = results->getValueAsDouble(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+
+
+  EngineHash *Engine_CreateFromBuffer(void *buffer, long long capacity, ConfigHash *config, RequiredPropertiesConfig *properties) {
+    /* The configuration is shared by every engine the Java engine creates,
+       so restore the flag for engines created from byte arrays, whose data
+       the data set does free. */
+    bool freeData = config->getConfig()->b.b.freeData;
+    config->getConfig()->b.b.freeData = false;
+    try {
+      EngineHash *engine = new EngineHash((unsigned char *)buffer, (long)capacity, config, properties);
+      config->getConfig()->b.b.freeData = freeData;
+      return engine;
+    }
+    catch (...) {
+      config->getConfig()->b.b.freeData = freeData;
+      throw;
+    }
+  }
+
+
+  /* The resource manager of an engine is protected, so is reached through a
+     derived class. */
+  class EngineHashManager : public EngineHash {
+  public:
+    static fiftyoneDegreesResourceManager *get(EngineHash *engine) {
+      return static_cast<EngineHashManager *>(engine)->manager.get();
+    }
+  };
+
+
+  void Engine_GetCollectionSizes(EngineHash *engine, long long sizes[], size_t count) {
+    fiftyoneDegreesDataSetHash *dataSet =
+      fiftyoneDegreesDataSetHashGet(EngineHashManager::get(engine));
+    fiftyoneDegreesCollectionHeader headers[] = {
+      dataSet->header.strings,
+      dataSet->header.properties,
+      dataSet->header.values,
+      dataSet->header.profiles,
+      dataSet->header.nodes,
+      dataSet->header.profileOffsets
+    };
+    fiftyoneDegreesDataSetHashRelease(dataSet);
+    for (size_t i = 0; i < sizeof(headers) / sizeof(headers[0]) && i * 2 + 1 < count; i++) {
+      sizes[i * 2] = headers[i].count;
+      sizes[i * 2 + 1] = headers[i].length;
+    }
+  }
+
+  bool Config_GetAllInMemory(ConfigHash *config) {
+    return config->getConfig()->b.b.allInMemory;
+  }
+
+
+  /* Add the cache counters and loaded items of one collection to values,
+     which are hits, misses, cache capacity, loaded items and loaded bytes.
+     A collection read from a file is a chain of a memory collection for the
+     loaded items, if any, followed by a file collection which has a cache
+     if the capacity is not zero. */
+  static void getCollectionCache(
+    fiftyoneDegreesCollection *collection,
+    fiftyoneDegreesCollectionConfig *config,
+    bool isInMemory,
+    long long *values) {
+    if (isInMemory) {
+      values[3] = collection->count;
+      values[4] = collection->size;
+      return;
+    }
+    if (config->loaded > 0) {
+      values[3] = collection->count;
+      values[4] = collection->size;
+      collection = collection->next;
+    }
+    if (collection != NULL && config->capacity > 0) {
+      fiftyoneDegreesCache *cache =
+        ((fiftyoneDegreesCollectionFile *)collection->state)->cache;
+      if (cache != NULL) {
+        values[0] = cache->hits;
+        values[1] = cache->misses;
+        values[2] = cache->capacity;
+      }
+    }
+  }
+
+
+  void Engine_GetCollectionCaches(EngineHash *engine, long long values[], size_t count) {
+    fiftyoneDegreesDataSetHash *dataSet =
+      fiftyoneDegreesDataSetHashGet(EngineHashManager::get(engine));
+    fiftyoneDegreesCollection *collections[] = {
+      dataSet->strings,
+      dataSet->properties,
+      dataSet->values,
+      dataSet->profiles,
+      dataSet->nodes,
+      dataSet->profileOffsets
+    };
+    fiftyoneDegreesCollectionConfig *configs[] = {
+      &dataSet->config.strings,
+      &dataSet->config.properties,
+      &dataSet->config.values,
+      &dataSet->config.profiles,
+      &dataSet->config.nodes,
+      &dataSet->config.profileOffsets
+    };
+    bool isInMemory =
+      dataSet->b.b.isInMemory || dataSet->config.b.b.allInMemory;
+    for (size_t i = 0; i < sizeof(collections) / sizeof(collections[0]) && i * 5 + 4 < count; i++) {
+      long long *collectionValues = values + i * 5;
+      for (size_t j = 0; j < 5; j++) {
+        collectionValues[j] = 0;
+      }
+      getCollectionCache(collections[i], configs[i], isInMemory, collectionValues);
+    }
+    fiftyoneDegreesDataSetHashRelease(dataSet);
+  }
+
 
 #ifdef __cplusplus
 extern "C" {
@@ -15604,6 +15775,576 @@ SWIGEXPORT jboolean JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_
 }
 
 
+SWIGEXPORT void JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Engine_1ProcessBatch(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jlongArray jarg2) {
+  EngineHash *arg1 = (EngineHash *) 0 ;
+  long long *arg2 ;
+  size_t arg3 ;
+  LongArrayElements elements2 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(EngineHash **)&jarg1; 
+  {
+    if (jarg2) {
+      arg2 = elements2.get(jenv, jarg2);
+      arg3 = (size_t) jenv->GetArrayLength(jarg2);
+    } else {
+      arg2 = 0;
+      arg3 = 0;
+    }
+  }
+  {
+    try {
+      Engine_ProcessBatch(arg1,arg2,arg3);
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return ; 
+      };
+    }
+  }
+  
+  
+}
+
+
+SWIGEXPORT jboolean JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Results_1GetValueAsBoolOrDefault(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jboolean jarg3) {
+  jboolean jresult = 0 ;
+  ResultsBase *arg1 = (ResultsBase *) 0 ;
+  int arg2 ;
+  bool arg3 ;
+  bool result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(ResultsBase **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = jarg3 ? true : false; 
+  {
+    try {
+      result = (bool)Results_GetValueAsBoolOrDefault(arg1,arg2,arg3);;
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return 0; 
+      };
+    }
+  }
+  jresult = (jboolean)result; 
+  return jresult;
+}
+
+
+SWIGEXPORT jint JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Results_1GetValueAsIntegerOrDefault(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jint jarg3) {
+  jint jresult = 0 ;
+  ResultsBase *arg1 = (ResultsBase *) 0 ;
+  int arg2 ;
+  int arg3 ;
+  int result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(ResultsBase **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = (int)jarg3; 
+  {
+    try {
+      result = (int)Results_GetValueAsIntegerOrDefault(arg1,arg2,arg3);;
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return 0; 
+      };
+    }
+  }
+  jresult = (jint)result; 
+  return jresult;
+}
+
+
+SWIGEXPORT jdouble JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Results_1GetValueAsDoubleOrDefault(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jint jarg2, jdouble jarg3) {
+  jdouble jresult = 0 ;
+  ResultsBase *arg1 = (ResultsBase *) 0 ;
+  int arg2 ;
+  double arg3 ;
+  double result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(ResultsBase **)&jarg1; 
+  arg2 = (int)jarg2; 
+  arg3 = (double)jarg3; 
+  {
+    try {
+      result = (double)Results_GetValueAsDoubleOrDefault(arg1,arg2,arg3);;
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return 0; 
+      };
+    }
+  }
+  jresult = (jdouble)result; 
+  return jresult;
+}
+
+
+SWIGEXPORT jlong JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Engine_1CreateFromBuffer(JNIEnv *jenv, jclass jcls, jobject jarg1, jlong jarg3, jobject jarg3_, jlong jarg4, jobject jarg4_) {
+  jlong jresult = 0 ;
+  void *arg1 = (void *) 0 ;
+  long long arg2 ;
+  ConfigHash *arg3 = (ConfigHash *) 0 ;
+  RequiredPropertiesConfig *arg4 = (RequiredPropertiesConfig *) 0 ;
+  EngineHash *result = 0 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg3_;
+  (void)jarg4_;
+  {
+    arg1 = jarg1 ? jenv->GetDirectBufferAddress(jarg1) : 0;
+    if (arg1 == 0) {
+      SWIG_JavaThrowException(
+        jenv,
+        SWIG_JavaIllegalArgumentException,
+        "The data must be in a direct ByteBuffer.");
+      return 0;
+    }
+    arg2 = (long long) jenv->GetDirectBufferCapacity(jarg1);
+  }
+  arg3 = *(ConfigHash **)&jarg3; 
+  arg4 = *(RequiredPropertiesConfig **)&jarg4; 
+  {
+    try {
+      result = (EngineHash *)Engine_CreateFromBuffer(arg1,arg2,arg3,arg4);;
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return 0; 
+      };
+    }
+  }
+  *(EngineHash **)&jresult = result; 
+  return jresult;
+}
+
+
+SWIGEXPORT void JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Engine_1GetCollectionSizes(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jlongArray jarg2) {
+  EngineHash *arg1 = (EngineHash *) 0 ;
+  long long *arg2 ;
+  size_t arg3 ;
+  LongArrayElements elements2 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(EngineHash **)&jarg1; 
+  {
+    if (jarg2) {
+      arg2 = elements2.get(jenv, jarg2);
+      arg3 = (size_t) jenv->GetArrayLength(jarg2);
+    } else {
+      arg2 = 0;
+      arg3 = 0;
+    }
+  }
+  {
+    try {
+      Engine_GetCollectionSizes(arg1,arg2,arg3);
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return ; 
+      };
+    }
+  }
+  
+  
+}
+
+
+SWIGEXPORT void JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Engine_1GetCollectionCaches(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_, jlongArray jarg2) {
+  EngineHash *arg1 = (EngineHash *) 0 ;
+  long long *arg2 ;
+  size_t arg3 ;
+  LongArrayElements elements2 ;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(EngineHash **)&jarg1; 
+  {
+    if (jarg2) {
+      arg2 = elements2.get(jenv, jarg2);
+      arg3 = (size_t) jenv->GetArrayLength(jarg2);
+    } else {
+      arg2 = 0;
+      arg3 = 0;
+    }
+  }
+  {
+    try {
+      Engine_GetCollectionCaches(arg1,arg2,arg3);
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return ; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return ; 
+      };
+    }
+  }
+  
+  
+}
+
+
+SWIGEXPORT jboolean JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_Config_1GetAllInMemory(JNIEnv *jenv, jclass jcls, jlong jarg1, jobject jarg1_) {
+  jboolean jresult = 0 ;
+  ConfigHash *arg1 = (ConfigHash *) 0 ;
+  bool result;
+  
+  (void)jenv;
+  (void)jcls;
+  (void)jarg1_;
+  arg1 = *(ConfigHash **)&jarg1; 
+  {
+    try {
+      result = (bool)Config_GetAllInMemory(arg1);;
+    }
+    catch(FatalException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NotImplementedException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(InvalidPropertyException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(EvidenceException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(TooManyValuesException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(NoValuesAvailableException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }	
+    catch(StatusCodeException& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(runtime_error& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_RuntimeError, e.what()); return 0; 
+      };
+    }
+    catch(invalid_argument& e) {
+      {
+        SWIG_JavaException(jenv, SWIG_ValueError, e.what()); return 0; 
+      };
+    }
+  }
+  jresult = (jboolean)result; 
+  return jresult;
+}
+
+
 SWIGEXPORT jlong JNICALL Java_fiftyone_devicedetection_hash_engine_onpremise_interop_swig_DeviceDetectionHashEngineModuleJNI_ConfigDeviceDetectionSwig_1SWIGUpcast(JNIEnv *jenv, jclass jcls, jlong jarg1) {
     jlong baseptr = 0;
     (void)jenv;
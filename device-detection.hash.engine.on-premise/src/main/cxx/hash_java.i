@@ -58,6 +58,231 @@ nofinalize(ResultsHash);
   }
 %}
 
+/* Pass an array of evidence pointers in, and get an array of results pointers
+   back, so that a batch of evidence is processed with a single JNI call. */
+%typemap(jni) (long long handles[], size_t count) "jlongArray"
+%typemap(jtype) (long long handles[], size_t count) "long[]"
+%typemap(jstype) (long long handles[], size_t count) "long[]"
+%typemap(javain) (long long handles[], size_t count) "$javainput"
+%{
+  /* Elements of a Java long array, which are copied back and released when
+     this goes out of scope. The wrapper returns as soon as an exception has
+     been passed to Java, so the release cannot be left to the freearg
+     typemap. */
+  class LongArrayElements {
+  public:
+    LongArrayElements() : jenv(NULL), array(NULL), elements(NULL) {}
+    ~LongArrayElements() {
+      if (elements != NULL) {
+        jenv->ReleaseLongArrayElements(array, elements, 0);
+      }
+    }
+    long long *get(JNIEnv *jenv, jlongArray array) {
+      this->jenv = jenv;
+      this->array = array;
+      elements = jenv->GetLongArrayElements(array, 0);
+      return (long long *)elements;
+    }
+  private:
+    JNIEnv *jenv;
+    jlongArray array;
+    jlong *elements;
+  };
+%}
+%typemap(in) (long long handles[], size_t count) (LongArrayElements elements) {
+  if ($input) {
+    $1 = elements.get(jenv, $input);
+    $2 = (size_t) JCALL1(GetArrayLength, jenv, $input);
+  } else {
+    $1 = 0;
+    $2 = 0;
+  }
+}
+%inline %{
+  void Engine_ProcessBatch(EngineHash *engine, long long handles[], size_t count) {
+    size_t i = 0;
+    try {
+      for (; i < count; i++) {
+        handles[i] = (long long)engine->process(
+          (EvidenceDeviceDetection*)handles[i]);
+      }
+    }
+    catch (...) {
+      /* Free any results which were created before the failure, as the
+         caller will not be given the pointers. */
+      for (size_t j = 0; j < i; j++) {
+        delete (ResultsHash*)handles[j];
+        handles[j] = 0;
+      }
+      throw;
+    }
+  }
+%}
+
+/* Get a value by required property index straight into a Java primitive, so
+   that no value wrapper is allocated when the caller has a default. */
+%inline %{
+  bool Results_GetValueAsBoolOrDefault(ResultsBase *results, int requiredPropertyIndex, bool defaultValue) {
+    Value<bool> value = results->getValueAsBool(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+  int Results_GetValueAsIntegerOrDefault(ResultsBase *results, int requiredPropertyIndex, int defaultValue) {
+    Value<int> value = results->getValueAsInteger(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+  double Results_GetValueAsDoubleOrDefault(ResultsBase *results, int requiredPropertyIndex, double defaultValue) {
+    Value<double> value = results->getValueAsDouble(requiredPropertyIndex);
+    return value.hasValue() ? value.getValue() : defaultValue;
+  }
+%}
+
+/* Create an engine from a direct ByteBuffer by address, so that the data file
+   is neither copied onto the Java heap nor into a second native allocation.
+   The data set reads from the buffer in place, so the caller must keep the
+   buffer reachable until the engine has been deleted, and the data set must
+   not free it. */
+%typemap(jni) (void *buffer, long long capacity) "jobject"
+%typemap(jtype) (void *buffer, long long capacity) "java.nio.ByteBuffer"
+%typemap(jstype) (void *buffer, long long capacity) "java.nio.ByteBuffer"
+%typemap(javain) (void *buffer, long long capacity) "$javainput"
+%typemap(in) (void *buffer, long long capacity) {
+  $1 = $input ? JCALL1(GetDirectBufferAddress, jenv, $input) : 0;
+  if ($1 == 0) {
+    SWIG_JavaThrowException(
+      jenv,
+      SWIG_JavaIllegalArgumentException,
+      "The data must be in a direct ByteBuffer.");
+    return $null;
+  }
+  $2 = (long long) JCALL1(GetDirectBufferCapacity, jenv, $input);
+}
+%newobject Engine_CreateFromBuffer;
+%inline %{
+  EngineHash *Engine_CreateFromBuffer(void *buffer, long long capacity, ConfigHash *config, RequiredPropertiesConfig *properties) {
+    /* The configuration is shared by every engine the Java engine creates,
+       so restore the flag for engines created from byte arrays, whose data
+       the data set does free. */
+    bool freeData = config->getConfig()->b.b.freeData;
+    config->getConfig()->b.b.freeData = false;
+    try {
+      EngineHash *engine = new EngineHash((unsigned char *)buffer, (long)capacity, config, properties);
+      config->getConfig()->b.b.freeData = freeData;
+      return engine;
+    }
+    catch (...) {
+      config->getConfig()->b.b.freeData = freeData;
+      throw;
+    }
+  }
+%}
+
+/* Get the number of items in each collection of the data set, and the number
+   of bytes each takes in the data file, from the data set header. Sizes are
+   written as count then length for each collection, in the order strings,
+   properties, values, profiles, nodes, profile offsets. */
+%{
+  /* The resource manager of an engine is protected, so is reached through a
+     derived class. */
+  class EngineHashManager : public EngineHash {
+  public:
+    static fiftyoneDegreesResourceManager *get(EngineHash *engine) {
+      return static_cast<EngineHashManager *>(engine)->manager.get();
+    }
+  };
+%}
+%apply (long long handles[], size_t count) { (long long sizes[], size_t count) }
+%inline %{
+  void Engine_GetCollectionSizes(EngineHash *engine, long long sizes[], size_t count) {
+    fiftyoneDegreesDataSetHash *dataSet =
+      fiftyoneDegreesDataSetHashGet(EngineHashManager::get(engine));
+    fiftyoneDegreesCollectionHeader headers[] = {
+      dataSet->header.strings,
+      dataSet->header.properties,
+      dataSet->header.values,
+      dataSet->header.profiles,
+      dataSet->header.nodes,
+      dataSet->header.profileOffsets
+    };
+    fiftyoneDegreesDataSetHashRelease(dataSet);
+    for (size_t i = 0; i < sizeof(headers) / sizeof(headers[0]) && i * 2 + 1 < count; i++) {
+      sizes[i * 2] = headers[i].count;
+      sizes[i * 2 + 1] = headers[i].length;
+    }
+  }
+
+  bool Config_GetAllInMemory(ConfigHash *config) {
+    return config->getConfig()->b.b.allInMemory;
+  }
+%}
+/* Cache counters and loaded items of the collections of the data set used by
+   an engine, as five values for each collection in the same order as
+   Engine_GetCollectionSizes. */
+%{
+  /* Add the cache counters and loaded items of one collection to values,
+     which are hits, misses, cache capacity, loaded items and loaded bytes.
+     A collection read from a file is a chain of a memory collection for the
+     loaded items, if any, followed by a file collection which has a cache
+     if the capacity is not zero. */
+  static void getCollectionCache(
+    fiftyoneDegreesCollection *collection,
+    fiftyoneDegreesCollectionConfig *config,
+    bool isInMemory,
+    long long *values) {
+    if (isInMemory) {
+      values[3] = collection->count;
+      values[4] = collection->size;
+      return;
+    }
+    if (config->loaded > 0) {
+      values[3] = collection->count;
+      values[4] = collection->size;
+      collection = collection->next;
+    }
+    if (collection != NULL && config->capacity > 0) {
+      fiftyoneDegreesCache *cache =
+        ((fiftyoneDegreesCollectionFile *)collection->state)->cache;
+      if (cache != NULL) {
+        values[0] = cache->hits;
+        values[1] = cache->misses;
+        values[2] = cache->capacity;
+      }
+    }
+  }
+%}
+%apply (long long handles[], size_t count) { (long long values[], size_t count) }
+%inline %{
+  void Engine_GetCollectionCaches(EngineHash *engine, long long values[], size_t count) {
+    fiftyoneDegreesDataSetHash *dataSet =
+      fiftyoneDegreesDataSetHashGet(EngineHashManager::get(engine));
+    fiftyoneDegreesCollection *collections[] = {
+      dataSet->strings,
+      dataSet->properties,
+      dataSet->values,
+      dataSet->profiles,
+      dataSet->nodes,
+      dataSet->profileOffsets
+    };
+    fiftyoneDegreesCollectionConfig *configs[] = {
+      &dataSet->config.strings,
+      &dataSet->config.properties,
+      &dataSet->config.values,
+      &dataSet->config.profiles,
+      &dataSet->config.nodes,
+      &dataSet->config.profileOffsets
+    };
+    bool isInMemory =
+      dataSet->b.b.isInMemory || dataSet->config.b.b.allInMemory;
+    for (size_t i = 0; i < sizeof(collections) / sizeof(collections[0]) && i * 5 + 4 < count; i++) {
+      long long *collectionValues = values + i * 5;
+      for (size_t j = 0; j < 5; j++) {
+        collectionValues[j] = 0;
+      }
+      getCollectionCache(collections[i], configs[i], isInMemory, collectionValues);
+    }
+    fiftyoneDegreesDataSetHashRelease(dataSet);
+  }
+%}
+
 %extend EvidenceBase {
 %proxycode %{
   public void addFromBytes(byte[] key, byte[] value) {
@@ -65,6 +290,45 @@ nofinalize(ResultsHash);
   }
 %}
 }
+%extend EngineHash {
+%proxycode %{
+  public static EngineHashSwig fromBuffer(java.nio.ByteBuffer data, ConfigHashSwig config, RequiredPropertiesConfigSwig properties) {
+    if (data.isDirect() == false) {
+      throw new IllegalArgumentException("The data must be in a direct ByteBuffer.");
+    }
+    return DeviceDetectionHashEngineModule.Engine_CreateFromBuffer(data.slice(), config, properties);
+  }
+  public long[] getCollectionSizes() {
+    long[] sizes = new long[12];
+    DeviceDetectionHashEngineModule.Engine_GetCollectionSizes(this, sizes);
+    return sizes;
+  }
+  public long[] getCollectionCaches() {
+    long[] values = new long[30];
+    DeviceDetectionHashEngineModule.Engine_GetCollectionCaches(this, values);
+    return values;
+  }
+  public ResultsHashSwig[] processBatch(EvidenceDeviceDetectionSwig[] evidence) {
+    long[] handles = new long[evidence.length];
+    for (int i = 0; i < evidence.length; i++) {
+      handles[i] = EvidenceDeviceDetectionSwig.getCPtr(evidence[i]);
+    }
+    DeviceDetectionHashEngineModule.Engine_ProcessBatch(this, handles);
+    ResultsHashSwig[] results = new ResultsHashSwig[handles.length];
+    for (int i = 0; i < handles.length; i++) {
+      results[i] = (handles[i] == 0) ? null : new ResultsHashSwig(handles[i], true);
+    }
+    return results;
+  }
+%}
+}
+%extend ConfigHash {
+%proxycode %{
+  public boolean getAllInMemory() {
+    return DeviceDetectionHashEngineModule.Config_GetAllInMemory(this);
+  }
+%}
+}
 %extend ResultsBase {
 %proxycode %{
   public StringValueSwig getValueAsString(byte[] bytes) {
@@ -85,6 +349,15 @@ nofinalize(ResultsHash);
   public boolean containsProperty(byte[] bytes) {
     return DeviceDetectionHashEngineModule.Results_ContainsProperty(this, bytes);
   }
+  public boolean getValueAsBool(int requiredPropertyIndex, boolean defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsBoolOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
+  public int getValueAsInteger(int requiredPropertyIndex, int defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsIntegerOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
+  public double getValueAsDouble(int requiredPropertyIndex, double defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsDoubleOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
 %}
 }
 
@@ -32,6 +32,7 @@ import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
 import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,56 +46,88 @@ public class ComponentMetaDataHash implements ComponentMetaData {
 
     private final DeviceDetectionHashEngine engine;
 
+    /**
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
     private final List<FiftyOneAspectPropertyMetaData> properties = new ArrayList<>();
 
+    private final byte componentId;
+
+    private final String name;
+
     /**
-     * Construct a new instance.
+     * Construct a new instance for a data set which owns its data.
      * @param engine the engine creating the instance
      * @param source the source metadata from the native engine
      */
     public ComponentMetaDataHash(
         DeviceDetectionHashEngine engine,
         ComponentMetaDataSwig source) {
+        this(engine, source, null);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param engine the engine creating the instance
+     * @param source the source metadata from the native engine
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ComponentMetaDataHash(
+        DeviceDetectionHashEngine engine,
+        ComponentMetaDataSwig source,
+        ByteBuffer data) {
         this.engine = engine;
+        this.data = data;
         this.source = source;
+        this.componentId = source.getComponentId();
+        this.name = source.getName();
     }
 
     @Override
     public byte getComponentId() {
-        return source.getComponentId();
+        return componentId;
     }
 
     @Override
     public String getName() {
-        return source.getName();
+        return name;
     }
 
     @Override
     public ProfileMetaData getDefaultProfile() {
-        return new ProfileMetaDataHash(
+        return engine.withMetaData((m, data) -> new ProfileMetaDataHash(
             engine,
-            engine.getMetaData().getDefaultProfileForComponent(source));
+            m.getDefaultProfileForComponent(source),
+            data));
     }
 
     @Override
     public Iterable<FiftyOneAspectPropertyMetaData> getProperties() {
-        return new PropertyIterable(
+        return engine.withMetaData((m, data) -> new PropertyIterable(
             engine,
             properties,
-            engine.getMetaData().getPropertiesForComponent(source));
+            m.getPropertiesForComponent(source),
+            data));
     }
 
     @Override
     public FiftyOneAspectPropertyMetaData getProperty(String propertyName) {
-        FiftyOneAspectPropertyMetaData result = null;
-        PropertyMetaDataCollectionSwig components =
-            engine.getMetaData().getPropertiesForComponent(source);
-        PropertyMetaDataSwig value = components.getByKey(propertyName);
-        if (value != null) {
-            result = new PropertyMetaDataHash(engine, value);
-        }
-        components.delete();
-        return result;
+        return engine.withMetaData((m, data) -> {
+            FiftyOneAspectPropertyMetaData result = null;
+            PropertyMetaDataCollectionSwig components =
+                m.getPropertiesForComponent(source);
+            PropertyMetaDataSwig value = components.getByKey(propertyName);
+            if (value != null) {
+                result = new PropertyMetaDataHash(engine, value, data);
+            }
+            components.delete();
+            return result;
+        });
     }
 
     @Override
@@ -24,6 +24,8 @@ package fiftyone.devicedetection.hash.engine.onpremise.data;
 
 import fiftyone.devicedetection.shared.DeviceData;
 import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import fiftyone.pipeline.engines.exceptions.NoValueException;
+import fiftyone.pipeline.engines.exceptions.PropertyMissingException;
 
 import java.util.List;
 
@@ -41,4 +43,82 @@ public interface DeviceDataHash extends DeviceData {
      * @return values as a list
      */
     AspectPropertyValue<List<String>> getValues(String propertyName);
-}
\ No newline at end of file
+
+    /**
+     * Get the value of the specified property as an int, without allocating
+     * an {@link AspectPropertyValue} or boxing the value. The default
+     * implementation reads the value through
+     * {@link #getAs(String, Class, Class[])}, so implementations which can
+     * read the value directly should override it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available,
+     *                     has no value, or is not an integer
+     * @return the value, or defaultValue
+     */
+    @SuppressWarnings("unchecked")
+    default int getIntValue(String propertyName, int defaultValue) {
+        try {
+            AspectPropertyValue<Integer> value = getAs(
+                propertyName,
+                AspectPropertyValue.class,
+                Integer.class);
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (PropertyMissingException | NoValueException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get the value of the specified property as a boolean, without
+     * allocating an {@link AspectPropertyValue} or boxing the value. The default
+     * implementation reads the value through
+     * {@link #getAs(String, Class, Class[])}, so implementations which can
+     * read the value directly should override it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available
+     *                     or has no value
+     * @return the value, or defaultValue
+     */
+    @SuppressWarnings("unchecked")
+    default boolean getBoolValue(String propertyName, boolean defaultValue) {
+        try {
+            AspectPropertyValue<Boolean> value = getAs(
+                propertyName,
+                AspectPropertyValue.class,
+                Boolean.class);
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (PropertyMissingException | NoValueException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get the value of the specified property as a double, without allocating
+     * an {@link AspectPropertyValue} or boxing the value. The default
+     * implementation reads the value through
+     * {@link #getAs(String, Class, Class[])}, so implementations which can
+     * read the value directly should override it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available,
+     *                     has no value, or is not a number
+     * @return the value, or defaultValue
+     */
+    @SuppressWarnings("unchecked")
+    default double getDoubleValue(String propertyName, double defaultValue) {
+        try {
+            AspectPropertyValue<Double> value = getAs(
+                propertyName,
+                AspectPropertyValue.class,
+                Double.class);
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (PropertyMissingException | NoValueException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.*;
 import fiftyone.pipeline.engines.fiftyone.data.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -46,14 +47,36 @@ public class ProfileMetaDataHash implements ProfileMetaData {
     private final DeviceDetectionHashEngine engine;
 
     /**
-     * Construct a new instance.
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Construct a new instance for a data set which owns its data.
      * @param engine the engine creating the instance
      * @param source the source metadata from the native engine
      */
     public ProfileMetaDataHash(
         DeviceDetectionHashEngine engine,
         ProfileMetaDataSwig source) {
+        this(engine, source, null);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param engine the engine creating the instance
+     * @param source the source metadata from the native engine
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ProfileMetaDataHash(
+        DeviceDetectionHashEngine engine,
+        ProfileMetaDataSwig source,
+        ByteBuffer data) {
         this.engine = engine;
+        this.data = data;
         this.source = source;
     }
 
@@ -64,51 +87,29 @@ public class ProfileMetaDataHash implements ProfileMetaData {
 
     @Override
     public CloseableIterable<ValueMetaData> getValues() {
-        return new ValueIterable(engine,
-            engine.getMetaData().getValuesForProfile(source));
+        return engine.withMetaData((m, data) -> new ValueIterable(
+            engine,
+            m.getValuesForProfile(source),
+            data));
     }
 
     @Override
     public CloseableIterable<ValueMetaData> getValues(String propertyName) {
-        List<ValueMetaData> result = new ArrayList<>();
-
-        ValueMetaDataCollectionSwig values =
-            engine.getMetaData().getValuesForProfile(source);
-        long size = values.getSize();
-        for (long i = 0; i < size; i++) {
-            ValueMetaDataSwig value = values.getByIndex(i);
-            PropertyMetaDataSwig valueProperty = engine.getMetaData()
-                .getPropertyForValue(value);
-            if (propertyName.equalsIgnoreCase(valueProperty.getName())) {
-                result.add(new ValueMetaDataHash(engine, value));
-            } else {
-                value.delete();
-            }
-            valueProperty.delete();
-        }
-        values.delete();
-        return new CloseableIterableDefault<>(result);
+        return new CloseableIterableDefault<>(
+            engine.getValuesForProfile(source, propertyName));
     }
 
     @Override
     public ValueMetaData getValue(String propertyName, String valueName) {
-        ValueMetaData result = null;
-        ValueMetaDataCollectionSwig values =
-            engine.getMetaData().getValuesForProfile(source);
-        ValueMetaDataSwig value = values.getByKey(
-            new ValueMetaDataKeySwig(propertyName, valueName));
-        if (value != null) {
-            result = new ValueMetaDataHash(engine, value);
-        }
-        values.delete();
-        return result;
+        return engine.getValueForProfile(source, propertyName, valueName);
     }
 
     @Override
     public ComponentMetaData getComponent() {
-        return new ComponentMetaDataHash(
+        return engine.withMetaData((m, data) -> new ComponentMetaDataHash(
             engine,
-            engine.getMetaData().getComponentForProfile(source));
+            m.getComponentForProfile(source),
+            data));
     }
 
     @Override
@@ -35,6 +35,7 @@ import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
 import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -48,6 +49,13 @@ public class PropertyMetaDataHash implements FiftyOneAspectPropertyMetaData {
 
     private final DeviceDetectionHashEngine engine;
 
+    /**
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
     private final String url;
     private final byte displayOrder;
     private final boolean mandatory;
@@ -63,15 +71,30 @@ public class PropertyMetaDataHash implements FiftyOneAspectPropertyMetaData {
     private final String type;
 
     /**
-     * Construct a new instance.
+     * Construct a new instance for a data set which owns its data.
      * @param engine the engine creating the instance
      * @param source the source metadata from the native engine
      */
     public PropertyMetaDataHash(
         DeviceDetectionHashEngine engine,
         PropertyMetaDataSwig source) {
+        this(engine, source, null);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param engine the engine creating the instance
+     * @param source the source metadata from the native engine
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public PropertyMetaDataHash(
+        DeviceDetectionHashEngine engine,
+        PropertyMetaDataSwig source,
+        ByteBuffer data) {
         this.source = source;
         this.engine = engine;
+        this.data = data;
         this.url = source.getUrl();
         this.displayOrder = (byte) source.getDisplayOrder();
         this.mandatory = source.getIsMandatory();
@@ -130,43 +153,33 @@ public class PropertyMetaDataHash implements FiftyOneAspectPropertyMetaData {
 
     @Override
     public ComponentMetaData getComponent() {
-        return new ComponentMetaDataHash(
+        return engine.withMetaData((m, data) -> new ComponentMetaDataHash(
             engine,
-            engine.getMetaData().getComponentForProperty(source));
+            m.getComponentForProperty(source),
+            data));
     }
 
     @Override
     public Iterable<ValueMetaData> getValues() {
-        return new ValueIterable(
+        return engine.withMetaData((m, data) -> new ValueIterable(
             engine,
-            engine.getMetaData().getValuesForProperty(source));
+            m.getValuesForProperty(source),
+            data));
     }
 
     @Override
     public ValueMetaData getValue(String valueName) {
-        ValueMetaData result = null;
-
-        ValueMetaDataCollectionSwig values =
-            engine.getMetaData().getValuesForProperty(source);
-        try {
-            ValueMetaDataSwig value = values.getByKey(
-                new ValueMetaDataKeySwig(getName(), valueName));
-            if (value != null) {
-                result = new ValueMetaDataHash(engine, value);
-            }
-        } finally {
-            values.delete();
-        }
-        return result;
+        return engine.getValue(getName(), valueName);
     }
 
     @Override
     public ValueMetaData getDefaultValue() {
-        ValueMetaDataSwig value =
-            engine.getMetaData().getDefaultValueForProperty(source);
-        return value == null ?
-            null :
-            new ValueMetaDataHash(engine, value);
+        return engine.withMetaData((m, data) -> {
+            ValueMetaDataSwig value = m.getDefaultValueForProperty(source);
+            return value == null ?
+                null :
+                new ValueMetaDataHash(engine, value, data);
+        });
     }
 
     @Override
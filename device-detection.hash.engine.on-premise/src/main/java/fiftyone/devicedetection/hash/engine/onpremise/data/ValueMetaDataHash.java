@@ -28,6 +28,7 @@ import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
 import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Hash on-premise implementation of the {@link ValueMetaData} interface.
@@ -40,22 +41,45 @@ public class ValueMetaDataHash implements ValueMetaData {
     private final DeviceDetectionHashEngine engine;
 
     /**
-     * Construct a new instance.
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Construct a new instance for a data set which owns its data.
      * @param engine the engine creating the instance
      * @param source the source metadata from the native engine
      */
     public ValueMetaDataHash(
         DeviceDetectionHashEngine engine,
         ValueMetaDataSwig source) {
+        this(engine, source, null);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param engine the engine creating the instance
+     * @param source the source metadata from the native engine
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ValueMetaDataHash(
+        DeviceDetectionHashEngine engine,
+        ValueMetaDataSwig source,
+        ByteBuffer data) {
         this.engine = engine;
+        this.data = data;
         this.source = source;
     }
 
     @Override
     public FiftyOneAspectPropertyMetaData getProperty() {
-        return new PropertyMetaDataHash(
+        return engine.withMetaData((m, data) -> new PropertyMetaDataHash(
             engine,
-            engine.getMetaData().getPropertyForValue(source));
+            m.getPropertyForValue(source),
+            data));
     }
 
     @Override
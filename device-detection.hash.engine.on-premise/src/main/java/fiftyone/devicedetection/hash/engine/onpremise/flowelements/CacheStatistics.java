@@ -0,0 +1,90 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+/**
+ * Counters from the results cache of a {@link DeviceDetectionHashEngine}
+ * at a point in time. Each data set has its own results cache, so the
+ * counters start again from zero when the data is refreshed. The cache is
+ * built from the engine's cache configuration, so only the requests made to
+ * it are counted, not its contents.
+ */
+public class CacheStatistics {
+
+    private final long hits;
+
+    private final long misses;
+
+    private final int capacity;
+
+    CacheStatistics(
+        long hits,
+        long misses,
+        int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the number of requests which were found in the cache.
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of requests which were not found in the cache.
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the maximum number of entries the cache can hold.
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the proportion of requests which were found in the cache.
+     * @return hit ratio between 0 and 1, or 0 if there have been no requests
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d hits, %d misses (%.1f%%), capacity %d",
+            hits,
+            misses,
+            getHitRatio() * 100,
+            capacity);
+    }
+}
@@ -0,0 +1,231 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+/**
+ * Immutable configuration of how a single {@link HashCollection} is held in
+ * memory. Each collection can be loaded entirely into memory, read from the
+ * data file through a cache, or read from the data file each time an item
+ * is needed.
+ * <p>
+ * The settings correspond to those of the native collection configuration:
+ * <ul>
+ *     <li>loaded - the number of items loaded into memory when the data set
+ *     is created,</li>
+ *     <li>capacity - the number of items held in a cache of the items which
+ *     are not loaded, or 0 for no cache,</li>
+ *     <li>concurrency - the expected number of threads accessing the cache
+ *     concurrently, or 0 to use the concurrency of the engine.</li>
+ * </ul>
+ * The settings only apply when the data set is read from a file. When the
+ * engine is built from memory, every collection is already in memory, so
+ * the builder rejects them.
+ */
+public final class CollectionConfiguration {
+
+    /**
+     * Number of loaded items which means the whole collection is loaded.
+     */
+    public static final long ALL = Integer.MAX_VALUE;
+
+    /**
+     * Largest value the native configuration can hold.
+     */
+    private static final long MAX_VALUE = 0xFFFFFFFFL;
+
+    private final long loaded;
+    private final long capacity;
+    private final int concurrency;
+
+    /**
+     * Construct a new instance.
+     * @param loaded number of items to load into memory when the data set is
+     *               created, or {@link #ALL} for the whole collection
+     * @param capacity number of items to cache, or 0 for no cache
+     * @param concurrency expected number of threads accessing the cache, or 0
+     *                    to use the concurrency of the engine
+     * @throws IllegalArgumentException if any of the settings are out of
+     * range
+     */
+    public CollectionConfiguration(long loaded, long capacity, int concurrency) {
+        if (loaded < 0 || loaded > MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "The number of loaded items must be between 0 and " +
+                    MAX_VALUE + ".");
+        }
+        if (capacity < 0 || capacity > MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "The cache capacity must be between 0 and " + MAX_VALUE + ".");
+        }
+        if (concurrency < 0) {
+            throw new IllegalArgumentException(
+                "The concurrency must not be negative.");
+        }
+        if (loaded >= ALL && capacity > 0) {
+            throw new IllegalArgumentException(
+                "A collection which is entirely loaded can not also have a " +
+                    "cache.");
+        }
+        this.loaded = loaded;
+        this.capacity = capacity;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Load the whole collection into memory when the data set is created.
+     * This is the fastest option, and uses the most memory.
+     * @return new configuration
+     */
+    public static CollectionConfiguration loaded() {
+        return new CollectionConfiguration(ALL, 0, 0);
+    }
+
+    /**
+     * Read items from the data file through a cache of the most recently
+     * used items.
+     * @param capacity number of items to cache
+     * @return new configuration
+     */
+    public static CollectionConfiguration cached(long capacity) {
+        return cached(capacity, 0);
+    }
+
+    /**
+     * Read items from the data file through a cache of the most recently
+     * used items.
+     * @param capacity number of items to cache
+     * @param concurrency expected number of threads accessing the cache, or 0
+     *                    to use the concurrency of the engine
+     * @return new configuration
+     */
+    public static CollectionConfiguration cached(
+        long capacity,
+        int concurrency) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "The cache capacity must be greater than 0.");
+        }
+        return new CollectionConfiguration(0, capacity, concurrency);
+    }
+
+    /**
+     * Read items from the data file each time they are needed. This uses
+     * the least memory.
+     * @return new configuration
+     */
+    public static CollectionConfiguration onDemand() {
+        return new CollectionConfiguration(0, 0, 0);
+    }
+
+    /**
+     * Create an instance from the settings in a native collection
+     * configuration, which may be outside the ranges accepted by the public
+     * constructor.
+     * @param loaded native loaded setting
+     * @param capacity native capacity setting
+     * @param concurrency native concurrency setting
+     * @return new configuration
+     */
+    static CollectionConfiguration fromNative(
+        long loaded,
+        long capacity,
+        int concurrency) {
+        if (loaded >= ALL) {
+            return loaded();
+        }
+        return new CollectionConfiguration(
+            loaded,
+            Math.min(Math.max(capacity, 0), MAX_VALUE),
+            Math.max(concurrency, 0));
+    }
+
+    /**
+     * Get the number of items loaded into memory when the data set is
+     * created.
+     * @return number of loaded items
+     */
+    public long getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Get the number of items in the cache.
+     * @return cache capacity, or 0 for no cache
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the expected number of threads accessing the cache.
+     * @return concurrency, or 0 to use the concurrency of the engine
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Get whether the whole collection is loaded into memory.
+     * @return true if the collection is entirely loaded
+     */
+    public boolean isFullyLoaded() {
+        return loaded >= ALL;
+    }
+
+    @Override
+    public String toString() {
+        if (isFullyLoaded()) {
+            return "loaded";
+        }
+        StringBuilder builder = new StringBuilder();
+        if (loaded > 0) {
+            builder.append(loaded).append(" loaded, ");
+        }
+        if (capacity > 0) {
+            builder.append("cached (capacity ").append(capacity);
+            if (concurrency > 0) {
+                builder.append(", concurrency ").append(concurrency);
+            }
+            builder.append(")");
+        } else {
+            builder.append("on demand");
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof CollectionConfiguration == false) {
+            return false;
+        }
+        CollectionConfiguration other = (CollectionConfiguration) obj;
+        return loaded == other.loaded &&
+            capacity == other.capacity &&
+            concurrency == other.concurrency;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (loaded * 31 + capacity) * 31 + concurrency;
+    }
+}
@@ -0,0 +1,184 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+/**
+ * Statistics for one native collection of the data set used by a
+ * {@link DeviceDetectionHashEngine}, as returned in
+ * {@link EngineStatistics}.
+ * <p>
+ * Hits and misses are read from the native cache of the collection, and
+ * are 0 if the collection is not cached. Each data set has its own caches,
+ * so the counters start again from zero when the data is refreshed. Every
+ * miss adds an item to the cache, so items are evicted once there have
+ * been more misses than the cache can hold.
+ */
+public class CollectionStatistics {
+
+    private final HashCollection collection;
+
+    private final CollectionConfiguration configuration;
+
+    private final long count;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long estimatedEvictions;
+
+    private final long residentEntries;
+
+    private final long residentBytes;
+
+    private final long estimatedBytes;
+
+    CollectionStatistics(
+        HashCollection collection,
+        CollectionConfiguration configuration,
+        long count,
+        long hits,
+        long misses,
+        long estimatedEvictions,
+        long residentEntries,
+        long residentBytes,
+        long estimatedBytes) {
+        this.collection = collection;
+        this.configuration = configuration;
+        this.count = count;
+        this.hits = hits;
+        this.misses = misses;
+        this.estimatedEvictions = estimatedEvictions;
+        this.residentEntries = residentEntries;
+        this.residentBytes = residentBytes;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * Get the collection the statistics are for.
+     * @return collection
+     */
+    public HashCollection getCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the configuration the native collection was created with.
+     * @return collection configuration
+     */
+    public CollectionConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Get the number of items in the collection, from the data set header.
+     * @return number of items
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of items which were found in the cache of the
+     * collection.
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of items which were not found in the cache of the
+     * collection, and were read from the data file.
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get an estimate of the number of items which have been removed from
+     * the cache of the collection to make room for others. The native cache
+     * does not count evictions, so this is the number of misses beyond the
+     * capacity of the cache. Each miss adds an item to the cache, so once it
+     * is full each miss evicts an item.
+     * @return estimated number of evictions
+     */
+    public long getEstimatedEvictions() {
+        return estimatedEvictions;
+    }
+
+    /**
+     * Get the number of items currently held in memory. This is the items
+     * loaded when the data set was created, plus those in the cache.
+     * @return number of items in memory
+     */
+    public long getResidentEntries() {
+        return residentEntries;
+    }
+
+    /**
+     * Get the number of bytes currently held in memory for the items of the
+     * collection. Loaded items are counted exactly, and cached items at the
+     * average size of an item in the collection.
+     * @return bytes in memory
+     */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Get the proportion of items which were found in the cache of the
+     * collection.
+     * @return hit ratio between 0 and 1, or 0 if there have been no requests
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Get the estimated number of bytes held in memory for the collection
+     * once every cache is full. See {@link MemoryEstimate} for how the
+     * estimate is made.
+     * @return estimated bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s: %s, %d items, %d in memory using %d bytes " +
+                "(about %d when full), %d hits, %d misses, about %d evictions",
+            collection,
+            configuration,
+            count,
+            residentEntries,
+            residentBytes,
+            estimatedBytes,
+            hits,
+            misses,
+            estimatedEvictions);
+    }
+}
@@ -0,0 +1,182 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a data file into a memory mapped temporary file in a single pass,
+ * so that an engine can be built from an {@link InputStream} without the
+ * whole data file being held on the heap.
+ * <p>
+ * Gzipped data, as returned by the data update service, is recognised from
+ * its header and decompressed as it is read. The MD5 hash of the data as it
+ * was read from the stream, before decompression, is computed in the same
+ * pass so that it can be compared with the 'content-md5' header of a
+ * download.
+ * <p>
+ * Only a fixed size copy buffer is allocated on the heap. The data set is
+ * then read from the mapping, which is backed by the page cache rather than
+ * by the heap or a native allocation.
+ */
+final class DataFileStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DataFileStream() {
+    }
+
+    /**
+     * Stream the data file into a temporary file, and map the file into
+     * memory. The temporary file is deleted once it has been mapped where
+     * the operating system allows, and otherwise when the JVM exits. The
+     * stream is not closed.
+     * @param data stream containing the data file, optionally gzipped
+     * @param tempDir directory to create the temporary file in, or null for
+     *                the default temporary directory
+     * @param expectedMd5 hex encoded MD5 hash which the data read from the
+     *                    stream must have, or null if it is not verified
+     * @return read only mapping of the uncompressed data file
+     * @throws IOException if the stream could not be read, or the MD5 hash
+     * did not match
+     */
+    static MappedByteBuffer map(
+        InputStream data,
+        String tempDir,
+        String expectedMd5) throws IOException {
+        MessageDigest digest = newMd5();
+        Path file;
+        if (tempDir == null) {
+            file = Files.createTempFile("51Degrees-", ".hash");
+        } else {
+            Path directory = Files.createDirectories(new File(tempDir).toPath());
+            file = Files.createTempFile(directory, "51Degrees-", ".hash");
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+                copy(decompress(new DigestInputStream(data, digest)), channel);
+                verify(digest, expectedMd5);
+                return channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    0,
+                    channel.size());
+            }
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Wrap the stream with a gzip decompressor if it starts with the gzip
+     * header, otherwise return it unchanged.
+     * @param data stream to read
+     * @return stream of the uncompressed data
+     * @throws IOException if the stream could not be read
+     */
+    static InputStream decompress(InputStream data) throws IOException {
+        InputStream buffered = new BufferedInputStream(data, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) &&
+            second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        return buffered;
+    }
+
+    /**
+     * Get the hex encoded MD5 hash of the bytes passed through the digest.
+     * @param digest MD5 digest
+     * @return lower case hex string
+     */
+    private static String toHex(MessageDigest digest) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest.digest()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static void copy(
+        InputStream source,
+        FileChannel destination) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = source.read(buffer)) >= 0) {
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer, 0, read);
+            while (wrapped.hasRemaining()) {
+                destination.write(wrapped);
+            }
+        }
+    }
+
+    private static void verify(
+        MessageDigest digest,
+        String expectedMd5) throws IOException {
+        String actualMd5 = toHex(digest);
+        if (expectedMd5 != null &&
+            expectedMd5.equalsIgnoreCase(actualMd5) == false) {
+            throw new IOException(String.format(
+                "The MD5 hash of the data '%s' does not match the expected " +
+                    "hash '%s'.",
+                actualMd5,
+                expectedMd5));
+        }
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The file is still mapped on platforms which do not allow a
+            // mapped file to be deleted.
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static fiftyone.pipeline.util.StringManipulation.stringJoin;
 
@@ -53,7 +54,7 @@ public class DeviceDataHashDefault
     /**
      * True if the {@link #close()} method has been called.
      */
-    private boolean closed = false;
+    private volatile boolean closed = false;
 
     /**
      * Pre-populated list of match methods. This to avoid calling the
@@ -68,6 +69,35 @@ public class DeviceDataHashDefault
      */
     private final List<ResultsHashSwig> resultsList = new ArrayList<>();
 
+    /**
+     * Required property index for each of the native results in
+     * {@link #resultsList}, or null if the index is not known.
+     */
+    private final List<RequiredPropertyIndex> indexList = new ArrayList<>();
+
+    /**
+     * Engine states which produced the native results. A reference to each
+     * is held so that the native engine is not freed by a data refresh
+     * until this instance is closed.
+     */
+    private final List<EngineState> stateList = new ArrayList<>();
+
+    /**
+     * Immutable copy of results which is used instead of native results when
+     * the engine has a results cache. Null if native results are used.
+     */
+    private volatile ResultsSnapshot snapshot = null;
+
+    /**
+     * Native results are not safe to read concurrently, as each read uses a
+     * buffer held in the results. Values for different properties can be
+     * fetched at the same time, so reads from native results are done
+     * under this lock. Snapshots are immutable so are read without it. The
+     * native results are also closed under this lock, so they are never
+     * freed while a read is in progress.
+     */
+    private final ReentrantLock resultsLock = new ReentrantLock();
+
     /**
      * Constructs a new instance.
      * @param logger used for logging
@@ -90,8 +120,80 @@ public class DeviceDataHashDefault
      * @param results the results to add
      */
     void setResults(ResultsHashSwig results) {
+        setResults(results, (RequiredPropertyIndex) null);
+    }
+
+    /**
+     * Add the native results to the list of results contained in this
+     * instance, along with the required property index of the data set which
+     * produced them. Values for properties in the index are then read by
+     * index rather than by name.
+     * @param results the results to add
+     * @param index the required property index for the results, or null if
+     *              not known
+     */
+    void setResults(ResultsHashSwig results, RequiredPropertyIndex index) {
+        lockResults();
+        try {
+            resultsList.add(results);
+            indexList.add(index);
+        }
+        finally {
+            resultsLock.unlock();
+        }
+        clearMemoisedValues();
+    }
+
+    /**
+     * Add the native results to the list of results contained in this
+     * instance, along with the engine state which produced them. A reference
+     * to the state is held until this instance is closed.
+     * @param results the results to add
+     * @param state the engine state which produced the results, which the
+     *              caller must hold a reference to
+     */
+    void setResults(ResultsHashSwig results, EngineState state) {
+        setResults(results, state.getPropertyIndex());
+        state.acquire();
+        stateList.add(state);
+    }
+
+    /**
+     * Get the required property index of the property in the native results.
+     * @param results native results from {@link #resultsList}
+     * @param propertyName name of the property
+     * @return index, or -1 if the index is not known and the property must be
+     * found by name
+     */
+    private int getRequiredPropertyIndex(
+        ResultsHashSwig results,
+        String propertyName) {
+        RequiredPropertyIndex index = indexList.size() == 1 ?
+            indexList.get(0) : indexList.get(resultsList.indexOf(results));
+        return index == null ? -1 : index.indexOf(propertyName);
+    }
+
+    /**
+     * Set the immutable results snapshot which values will be returned from.
+     * This is used in place of native results, so there is no native memory
+     * to be freed.
+     * @param snapshot the results snapshot
+     */
+    void setSnapshot(ResultsSnapshot snapshot) {
         checkState();
-        resultsList.add(results);
+        this.snapshot = snapshot;
+        clearMemoisedValues();
+    }
+
+    /**
+     * Get the index of the property in the snapshot.
+     * @param propertyName name of the property
+     * @return index, or -1 if there is no snapshot or it does not contain the
+     * property
+     */
+    private int getSnapshotIndex(String propertyName) {
+        return snapshot == null ?
+            -1 : snapshot.getIndex().indexOf(propertyName);
     }
 
     /**
@@ -114,18 +216,36 @@ public class DeviceDataHashDefault
      */
     private ResultsHashSwig getResultsContainingProperty(String propertyName) {
         for (ResultsHashSwig results : resultsList) {
-            if (results.containsProperty(Swig.asBytes(propertyName))) {
+            if (containsProperty(results, propertyName)) {
                 return results;
             }
         }
         return null;
     }
 
+    /**
+     * Determine whether the native results contain the property. If the
+     * property is in the results' required property index, then the native
+     * layer does not need to be called.
+     * @param results native results from {@link #resultsList}
+     * @param propertyName name of the property
+     * @return true if the property is available in the results
+     */
+    private boolean containsProperty(
+        ResultsHashSwig results,
+        String propertyName) {
+        return getRequiredPropertyIndex(results, propertyName) >= 0 ||
+            results.containsProperty(Swig.asBytes(propertyName));
+    }
+
     /**
      * Get the device id from the native results.
      * @return device id
      */
     private AspectPropertyValue<String> getDeviceIdInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getDeviceId());
+        }
         if (resultsList.size() == 1) {
             // Only one Engine has added results, so return the device
             // id from those results.
@@ -164,6 +284,9 @@ public class DeviceDataHashDefault
      * @return difference
      */
     private AspectPropertyValue<Integer> getDifferenceInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getDifference());
+        }
         int total = 0;
         for (ResultsHashSwig results : resultsList) {
             total += results.getDifference();
@@ -176,6 +299,9 @@ public class DeviceDataHashDefault
      * @return drift
      */
     private AspectPropertyValue<Integer> getDriftInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getDrift());
+        }
         int result = Integer.MAX_VALUE;
         for (ResultsHashSwig results : resultsList) {
             if (results.getDrift() < result) {
@@ -190,6 +316,9 @@ public class DeviceDataHashDefault
      * @return iterations
      */
     private AspectPropertyValue<Integer> getIterationsInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getIterations());
+        }
         int result = 0;
         for (ResultsHashSwig results : resultsList) {
             result += results.getIterations();
@@ -202,6 +331,9 @@ public class DeviceDataHashDefault
      * @return matched nodes
      */
     private AspectPropertyValue<Integer> getMatchedNodesInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getMatchedNodes());
+        }
         int result = 0;
         for (ResultsHashSwig results : resultsList) {
             result += results.getMatchedNodes();
@@ -214,6 +346,10 @@ public class DeviceDataHashDefault
      * @return match method
      */
     private AspectPropertyValue<String> getMethodInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(
+                matchMethods[snapshot.getMethod()].name());
+        }
         int result = 0;
         for (ResultsHashSwig results : resultsList) {
             if (results.getMethod() > result) {
@@ -228,6 +364,9 @@ public class DeviceDataHashDefault
      * @return matched User-Agents
      */
     private AspectPropertyValue<List<String>> getUserAgentsInternal() {
+        if (snapshot != null) {
+            return new AspectPropertyValueDefault<>(snapshot.getUserAgents());
+        }
         List<String> result = new ArrayList<>();
         for (ResultsHashSwig results : resultsList) {
             for (int i = 0; i < results.getUserAgents(); i++) {
@@ -243,8 +382,11 @@ public class DeviceDataHashDefault
     @Override
     protected boolean propertyIsAvailable(String propertyName) {
         checkState();
+        if (getSnapshotIndex(propertyName) >= 0) {
+            return true;
+        }
         for (ResultsHashSwig results : resultsList) {
-            if (results.containsProperty(Swig.asBytes(propertyName))) {
+            if (containsProperty(results, propertyName)) {
                 return true;
             }
         }
@@ -254,118 +396,256 @@ public class DeviceDataHashDefault
     @Override
     public AspectPropertyValue<List<String>> getValues(String propertyName) {
         checkState();
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValues(snapshotIndex);
+        }
         AspectPropertyValue<List<String>> result =
             new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
-            try (VectorStringValuesSwig value = results.getValues(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    try (VectorStringSwig vector = value.getValue()) {
-                        result.setValue(Collections.unmodifiableList(
-                            Swig.asList(vector)));
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (VectorStringValuesSwig value = index >= 0 ?
+                    results.getValues(index) :
+                    results.getValues(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        try (VectorStringSwig vector = value.getValue()) {
+                            result.setValue(Collections.unmodifiableList(
+                                Swig.asList(vector)));
+                        }
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
                     }
-                }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
                 }
             }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @Override
     protected AspectPropertyValue<String> getValueAsString(String propertyName) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsString(snapshotIndex);
+        }
         AspectPropertyValue<String> result = new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
 
-            try (StringValueSwig value = results.getValueAsString(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    result.setValue(value.getValue());
-                }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (StringValueSwig value = index >= 0 ?
+                    results.getValueAsString(index) :
+                    results.getValueAsString(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        result.setValue(value.getValue());
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
+                    }
                 }
             }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @Override
     protected AspectPropertyValue<JavaScript> getValueAsJavaScript(
         String propertyName) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsJavaScript(snapshotIndex);
+        }
         AspectPropertyValue<JavaScript> result =
             new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
-            try (StringValueSwig value = results.getValueAsString(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    result.setValue(new JavaScript(value.getValue()));
-                }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (StringValueSwig value = index >= 0 ?
+                    results.getValueAsString(index) :
+                    results.getValueAsString(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        result.setValue(new JavaScript(value.getValue()));
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
+                    }
                 }
             }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @Override
     protected AspectPropertyValue<Integer> getValueAsInteger(
         String propertyName) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsInteger(snapshotIndex);
+        }
         AspectPropertyValue<Integer> result = new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
-            try (IntegerValueSwig value = results.getValueAsInteger(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    result.setValue(value.getValue());
-                }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (IntegerValueSwig value = index >= 0 ?
+                    results.getValueAsInteger(index) :
+                    results.getValueAsInteger(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        result.setValue(value.getValue());
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
+                    }
                 }
             }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @Override
     protected AspectPropertyValue<Boolean> getValueAsBool(String propertyName) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsBool(snapshotIndex);
+        }
         AspectPropertyValue<Boolean> result = new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
-            try (BoolValueSwig value = results.getValueAsBool(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    result.setValue(value.getValue());
-                }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (BoolValueSwig value = index >= 0 ?
+                    results.getValueAsBool(index) :
+                    results.getValueAsBool(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        result.setValue(value.getValue());
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
+                    }
                 }
             }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @Override
     protected AspectPropertyValue<Double> getValueAsDouble(String propertyName) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsDouble(snapshotIndex);
+        }
         AspectPropertyValue<Double> result = new AspectPropertyValueDefault<>();
-        ResultsHashSwig results = getSingleResults(propertyName);
-        if (results != null) {
-            try (DoubleValueSwig value = results.getValueAsDouble(
-                Swig.asBytes(propertyName))) {
-                if (value.hasValue()) {
-                    result.setValue(value.getValue());
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                try (DoubleValueSwig value = index >= 0 ?
+                    results.getValueAsDouble(index) :
+                    results.getValueAsDouble(Swig.asBytes(propertyName))) {
+                    if (value.hasValue()) {
+                        result.setValue(value.getValue());
+                    }
+                    else {
+                        result.setNoValueMessage(value.getNoValueMessage());
+                    }
+                }
+            }
+            return result;
+        }
+        finally {
+            resultsLock.unlock();
+        }
+    }
+
+    @Override
+    protected boolean getValueAsBool(String propertyName, boolean defaultValue) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsBool(snapshotIndex, defaultValue);
+        }
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                if (index >= 0) {
+                    return results.getValueAsBool(index, defaultValue);
                 }
-                else {
-                    result.setNoValueMessage(value.getNoValueMessage());
+            }
+            return super.getValueAsBool(propertyName, defaultValue);
+        }
+        finally {
+            resultsLock.unlock();
+        }
+    }
+
+    @Override
+    protected int getValueAsInteger(String propertyName, int defaultValue) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsInteger(snapshotIndex, defaultValue);
+        }
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                if (index >= 0) {
+                    return results.getValueAsInteger(index, defaultValue);
                 }
             }
+            return super.getValueAsInteger(propertyName, defaultValue);
+        }
+        finally {
+            resultsLock.unlock();
+        }
+    }
+
+    @Override
+    protected double getValueAsDouble(String propertyName, double defaultValue) {
+        int snapshotIndex = getSnapshotIndex(propertyName);
+        if (snapshotIndex >= 0) {
+            return snapshot.getValueAsDouble(snapshotIndex, defaultValue);
+        }
+        lockResults();
+        try {
+            ResultsHashSwig results = getSingleResults(propertyName);
+            if (results != null) {
+                int index = getRequiredPropertyIndex(results, propertyName);
+                if (index >= 0) {
+                    return results.getValueAsDouble(index, defaultValue);
+                }
+            }
+            return super.getValueAsDouble(propertyName, defaultValue);
+        }
+        finally {
+            resultsLock.unlock();
         }
-        return result;
     }
 
     @SuppressWarnings("unchecked")
@@ -424,6 +704,18 @@ public class DeviceDataHashDefault
         return result;
     }
 
+    /**
+     * Take the lock needed to read from the native results, checking that
+     * they have not been closed while waiting for it.
+     */
+    private void lockResults() {
+        resultsLock.lock();
+        if (closed) {
+            resultsLock.unlock();
+            checkState();
+        }
+    }
+
     private void checkState() {
         if (closed == true) {
             throw new IllegalStateException("The DeviceDataHash instance has " +
@@ -435,16 +727,28 @@ public class DeviceDataHashDefault
 
     @Override
     public void close() {
-        closed = true;
-        for (ResultsHashSwig result : resultsList) {
-            try {
-                result.close();
-            } catch (Exception e) {
-                logger.error("Failed to close native results instance. " +
-                    "A DeviceDataHash instance contains native unmanaged " +
-                    "memory which needs to be closed. Failing to close " +
-                    "could lead to memory leaks.", e);
+        resultsLock.lock();
+        try {
+            closed = true;
+            for (ResultsHashSwig result : resultsList) {
+                try {
+                    result.close();
+                } catch (Exception e) {
+                    logger.error("Failed to close native results instance. " +
+                        "A DeviceDataHash instance contains native unmanaged " +
+                        "memory which needs to be closed. Failing to close " +
+                        "could lead to memory leaks.", e);
+                }
             }
         }
+        finally {
+            resultsLock.unlock();
+        }
+        // The results no longer need the native engine, so it can be freed
+        // if it has been replaced by a refresh.
+        for (EngineState state : stateList) {
+            state.release();
+        }
+        stateList.clear();
     }
 }
\ No newline at end of file
@@ -22,9 +22,9 @@
 
 package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
 
+import fiftyone.caching.PutCacheBuilder;
 import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
 import fiftyone.devicedetection.hash.engine.onpremise.data.ProfileMetaDataHash;
-import fiftyone.devicedetection.hash.engine.onpremise.data.PropertyMetaDataHash;
 import fiftyone.devicedetection.hash.engine.onpremise.data.ValueMetaDataHash;
 import fiftyone.devicedetection.hash.engine.onpremise.interop.*;
 import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.*;
@@ -39,10 +39,20 @@ import fiftyone.pipeline.engines.fiftyone.data.*;
 import fiftyone.pipeline.engines.fiftyone.flowelements.FiftyOneOnPremiseAspectEngineBase;
 import org.slf4j.Logger;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static fiftyone.pipeline.util.Check.notFileExists;
-import static org.apache.commons.lang3.BooleanUtils.isFalse;
 
 /**
  * Hash device detection engine. This engine takes User-Agents and other
@@ -53,14 +63,45 @@ import static org.apache.commons.lang3.BooleanUtils.isFalse;
 public class DeviceDetectionHashEngine
     extends FiftyOneOnPremiseAspectEngineBase<DeviceDataHash,
     FiftyOneAspectPropertyMetaData> {
-    private EngineHashSwig engine = null;
-    private final List<FiftyOneAspectPropertyMetaData> properties = new ArrayList<>();
     private final ConfigHashSwig config;
     private final RequiredPropertiesConfigSwig propertiesConfigSwig;
-    private List<String> evidenceKeys;
-    private EvidenceKeyFilter evidenceKeyFilter;
-    private volatile boolean propertiesPopulated = false;
+    private final ElementDataFactory<DeviceDataHash> deviceDataFactory;
+    private final PutCacheBuilder resultsCacheBuilder;
+    private final int resultsCacheSize;
+    private final boolean eagerResults;
+    private final boolean profileQueryIndex;
+    private final boolean profileValueIndex;
+    private final WarmUp warmUp;
+    private volatile WarmUpResult lastWarmUp;
+    /**
+     * Direct buffer the data set was last loaded from, or null if it was
+     * loaded from a file or byte array.
+     */
+    private volatile ByteBuffer dataBuffer;
+    /**
+     * Size in bytes of the data file the current data set was loaded from.
+     */
+    private volatile long dataFileSize;
+    /**
+     * True if the current data set was loaded from memory rather than a
+     * file, in which case every collection is in memory.
+     */
+    private volatile boolean dataInMemory;
+    /**
+     * Name the JMX bean for this engine is registered with, or null if it
+     * is not registered.
+     */
+    private volatile ObjectName jmxName;
+    private static final AtomicInteger jmxCount = new AtomicInteger();
+    /**
+     * Native engine and everything derived from it for the current data
+     * set. Replaced as a whole when the data is refreshed.
+     */
+    private volatile EngineState state;
+    private final Object refreshLock = new Object();
     private final Random rand = new Random();
+    private final EvidencePool evidencePool =
+        new EvidencePool(Runtime.getRuntime().availableProcessors() * 2);
 
     /**
      * Construct a new instance of the {@link DeviceDetectionHashEngine}.
@@ -74,6 +115,26 @@ public class DeviceDetectionHashEngine
      *                          {@link DeviceDataHash} instance
      * @param tempDataFileDir the file where a temporary data file copy
      *                        will be stored if one is created
+     * @param resultsCacheBuilder builder for the results cache, or null if
+     *                            results should not be cached
+     * @param resultsCacheSize the maximum number of results to keep in the
+     *                         results cache, or 0 if results should not be
+     *                         cached
+     * @param eagerResults true if values should be copied from the native
+     *                     results and the native results freed before
+     *                     processing returns
+     * @param profileQueryIndex true if the reverse index used by
+     *                          {@link #findProfileIds(Map)} should be built
+     *                          each time the data is loaded
+     * @param profileValueIndex true if the values of every profile should be
+     *                          indexed by property each time the data is
+     *                          loaded
+     * @param warmUp corpus to process against each data set before it is
+     *               used, or null if there is no warm up
+     * @param dataBuffer direct buffer to read the data set from in place, or
+     *                   null if the data file configuration is the source
+     * @param jmxStatistics true if the statistics should be registered as a
+     *                      JMX bean
      */
     DeviceDetectionHashEngine(
         Logger logger,
@@ -81,11 +142,33 @@ public class DeviceDetectionHashEngine
         ConfigHashSwig config,
         RequiredPropertiesConfigSwig properties,
         ElementDataFactory<DeviceDataHash> deviceDataFactory,
-        String tempDataFileDir) {
+        String tempDataFileDir,
+        PutCacheBuilder resultsCacheBuilder,
+        int resultsCacheSize,
+        boolean eagerResults,
+        boolean profileQueryIndex,
+        boolean profileValueIndex,
+        WarmUp warmUp,
+        ByteBuffer dataBuffer,
+        boolean jmxStatistics) {
         super(logger, deviceDataFactory, tempDataFileDir);
         this.config = config;
         this.propertiesConfigSwig = properties;
+        this.deviceDataFactory = deviceDataFactory;
+        this.resultsCacheBuilder = resultsCacheBuilder;
+        this.resultsCacheSize = resultsCacheSize;
+        this.eagerResults = eagerResults;
+        this.profileQueryIndex = profileQueryIndex;
+        this.profileValueIndex = profileValueIndex;
+        this.warmUp = warmUp;
+        this.dataBuffer = dataBuffer;
         addDataFile(dataFile);
+        if (dataBuffer != null && state == null) {
+            refreshData(dataFile.getIdentifier());
+        }
+        if (jmxStatistics) {
+            registerJmx();
+        }
     }
 
     /**
@@ -107,109 +190,348 @@ public class DeviceDetectionHashEngine
 
     /**
      * Get the native meta data instance for this engine.
+     * <p>
+     * The instance belongs to the native engine for the current data set,
+     * which is freed after a refresh. Use
+     * {@link #withMetaData(Function)} where a refresh could happen while the
+     * meta data is in use.
      * @return native meta data
      */
     public MetaDataSwig getMetaData() {
-        return engine.getMetaData();
+        return getState().getEngine().getMetaData();
     }
 
-    @Override
-    public List<FiftyOneAspectPropertyMetaData> getProperties() {
-        if (isFalse(propertiesPopulated)) {
-            synchronized (properties) {
-                if (isFalse(propertiesPopulated)) {
-                    properties.clear();
-                    List<FiftyOneAspectPropertyMetaData> newProperties =
-                        new ArrayList<>();
-
-                    try (PropertyIterable iterable = new PropertyIterable(
-                            this,
-                            newProperties,
-                            engine.getMetaData().getProperties())) {
-                        for (FiftyOneAspectPropertyMetaData property :
-                            iterable) {
-                            properties.add(property);
-                        }
-                    } catch (Exception e) {
-                        logger.error(
-                            "Exception occurred while constructing properties.",
-                            e);
-                    }
+    /**
+     * Apply a function to the native meta data for the current data set. The
+     * native engine is not freed by a refresh until the function returns.
+     * Native objects returned by the function hold their own reference to
+     * the native data set, but not to the buffer it was loaded from. If the
+     * engine was built from a {@link ByteBuffer}, the data set reads from
+     * that buffer in place, and a refresh can leave it unreachable while
+     * the native objects are still in use. Use
+     * {@link #withMetaData(BiFunction)} to hold the buffer alongside them.
+     * @param function function to apply to the meta data
+     * @param <T> type returned by the function
+     * @return result of the function
+     */
+    public <T> T withMetaData(Function<MetaDataSwig, T> function) {
+        return withMetaData((metaData, data) -> function.apply(metaData));
+    }
+
+    /**
+     * Apply a function to the native meta data for the current data set,
+     * along with the buffer the data set reads from in place. Anything
+     * returned which holds native objects from the meta data must also hold
+     * the buffer, so that it is not freed after a refresh while the native
+     * objects are still in use. The native engine is not freed by a refresh
+     * until the function returns.
+     * @param function function to apply to the meta data and buffer, which
+     *                 is null if the data set owns its data
+     * @param <T> type returned by the function
+     * @return result of the function
+     */
+    public <T> T withMetaData(
+        BiFunction<MetaDataSwig, ByteBuffer, T> function) {
+        EngineState current = acquireState();
+        try {
+            return function.apply(
+                current.getEngine().getMetaData(),
+                current.getData());
+        } finally {
+            current.release();
+        }
+    }
 
-                    properties.addAll(getMetricProperties());
+    /**
+     * Get the current state, which must already have been loaded.
+     * @return current state
+     */
+    private EngineState getState() {
+        EngineState current = state;
+        if (current == null) {
+            throw new IllegalStateException(
+                "No data set is loaded. Either none has been loaded yet, " +
+                "or the engine has been closed.");
+        }
+        return current;
+    }
 
-                    propertiesPopulated = true;
-                }
+    /**
+     * Get the current state and add a reference to its native engine. The
+     * caller must call {@link EngineState#release()} when finished with it.
+     * @return current state
+     */
+    private EngineState acquireState() {
+        while (true) {
+            EngineState current = getState();
+            if (current.acquire()) {
+                return current;
+            }
+            // The state has been released. If a refresh replaced it then try
+            // again with the new state, otherwise the engine is closed.
+            if (current == state) {
+                throw new IllegalStateException("The engine has been closed.");
             }
         }
-        return properties;
+    }
+
+    /**
+     * Get the meta data snapshot for the current data set.
+     * @return snapshot, or null if no data set has been loaded
+     */
+    private MetaDataSnapshot getSnapshot() {
+        EngineState current = state;
+        return current == null ? null : current.getMetaData();
     }
 
     @Override
-    public FiftyOneAspectPropertyMetaData getProperty(String name) {
-        FiftyOneAspectPropertyMetaData result = null;
-        PropertyMetaDataCollectionSwig properties =
-            engine.getMetaData().getProperties();
-        PropertyMetaDataSwig swigProperty = properties.getByKey(name);
-        if (swigProperty != null) {
-            result = new PropertyMetaDataHash(this, swigProperty);
-        }
-        properties.delete();
-
-        if (result == null) {
-            for (FiftyOneAspectPropertyMetaData property : getMetricProperties()) {
-                if (property.getName().equalsIgnoreCase(name)) {
-                    return property;
-                }
-            }
-        }
+    public List<FiftyOneAspectPropertyMetaData> getProperties() {
+        MetaDataSnapshot snapshot = getSnapshot();
+        return snapshot == null ?
+            Collections.<FiftyOneAspectPropertyMetaData>emptyList() :
+            snapshot.getProperties();
+    }
 
-        return result;
+    @Override
+    public FiftyOneAspectPropertyMetaData getProperty(String name) {
+        MetaDataSnapshot snapshot = getSnapshot();
+        return snapshot == null ? null : snapshot.getProperty(name);
     }
 
     @Override
     public CloseableIterable<ProfileMetaData> getProfiles() {
-        return new ProfileIterable(
+        return withMetaData((metaData, data) -> new ProfileIterable(
             this,
-            engine.getMetaData().getProfiles());
+            metaData.getProfiles(),
+            data));
+    }
+
+    /**
+     * Get a stream of all the profiles in the data set. A parallel stream
+     * splits the native collection into index ranges which are read
+     * concurrently. The native collection is freed when the stream is
+     * closed, so the stream should be used in a try-with-resources block.
+     * @param parallel true to return a parallel stream
+     * @return stream of profiles
+     */
+    public Stream<ProfileMetaData> streamProfiles(boolean parallel) {
+        return stream(getProfiles(), parallel);
+    }
+
+    /**
+     * Get a stream of all the values in the data set. See
+     * {@link #streamProfiles(boolean)}.
+     * @param parallel true to return a parallel stream
+     * @return stream of values
+     */
+    public Stream<ValueMetaData> streamValues(boolean parallel) {
+        return stream(getValues(), parallel);
+    }
+
+    private static <T> Stream<T> stream(
+        final CloseableIterable<T> iterable,
+        boolean parallel) {
+        return StreamSupport.stream(iterable.spliterator(), parallel)
+            .onClose(() -> {
+                try {
+                    iterable.close();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
     }
 
     @Override
     public ProfileMetaData getProfile(int profileId) {
-        ProfileMetaDataCollectionSwig profiles =
-            engine.getMetaData().getProfiles();
-        ProfileMetaDataSwig profile = profiles.getByKey(profileId);
-        profiles.delete();
-        return profile == null ?
-            null : new ProfileMetaDataHash(this, profile);
+        MetaDataSnapshot snapshot = getSnapshot();
+        int index = snapshot == null ? -1 : snapshot.getProfileIndex(profileId);
+        if (index < 0) {
+            return null;
+        }
+        return withMetaData((metaData, data) -> {
+            ProfileMetaDataCollectionSwig profiles = metaData.getProfiles();
+            try {
+                return new ProfileMetaDataHash(
+                    this,
+                    profiles.getByIndex(index),
+                    data);
+            } finally {
+                profiles.delete();
+            }
+        });
     }
 
     @Override
     public CloseableIterable<ComponentMetaData> getComponents() {
-        return new ComponentIterable(
-            this,
-            engine.getMetaData().getComponents());
+        MetaDataSnapshot snapshot = getSnapshot();
+        return new CloseableIterableDefault<>(snapshot == null ?
+            Collections.<ComponentMetaData>emptyList() :
+            snapshot.getComponents());
     }
 
     @Override
     public CloseableIterable<ValueMetaData> getValues() {
-        return new ValueIterable(
+        return withMetaData((metaData, data) -> new ValueIterable(
             this,
-            engine.getMetaData().getValues());
+            metaData.getValues(),
+            data));
     }
 
     @Override
     public ValueMetaData getValue(String propertyName, String valueName) {
-        ValueMetaDataKeySwig key = new ValueMetaDataKeySwig(propertyName, valueName);
-        ValueMetaDataCollectionSwig values = engine.getMetaData().getValues();
-        ValueMetaDataHash result = new ValueMetaDataHash(this, values.getByKey(key));
-        values.delete();
-        key.delete();
+        MetaDataSnapshot snapshot = getSnapshot();
+        int index = snapshot == null ?
+            -1 : snapshot.getValueIndex(propertyName, valueName);
+        if (index < 0) {
+            return null;
+        }
+        return withMetaData((metaData, data) -> {
+            ValueMetaDataCollectionSwig values = metaData.getValues();
+            try {
+                return new ValueMetaDataHash(
+                    this,
+                    values.getByIndex(index),
+                    data);
+            } finally {
+                values.delete();
+            }
+        });
+    }
+
+    /**
+     * Find the ids of the profiles which have the property values provided,
+     * for example IsMobile=True and PlatformName=Android.
+     * <p>
+     * Each profile belongs to a single component, and only has values for
+     * the properties of that component, so no single profile can meet
+     * conditions on properties of different components. The conditions are
+     * therefore grouped by component, and the profiles of each component
+     * which meet all of its conditions are returned separately. The example
+     * above returns the mobile hardware profiles under the hardware
+     * component id and the Android platform profiles under the platform
+     * component id. A device meets every condition when it has a profile
+     * from each group, so an empty group means no device can. A condition
+     * on a value which is not in the data set matches no profiles.
+     * <p>
+     * The engine must be built with
+     * {@link DeviceDetectionHashEngineBuilder#setProfileQueryIndex(boolean)}
+     * enabled.
+     * @param conditions property names mapped to the value each profile must
+     *                   have
+     * @return the component id of each component with conditions, mapped to
+     * the ids of its matching profiles in ascending order
+     * @throws IllegalStateException if the profile query index is not enabled
+     * @throws IllegalArgumentException if a condition is on a property which
+     * is not in the data set
+     */
+    public Map<Byte, int[]> findProfileIds(Map<String, String> conditions) {
+        MetaDataSnapshot snapshot = getSnapshot();
+        if (snapshot == null || snapshot.getProfileQueries() == null) {
+            throw new IllegalStateException(
+                "The profile query index is not enabled. Enable it with " +
+                "setProfileQueryIndex(true) when building the engine.");
+        }
+        Map<Byte, int[]> result = snapshot.getProfileQueries().find(
+            snapshot,
+            conditions);
+        for (int[] positions : result.values()) {
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = snapshot.getProfileId(positions[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the values of a property for a profile. If the engine was built
+     * with
+     * {@link DeviceDetectionHashEngineBuilder#setProfileValueIndex(boolean)}
+     * enabled, the positions of the values in the profile are found from an
+     * index, so only the values which are returned are read from the native
+     * layer. Otherwise every value of the profile is read to find them.
+     * @param profile native profile to get the values from
+     * @param propertyName name of the property to get the values for
+     * @return values for the property, or an empty list if there are none
+     */
+    public List<ValueMetaData> getValuesForProfile(
+        ProfileMetaDataSwig profile,
+        String propertyName) {
+        List<ValueMetaData> result = new ArrayList<>();
+        EngineState current = acquireState();
+        try {
+            MetaDataSnapshot snapshot = current.getMetaData();
+            ProfileValueIndex index = snapshot.getProfileValues();
+            int ordinal = index.getOrdinal(propertyName);
+            if (ordinal < 0) {
+                return result;
+            }
+            MetaDataSwig metaData = current.getEngine().getMetaData();
+            ValueMetaDataCollectionSwig values =
+                metaData.getValuesForProfile(profile);
+            try {
+                int profileIndex = index.isProfilesIndexed() ?
+                    snapshot.getProfileIndex((int) profile.getProfileId()) :
+                    -1;
+                int[] positions = profileIndex >= 0 ?
+                    index.getPositions(profileIndex, ordinal) :
+                    index.getPositions(ordinal, metaData, values);
+                for (int i = 0; i < positions.length; i += 2) {
+                    for (int j = positions[i]; j < positions[i + 1]; j++) {
+                        result.add(new ValueMetaDataHash(
+                            this,
+                            values.getByIndex(j),
+                            current.getData()));
+                    }
+                }
+            } finally {
+                values.delete();
+            }
+        } finally {
+            current.release();
+        }
+        return result;
+    }
+
+    /**
+     * Get a value of a property for a profile using the same index as
+     * {@link #getValuesForProfile(ProfileMetaDataSwig, String)}.
+     * @param profile native profile to get the value from
+     * @param propertyName name of the property the value belongs to
+     * @param valueName name of the value
+     * @return value, or null if the profile does not have the value
+     */
+    public ValueMetaData getValueForProfile(
+        ProfileMetaDataSwig profile,
+        String propertyName,
+        String valueName) {
+        ValueMetaData result = null;
+        for (ValueMetaData value :
+            getValuesForProfile(profile, propertyName)) {
+            if (result == null && value.getName().equals(valueName)) {
+                result = value;
+            } else {
+                try {
+                    value.close();
+                } catch (Exception e) {
+                    logger.warn("Exception occurred while closing value.", e);
+                }
+            }
+        }
         return result;
     }
 
     @Override
     public java.util.Date getDataFilePublishedDate(String dataFileIdentifier) {
+        EngineState current = acquireState();
+        try {
+            return getDataFilePublishedDate(current.getEngine());
+        } finally {
+            current.release();
+        }
+    }
+
+    private static java.util.Date getDataFilePublishedDate(
+        EngineHashSwig engine) {
         Calendar calendar = Calendar.getInstance();
         Date value = engine.getPublishedTime();
         // java.util.Calendar month is 0 based where January = 0
@@ -226,6 +548,16 @@ public class DeviceDetectionHashEngine
 
     @Override
     public java.util.Date getDataFileUpdateAvailableTime(String dataFileIdentifier) {
+        EngineState current = acquireState();
+        try {
+            return getDataFileUpdateAvailableTime(current.getEngine());
+        } finally {
+            current.release();
+        }
+    }
+
+    private java.util.Date getDataFileUpdateAvailableTime(
+        EngineHashSwig engine) {
         Calendar calendar = Calendar.getInstance();
         Date value = engine.getUpdateAvailableTime();
         // java.util.Calendar month is 0 based where January = 0
@@ -242,32 +574,55 @@ public class DeviceDetectionHashEngine
 
     @Override
     public String getDataSourceTier() {
-        return engine.getProduct();
-    }
-
-    /**
-     * Used internally to populate the meta data returned by
-     * {@link #getDataFileMetaData()}.
-     * @return temp path
-     */
-    private String getDataFileTempPath() {
-        return engine == null ? null : engine.getDataFileTempPath();
+        EngineState current = acquireState();
+        try {
+            return current.getEngine().getProduct();
+        } finally {
+            current.release();
+        }
     }
 
     @Override
     public EvidenceKeyFilter getEvidenceKeyFilter() {
-        return evidenceKeyFilter;
+        EngineState current = state;
+        return current == null ? null : current.getEvidenceKeyFilter();
     }
 
+    /**
+     * Load the data file into a new native engine, and replace the current
+     * state with one using the new engine. Processing continues against the
+     * current state until the new one is complete. The previous native
+     * engine is freed once all results which use it have been closed.
+     * <p>
+     * An engine built from a direct buffer has no data file to load from,
+     * so must be refreshed with {@link #refreshData(String, ByteBuffer)}
+     * and the new data.
+     * @param dataFileIdentifier identifier of the data file to load
+     * @throws UnsupportedOperationException if the engine was built from a
+     * direct buffer
+     */
     @Override
     public void refreshData(String dataFileIdentifier) {
+        ByteBuffer buffer = dataBuffer;
+        if (buffer != null) {
+            if (state != null) {
+                throw new UnsupportedOperationException(
+                    "The engine was built from a buffer, so has no data " +
+                        "file to refresh from. Use refreshData(String, " +
+                        "ByteBuffer) with the new data instead.");
+            }
+            // The first load of an engine built from a buffer.
+            refreshData(dataFileIdentifier, buffer);
+            return;
+        }
         AspectEngineDataFile dataFile = getDataFiles().get(0);
 
-        if (Objects.isNull(engine)) {
-            if (notFileExists(dataFile.getDataFilePath())) {
-                throw new IllegalStateException("Data file must exist for refresh data " + dataFile.getDataFilePath());
-            }
+        if (notFileExists(dataFile.getDataFilePath())) {
+            throw new IllegalStateException("Data file must exist for refresh data " + dataFile.getDataFilePath());
+        }
+        synchronized (refreshLock) {
             // sometimes the engine can't read data file, but succeeds on retry
+            EngineHashSwig engine = null;
             int tries = 0;
             String lastMessage = "";
             while (tries < 10) {
@@ -286,83 +641,414 @@ public class DeviceDetectionHashEngine
                 throw new IllegalStateException("Failed to create SwigEngine after " + tries +
                         " retries, last exception was " + lastMessage);
             }
-        } else {
-            engine.refreshData();
+            setEngine(engine, null);
+            dataFileSize = new File(dataFile.getDataFilePath()).length();
+            dataInMemory = false;
         }
-        setEngineMetaData();
     }
 
+    /**
+     * Load the data into a new native engine, and replace the current state
+     * with one using the new engine. See {@link #refreshData(String)}.
+     * @param dataFileIdentifier identifier of the data file to load
+     * @param data data file contents
+     */
     @Override
     public void refreshData(String dataFileIdentifier, byte[] data) {
-        if (engine == null) {
-            engine = new EngineHashSwig(data, config, propertiesConfigSwig);
-        } else {
-            engine.refreshData(data);
+        synchronized (refreshLock) {
+            setEngine(
+                new EngineHashSwig(data, config, propertiesConfigSwig),
+                null);
+            dataBuffer = null;
+            dataFileSize = data.length;
+            dataInMemory = true;
+        }
+    }
+
+    /**
+     * Load the data from a direct buffer, such as a
+     * {@link java.nio.MappedByteBuffer},
+     * into a new native engine, and replace the current state with one using
+     * the new engine. See {@link #refreshData(String)}.
+     * <p>
+     * The native engine reads the data set from the buffer in place, so
+     * unlike {@link #refreshData(String, byte[])} no copy of the data file
+     * is made on the heap or in native memory. The data set is read from the
+     * buffer's position to its limit. The engine keeps a reference to the
+     * buffer until the native engine using it has been freed, so the
+     * contents must not be modified by the caller.
+     * @param dataFileIdentifier identifier of the data file to load
+     * @param data direct buffer containing the data file
+     * @throws IllegalArgumentException if the buffer is not direct
+     */
+    public void refreshData(String dataFileIdentifier, ByteBuffer data) {
+        synchronized (refreshLock) {
+            setEngine(
+                EngineHashSwig.fromBuffer(data, config, propertiesConfigSwig),
+                data);
+            dataBuffer = data;
+            dataFileSize = data.remaining();
+            dataInMemory = true;
         }
-        setEngineMetaData();
     }
 
     @Override
     protected void processEngine(FlowData flowData, DeviceDataHash deviceData) {
-        try (EvidenceDeviceDetectionSwig relevantEvidence =
-            new EvidenceDeviceDetectionSwig()) {
-            List<String> keys = evidenceKeys;
-            for (Map.Entry<String, Object> evidenceItem :
-                flowData.getEvidence().asKeyMap().entrySet()) {
-                boolean containsKey = false;
-                for (String key : keys) {
-                    if (key.equalsIgnoreCase(evidenceItem.getKey())) {
-                        containsKey = true;
-                        break;
-                    }
-                }
-                if (containsKey) {
-                    relevantEvidence
-                        .addFromBytes(
-                        Swig.asBytes(evidenceItem.getKey()),
-                        Swig.asBytes(evidenceItem.getValue().toString()));
+        EngineState current = acquireState();
+        try {
+            ResultsCache cache = current.getResultsCache();
+            if (cache != null) {
+                processCached(
+                    flowData,
+                    (DeviceDataHashDefault) deviceData,
+                    current,
+                    cache);
+            } else if (eagerResults) {
+                ((DeviceDataHashDefault) deviceData).setSnapshot(
+                    processSnapshot(
+                        flowData.getEvidence().asKeyMap(),
+                        current));
+            } else {
+                processNative(
+                    flowData,
+                    (DeviceDataHashDefault) deviceData,
+                    current);
+            }
+        } finally {
+            current.release();
+        }
+    }
+
+    /**
+     * Add results from the cache to the device data, processing the evidence
+     * and adding the results to the cache if they are not already present.
+     * @param flowData the flow data containing the evidence
+     * @param deviceData the device data to add the results to
+     * @param current the state to process with
+     * @param cache the results cache for the current data set
+     */
+    private void processCached(
+        FlowData flowData,
+        DeviceDataHashDefault deviceData,
+        EngineState current,
+        ResultsCache cache) {
+        Map<String, Object> evidence = flowData.getEvidence().asKeyMap();
+        EvidenceFingerprint fingerprint =
+            current.getEvidenceMarshaller().fingerprint(evidence);
+        ResultsSnapshot snapshot = cache.get(fingerprint);
+        if (snapshot == null) {
+            snapshot = processSnapshot(evidence, current);
+            cache.put(fingerprint, snapshot);
+        }
+        deviceData.setSnapshot(snapshot);
+    }
+
+    /**
+     * Process the evidence and copy the values from the native results into
+     * an immutable snapshot. The native results are freed before returning.
+     * @param evidence all evidence from the flow data
+     * @param current the state to process with
+     * @return snapshot of the results
+     */
+    private ResultsSnapshot processSnapshot(
+        Map<String, Object> evidence,
+        EngineState current) {
+        EvidenceDeviceDetectionSwig relevantEvidence = evidencePool.take();
+        try {
+            current.getEvidenceMarshaller().marshal(evidence, relevantEvidence);
+            try (ResultsHashSwig results =
+                     current.getEngine().process(relevantEvidence)) {
+                return ResultsSnapshot.create(
+                    results,
+                    current.getPropertyIndex());
+            }
+        } finally {
+            evidencePool.release(relevantEvidence);
+        }
+    }
+
+    /**
+     * Process the evidence and add the native results to the device data.
+     * The device data holds a reference to the state until it is closed.
+     * @param flowData the flow data containing the evidence
+     * @param deviceData the device data to add the results to
+     * @param current the state to process with
+     */
+    private void processNative(
+        FlowData flowData,
+        DeviceDataHashDefault deviceData,
+        EngineState current) {
+        EvidenceDeviceDetectionSwig relevantEvidence = evidencePool.take();
+        try {
+            current.getEvidenceMarshaller().marshal(
+                flowData.getEvidence().asKeyMap(),
+                relevantEvidence);
+            deviceData.setResults(
+                current.getEngine().process(relevantEvidence),
+                current);
+        } finally {
+            evidencePool.release(relevantEvidence);
+        }
+    }
+
+    /**
+     * Process a batch of {@link FlowData} instances using a single call to the
+     * native engine, rather than one call for each instance. This is intended
+     * for offline processing of large numbers of evidence sets e.g. enriching
+     * log files, where the cost of crossing into the native layer for each
+     * instance is significant.
+     * <p>
+     * Evidence must already have been added to each {@link FlowData}. Only
+     * this engine is run, so the results are added to each {@link FlowData}
+     * as if {@link #process(FlowData)} had been called, but other elements in
+     * the pipeline are not run.
+     * @param flowDatas the {@link FlowData} instances to process
+     */
+    public void processBatch(List<FlowData> flowDatas) {
+        if (flowDatas.isEmpty()) {
+            return;
+        }
+        EngineState current = acquireState();
+        DeviceDataHashDefault[] deviceDatas =
+            new DeviceDataHashDefault[flowDatas.size()];
+        EvidenceDeviceDetectionSwig[] relevantEvidence =
+            new EvidenceDeviceDetectionSwig[flowDatas.size()];
+        try {
+            for (int i = 0; i < flowDatas.size(); i++) {
+                FlowData flowData = flowDatas.get(i);
+                deviceDatas[i] = (DeviceDataHashDefault) flowData.getOrAdd(
+                    getTypedDataKey(),
+                    fd -> deviceDataFactory.create(fd, this));
+                relevantEvidence[i] = evidencePool.take();
+                current.getEvidenceMarshaller().marshal(
+                    flowData.getEvidence().asKeyMap(),
+                    relevantEvidence[i]);
+            }
+            ResultsHashSwig[] results =
+                current.getEngine().processBatch(relevantEvidence);
+            for (int i = 0; i < results.length; i++) {
+                deviceDatas[i].setResults(results[i], current);
+            }
+        } finally {
+            for (EvidenceDeviceDetectionSwig evidence : relevantEvidence) {
+                if (evidence != null) {
+                    evidencePool.release(evidence);
                 }
             }
-            ((DeviceDataHashDefault) deviceData).setResults(
-                engine.process(relevantEvidence));
+            current.release();
         }
     }
 
     @Override
     protected void unmanagedResourcesCleanup() {
-        if (propertiesPopulated) {
-            synchronized (properties) {
-                if (propertiesPopulated) {
-                    properties.clear();
-                }
+        unregisterJmx();
+        synchronized (refreshLock) {
+            EngineState current = state;
+            state = null;
+            if (current != null) {
+                // The native engine is freed once any results still using
+                // it are closed.
+                current.release();
             }
         }
+        evidencePool.close();
         if (config != null) {
             config.delete();
         }
         if (propertiesConfigSwig != null) {
             propertiesConfigSwig.delete();
         }
-        if (engine != null) {
-            engine.delete();
+    }
+
+    /**
+     * Get the timings from the warm up of the current data set.
+     * @return warm up timings, or null if there is no warm up configured
+     */
+    public WarmUpResult getLastWarmUp() {
+        return lastWarmUp;
+    }
+
+    /**
+     * Get statistics for the current data set. The configuration of each
+     * native collection is read from the native configuration, and the
+     * number of items, cache counters and items in memory from the native
+     * data set.
+     * @return statistics for the current data set
+     */
+    public EngineStatistics getStatistics() {
+        EngineState current = acquireState();
+        try {
+            Map<HashCollection, CollectionConfiguration> collections =
+                new EnumMap<>(HashCollection.class);
+            for (HashCollection collection : HashCollection.values()) {
+                CollectionConfigSwig swig = collection.get(config);
+                try {
+                    collections.put(
+                        collection,
+                        CollectionConfiguration.fromNative(
+                            swig.getLoaded(),
+                            swig.getCapacity(),
+                            swig.getConcurrency()));
+                } finally {
+                    swig.delete();
+                }
+            }
+            ResultsCache cache = current.getResultsCache();
+            return new EngineStatistics(
+                dataFileSize,
+                new MemoryEstimate(
+                    dataFileSize,
+                    dataInMemory || config.getAllInMemory(),
+                    collections,
+                    current.getEngine().getCollectionSizes()),
+                current.getEngine().getCollectionCaches(),
+                cache == null ? null : cache.getStatistics());
+        } finally {
+            current.release();
+        }
+    }
+
+    /**
+     * Register the statistics for this engine as a JMX bean with the
+     * platform MBean server. Failure is logged rather than thrown, as the
+     * engine can still be used without it.
+     */
+    private void registerJmx() {
+        try {
+            ObjectName name = new ObjectName(
+                "fiftyone.devicedetection:type=DeviceDetectionHashEngine," +
+                "name=" + jmxCount.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new EngineStatisticsBean(this),
+                name);
+            jmxName = name;
+        } catch (JMException e) {
+            logger.warn("The engine statistics could not be registered " +
+                "with JMX.", e);
+        }
+    }
+
+    private void unregisterJmx() {
+        ObjectName name = jmxName;
+        jmxName = null;
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(name);
+            } catch (JMException e) {
+                logger.warn("The engine statistics could not be " +
+                    "unregistered from JMX.", e);
+            }
         }
     }
 
-    private void setEngineMetaData() {
-        evidenceKeys = getKeysFromEngine(engine);
-        evidenceKeyFilter = new EvidenceKeyFilterWhitelist(
-            evidenceKeys,
-            String.CASE_INSENSITIVE_ORDER);
-        propertiesPopulated = false;
+    /**
+     * Get the name the JMX bean for this engine is registered with.
+     * @return object name, or null if the statistics are not registered
+     */
+    public ObjectName getJmxName() {
+        return jmxName;
+    }
+
+    /**
+     * Build the state for a new native engine, warm it up if configured,
+     * and make it the current state. The previous state is released.
+     * @param engine new native engine
+     * @param data direct buffer the native engine reads from, or null
+     */
+    private void setEngine(EngineHashSwig engine, ByteBuffer data) {
+        EngineState newState;
+        try {
+            newState = createState(engine, data);
+        } catch (RuntimeException e) {
+            engine.delete();
+            throw e;
+        }
+        if (warmUp != null) {
+            try {
+                lastWarmUp = warmUp.run(newState, evidencePool, logger);
+            } catch (IOException e) {
+                logger.warn("The warm up corpus could not be read, so the " +
+                    "data set will be used without a warm up.", e);
+            } catch (RuntimeException e) {
+                // The new state never became current, so release it to free
+                // the native engine.
+                newState.release();
+                throw e;
+            }
+        }
+        EngineState previous = state;
+        state = newState;
+        if (previous != null) {
+            previous.release();
+        }
         // Populate these data file properties from the native engine.
         FiftyOneDataFile dataFileMetaData =
             (FiftyOneDataFile)getDataFileMetaData();
         if (dataFileMetaData != null) {
             dataFileMetaData.setDataPublishedDateTime(
-                getDataFilePublishedDate());
+                getDataFilePublishedDate(engine));
             dataFileMetaData.setUpdateAvailableTime(
-                getDataFileUpdateAvailableTime());
-            dataFileMetaData.setTempDataFilePath(getDataFileTempPath());
+                getDataFileUpdateAvailableTime(engine));
+            dataFileMetaData.setTempDataFilePath(engine.getDataFileTempPath());
+        }
+    }
+
+    /**
+     * Build everything the engine needs from a native engine.
+     * @param engine native engine
+     * @param data direct buffer the native engine reads from, or null
+     * @return new state
+     */
+    private EngineState createState(EngineHashSwig engine, ByteBuffer data) {
+        List<String> evidenceKeys = getKeysFromEngine(engine);
+        MetaDataSnapshot metaData = MetaDataSnapshot.create(
+            this,
+            engine.getMetaData(),
+            data,
+            getMetricProperties(),
+            profileQueryIndex,
+            profileValueIndex);
+        return new EngineState(
+            engine,
+            data,
+            new EvidenceKeyFilterWhitelist(
+                evidenceKeys,
+                String.CASE_INSENSITIVE_ORDER),
+            new EvidenceMarshaller(evidenceKeys),
+            metaData,
+            createPropertyIndex(engine, metaData),
+            // Results from the previous data set are no longer valid, so
+            // each data set has its own cache.
+            resultsCacheSize > 0 ?
+                new ResultsCache(
+                    logger,
+                    resultsCacheBuilder,
+                    resultsCacheSize) :
+                null);
+    }
+
+    /**
+     * Create the index of required properties for a data set. The native
+     * results for empty evidence contain all the required properties, so
+     * these are used to get the property names in index order.
+     * @param engine native engine for the data set
+     * @param metaData meta data snapshot for the data set
+     * @return required property index
+     */
+    private RequiredPropertyIndex createPropertyIndex(
+        EngineHashSwig engine,
+        MetaDataSnapshot metaData) {
+        Map<String, Class<?>> types = new HashMap<>();
+        for (FiftyOneAspectPropertyMetaData property :
+            metaData.getProperties()) {
+            types.put(property.getName(), property.getType());
+        }
+        EvidenceDeviceDetectionSwig evidence = evidencePool.take();
+        try (ResultsHashSwig results = engine.process(evidence)) {
+            return RequiredPropertyIndex.fromResults(results, types);
+        } finally {
+            evidencePool.release(evidence);
         }
     }
 
@@ -527,8 +1213,10 @@ public class DeviceDetectionHashEngine
     @Override
     public void setCache(FlowCache cache) {
         throw new UnsupportedOperationException(
-            "A results cache cannot be configured in the on-premise Hash engine. " +
+            "A flow cache cannot be configured in the on-premise Hash engine. " +
                 "The overhead of having to manage native object lifetimes when " +
-                "a cache is enabled outweighs the benefit of the cache.");
+                "a flow cache is enabled outweighs the benefit of the cache. " +
+                "Use DeviceDetectionHashEngineBuilder.setCache to configure " +
+                "a cache of immutable results instead.");
     }
 }
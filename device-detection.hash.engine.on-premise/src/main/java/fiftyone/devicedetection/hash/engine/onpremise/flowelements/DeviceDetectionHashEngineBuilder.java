@@ -22,8 +22,12 @@
 
 package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
 
+import fiftyone.caching.LruPutCache;
+import fiftyone.caching.PutCacheBuilder;
 import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.CollectionConfigSwig;
 import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ConfigHashSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EngineHashSwig;
 import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.RequiredPropertiesConfigSwig;
 import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.VectorStringSwig;
 import fiftyone.devicedetection.shared.flowelements.OnPremiseDeviceDetectionEngineBuilderBase;
@@ -42,9 +46,15 @@ import fiftyone.pipeline.util.Check;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
+import static fiftyone.pipeline.util.Check.notFileExists;
 import static fiftyone.pipeline.util.StringManipulation.stringJoin;
 
 /**
@@ -66,6 +76,71 @@ public class DeviceDetectionHashEngineBuilder
      */
     private final ConfigHashSwig config = new ConfigHashSwig();
 
+    /**
+     * Maximum number of results to hold in the engine's results cache, or 0
+     * if there is no cache.
+     */
+    private int resultsCacheSize = 0;
+
+    /**
+     * Builder for the engine's results cache, or null if there is no cache.
+     */
+    private PutCacheBuilder resultsCacheBuilder = null;
+
+    /**
+     * True if results should be copied from the native layer and freed
+     * during processing.
+     */
+    private boolean eagerResults = false;
+
+    /**
+     * True if the reverse index from values to profiles should be built.
+     */
+    private boolean profileQueryIndex = false;
+
+    /**
+     * True if the values of every profile should be indexed by property.
+     */
+    private boolean profileValueIndex = false;
+
+    /**
+     * Corpus to process against each data set before it is used, or null.
+     */
+    private WarmUp warmUp = null;
+
+    /**
+     * Path to a warm up corpus file, used if {@link #warmUp} is not set.
+     */
+    private String warmUpFile = null;
+
+    private int warmUpThreads = Runtime.getRuntime().availableProcessors();
+
+    private int warmUpLimit = 10000;
+
+    /**
+     * True if the engine statistics should be registered with JMX.
+     */
+    private boolean jmxStatistics = false;
+
+    /**
+     * Direct buffer to build the engine from, set only for the duration of
+     * {@link #build(ByteBuffer)}.
+     */
+    private ByteBuffer dataBuffer = null;
+
+    /**
+     * Performance profile most recently set, used to check the collection
+     * configurations.
+     */
+    private PerformanceProfiles performanceProfile = PerformanceProfiles.Balanced;
+
+    /**
+     * Collection configurations which replace those of the performance
+     * profile.
+     */
+    private final Map<HashCollection, CollectionConfiguration> collections =
+        new EnumMap<>(HashCollection.class);
+
     /**
      * Default constructor which uses the {@link ILoggerFactory} implementation
      * returned by {@link LoggerFactory#getILoggerFactory()}.
@@ -180,9 +255,170 @@ public class DeviceDetectionHashEngineBuilder
                     "The performance profile '" + profile.name() +
                         "' is not valid for a DeviceDetectionHashEngine.");
         }
+        performanceProfile = profile;
+        return this;
+    }
+
+    /**
+     * Set how a single collection in the data set is held in memory,
+     * replacing the setting from the performance profile. This allows the
+     * collections which are used most to be loaded into memory while the
+     * others are cached or read on demand. For example, loading the nodes
+     * which are traversed for every request, and caching the strings and
+     * values which are only read when property values are returned.
+     * <p>
+     * The collection configurations are applied on top of the performance
+     * profile when the engine is built, so can be set before or after it.
+     * They can not be used with the MaxPerformance profile, which loads the
+     * entire data set into memory, or when the engine is built from memory
+     * with {@link #build(byte[])}, {@link #build(ByteBuffer)} or
+     * {@link #build(InputStream)}, as every collection is then already in
+     * memory. Building the engine fails in either case.
+     * <p>
+     * Use {@link #estimateMemory(String)} to check the memory the
+     * configuration will need.
+     * @param collection the collection to configure
+     * @param configuration how the collection is held in memory
+     * @return this builder
+     */
+    public DeviceDetectionHashEngineBuilder setCollectionConfiguration(
+        HashCollection collection,
+        CollectionConfiguration configuration) {
+        if (collection == null || configuration == null) {
+            throw new IllegalArgumentException(
+                "The collection and configuration must not be null.");
+        }
+        collections.put(collection, configuration);
         return this;
     }
 
+    /**
+     * Estimate the native memory the data set in a data file will use with
+     * the current performance profile and collection configurations. See
+     * {@link MemoryEstimate} for how the estimate is made.
+     * <p>
+     * The size of each collection is read from the header of the data file,
+     * which is opened with the LowMemory profile so that little else is
+     * read.
+     * @param dataFilePath path to the data file
+     * @return memory estimate
+     * @throws IllegalArgumentException if the data file does not exist
+     */
+    public MemoryEstimate estimateMemory(String dataFilePath) {
+        if (notFileExists(dataFilePath)) {
+            throw new IllegalArgumentException(
+                "The data file '" + dataFilePath + "' does not exist.");
+        }
+        ConfigHashSwig headerConfig = new ConfigHashSwig();
+        RequiredPropertiesConfigSwig headerProperties =
+            new RequiredPropertiesConfigSwig();
+        try {
+            headerConfig.setLowMemory();
+            EngineHashSwig engine = new EngineHashSwig(
+                dataFilePath,
+                headerConfig,
+                headerProperties);
+            try {
+                return new MemoryEstimate(
+                    new File(dataFilePath).length(),
+                    performanceProfile == PerformanceProfiles.MaxPerformance,
+                    getCollectionConfigurations(),
+                    engine.getCollectionSizes());
+            } finally {
+                engine.delete();
+            }
+        } finally {
+            headerProperties.delete();
+            headerConfig.delete();
+        }
+    }
+
+    /**
+     * Get the configuration of every collection, which is either the one
+     * set with {@link #setCollectionConfiguration} or the one from the
+     * performance profile.
+     * @return collection configurations
+     */
+    private Map<HashCollection, CollectionConfiguration>
+        getCollectionConfigurations() {
+        Map<HashCollection, CollectionConfiguration> result =
+            new EnumMap<>(HashCollection.class);
+        for (HashCollection collection : HashCollection.values()) {
+            CollectionConfiguration configuration = collections.get(collection);
+            result.put(
+                collection,
+                configuration != null ?
+                    configuration :
+                    getCollectionConfiguration(collection));
+        }
+        return result;
+    }
+
+    /**
+     * Apply the collection configurations to the native configuration.
+     * A concurrency of 0 is replaced with the concurrency of the engine.
+     * @param dataFile the data file the engine is being built for
+     */
+    private void applyCollectionConfigurations(AspectEngineDataFile dataFile) {
+        if (collections.isEmpty()) {
+            return;
+        }
+        if (dataBuffer != null ||
+            dataFile.getConfiguration().getData() != null) {
+            throw new PipelineConfigurationException(
+                "Collection configurations can not be used when the engine " +
+                    "is built from memory, as every collection is already " +
+                    "in memory. Build the engine from a data file instead.");
+        }
+        if (performanceProfile == PerformanceProfiles.MaxPerformance) {
+            throw new PipelineConfigurationException(
+                "Collection configurations can not be used with the " +
+                    "MaxPerformance profile, as it loads the entire data " +
+                    "set into memory. Use HighPerformance as the base " +
+                    "profile instead.");
+        }
+        for (Map.Entry<HashCollection, CollectionConfiguration> entry :
+            collections.entrySet()) {
+            CollectionConfiguration configuration = entry.getValue();
+            CollectionConfigSwig swig = entry.getKey().get(config);
+            try {
+                swig.setLoaded(configuration.getLoaded());
+                swig.setCapacity(configuration.getCapacity());
+                swig.setConcurrency(configuration.getConcurrency() > 0 ?
+                    configuration.getConcurrency() :
+                    config.getConcurrency());
+            } finally {
+                swig.delete();
+            }
+            // Read the settings back to make sure they were applied to the
+            // native configuration rather than a copy of it.
+            if (getCollectionConfiguration(entry.getKey()).getCapacity() !=
+                configuration.getCapacity()) {
+                throw new IllegalStateException(
+                    "The configuration of the " + entry.getKey() +
+                        " collection could not be applied.");
+            }
+        }
+    }
+
+    /**
+     * Read the configuration of a collection from the native configuration.
+     * @param collection collection to read
+     * @return current configuration
+     */
+    private CollectionConfiguration getCollectionConfiguration(
+        HashCollection collection) {
+        CollectionConfigSwig swig = collection.get(config);
+        try {
+            return CollectionConfiguration.fromNative(
+                swig.getLoaded(),
+                swig.getCapacity(),
+                swig.getConcurrency());
+        } finally {
+            swig.delete();
+        }
+    }
+
     /**
      * Provide a hint as to how many threads will access the pipeline simultaneously
      * <p>
@@ -285,16 +521,262 @@ public class DeviceDetectionHashEngineBuilder
         return this;
     }
     
+    /**
+     * Set whether the values of all required properties should be copied
+     * from the native results as part of processing. The native results are
+     * then freed immediately, rather than being held until the
+     * {@link FlowData} is closed, and all property reads are served from
+     * Java without calling the native layer.
+     * <p>
+     * This keeps native memory use constant regardless of how long flow data
+     * instances are held, and makes repeated reads of the same properties
+     * cheaper. However, every required property is copied whether it is read
+     * or not, so it is best combined with restricting the required
+     * properties to those which are needed.
+     * <p>
+     * Results are always copied when a cache is configured using
+     * {@link #setCache(CacheConfiguration)}.
+     * <p>
+     * Default is false.
+     * @param eager true if results should be copied during processing
+     * @return this builder
+     */
+    @DefaultValue("false")
+    public DeviceDetectionHashEngineBuilder setEagerResults(boolean eager) {
+        this.eagerResults = eager;
+        return this;
+    }
+
+    /**
+     * Set whether the engine should build a reverse index from each value to
+     * the profiles which have it. This is needed by
+     * {@link DeviceDetectionHashEngine#findProfileIds(java.util.Map)}.
+     * <p>
+     * The index is built from every value of every profile each time the
+     * data is loaded or refreshed. This is done in parallel, but still adds
+     * noticeably to the load time of larger data files, and the index is
+     * held in memory alongside the data set.
+     * <p>
+     * Default is false.
+     * @param enabled true if the index should be built
+     * @return this builder
+     */
+    @DefaultValue("false")
+    public DeviceDetectionHashEngineBuilder setProfileQueryIndex(boolean enabled) {
+        this.profileQueryIndex = enabled;
+        return this;
+    }
+
+    /**
+     * Set whether the engine should index the values of every profile by
+     * property. This makes
+     * {@link fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData#getValues(String)}
+     * and
+     * {@link fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData#getValue(String, String)}
+     * read only the values of the property requested. Without the index,
+     * every value of the profile is read to find them.
+     * <p>
+     * The index is built from every value of every profile each time the
+     * data is loaded or refreshed, so should only be enabled where profile
+     * values are read by property often, such as when building a catalogue
+     * from the profiles.
+     * <p>
+     * Default is false.
+     * @param enabled true if the index should be built
+     * @return this builder
+     */
+    @DefaultValue("false")
+    public DeviceDetectionHashEngineBuilder setProfileValueIndex(boolean enabled) {
+        this.profileValueIndex = enabled;
+        return this;
+    }
+
+    /**
+     * Set a corpus of evidence to process against each data set when it is
+     * loaded or refreshed, before it starts serving requests. This fills the
+     * native caches used by the lower memory performance profiles, so the
+     * first requests are not slowed by loading them. Progress and timings
+     * are logged, and are available from
+     * {@link DeviceDetectionHashEngine#getLastWarmUp()}.
+     * <p>
+     * Default is no warm up.
+     * @param warmUp corpus to process
+     * @return this builder
+     */
+    public DeviceDetectionHashEngineBuilder setWarmUp(WarmUp warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
+    /**
+     * Set a file to read the warm up corpus from each time a data set is
+     * loaded. See {@link WarmUp} for the supported formats, and
+     * {@link #setWarmUp(WarmUp)} for details of the warm up.
+     * @param file path to the evidence or User-Agent file
+     * @return this builder
+     */
+    public DeviceDetectionHashEngineBuilder setWarmUpFile(String file) {
+        this.warmUpFile = file;
+        return this;
+    }
+
+    /**
+     * Set the number of threads used to process the warm up file set by
+     * {@link #setWarmUpFile(String)}.
+     * <p>
+     * Default is the number of available processors.
+     * @param threads number of threads
+     * @return this builder
+     */
+    public DeviceDetectionHashEngineBuilder setWarmUpThreads(int threads) {
+        this.warmUpThreads = threads;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of records read from the warm up file set by
+     * {@link #setWarmUpFile(String)}.
+     * <p>
+     * Default is 10000.
+     * @param limit maximum number of records
+     * @return this builder
+     */
+    @DefaultValue("10000")
+    public DeviceDetectionHashEngineBuilder setWarmUpLimit(int limit) {
+        this.warmUpLimit = limit;
+        return this;
+    }
+
+    /**
+     * Set whether the engine should register its statistics as a JMX bean
+     * with the platform MBean server. The bean is registered under the name
+     * returned by {@link DeviceDetectionHashEngine#getJmxName()}, and is
+     * unregistered when the engine is closed. See
+     * {@link DeviceDetectionHashEngineMXBean} for the attributes.
+     * <p>
+     * Default is false.
+     * @param enabled true if the statistics should be registered
+     * @return this builder
+     */
+    @DefaultValue("false")
+    public DeviceDetectionHashEngineBuilder setJmxStatistics(boolean enabled) {
+        this.jmxStatistics = enabled;
+        return this;
+    }
+
+    /**
+     * Configure a results cache for the engine. Results are copied from the
+     * native layer into an immutable snapshot of the required property
+     * values, which is cached against the evidence used by the engine. A
+     * cache hit returns the snapshot without calling the native engine.
+     * <p>
+     * The cache is built by the builder in the cache configuration, which
+     * must be a {@link PutCacheBuilder} as results are added to the cache
+     * after they are processed. If the configuration has no builder, a least
+     * recently used cache is used. A new cache is built whenever the data
+     * file is refreshed.
+     * <p>
+     * Copying the results takes longer than reading a few properties from
+     * native results, so the cache is most effective when the same evidence
+     * is seen repeatedly, and when the required properties are restricted to
+     * those which are needed.
+     * <p>
+     * By default there is no cache.
+     * @param cacheConfiguration the cache configuration to use
+     * @return this builder
+     */
     @Override
     public DeviceDetectionHashEngineBuilder setCache(
         CacheConfiguration cacheConfiguration) {
-        throw new UnsupportedOperationException(
-            "A results cache cannot be configured in the on-premise Hash " +
-            "engine. The overhead of having to manage native object " + 
-            "lifetimes when a cache is enabled outweighs the benefit of the " +
-            "cache.");
+        if (cacheConfiguration.getSize() <= 0) {
+            throw new IllegalArgumentException(
+                "The size of the results cache must be greater than 0.");
+        }
+        if (cacheConfiguration.getBuilder() == null) {
+            resultsCacheBuilder = new LruPutCache.Builder();
+        }
+        else if (cacheConfiguration.getBuilder() instanceof PutCacheBuilder) {
+            resultsCacheBuilder =
+                (PutCacheBuilder) cacheConfiguration.getBuilder();
+        }
+        else {
+            throw new IllegalArgumentException(
+                "The results cache must be built by a PutCacheBuilder.");
+        }
+        resultsCacheSize = cacheConfiguration.getSize();
+        return this;
     }
     
+    /**
+     * Build an engine which reads the data file in place from a direct
+     * buffer, for example a {@link java.nio.MappedByteBuffer} of the data
+     * file, or a direct buffer the data file has been downloaded into.
+     * <p>
+     * Unlike {@link #build(byte[])}, the data file is not copied into native
+     * memory, so the only copy of the data is the one in the buffer. The data
+     * set is read from the buffer's position to its limit, and the contents
+     * must not be modified while the engine is using them. There is no data
+     * file for the engine to reload, so it must be refreshed with
+     * {@link DeviceDetectionHashEngine#refreshData(String, ByteBuffer)} and
+     * the new data. Calling
+     * {@link DeviceDetectionHashEngine#refreshData(String)}, which is what
+     * automatic updates and the file system watcher do, throws an
+     * {@link UnsupportedOperationException}.
+     * @param data direct buffer containing the entire data file
+     * @return new engine
+     * @throws Exception if the engine could not be built
+     */
+    public DeviceDetectionHashEngine build(ByteBuffer data) throws Exception {
+        if (data == null || data.isDirect() == false) {
+            throw new IllegalArgumentException(
+                "The data must be in a direct ByteBuffer.");
+        }
+        dataBuffer = data;
+        try {
+            // Configure a data file with no path or data. The engine loads
+            // from the buffer instead.
+            return build((byte[]) null);
+        } finally {
+            dataBuffer = null;
+        }
+    }
+
+    /**
+     * Build an engine from a stream containing the data file. See
+     * {@link #build(InputStream, String)}.
+     * @param data stream containing the data file, optionally gzipped
+     * @return new engine
+     * @throws Exception if the engine could not be built
+     */
+    public DeviceDetectionHashEngine build(InputStream data) throws Exception {
+        return build(data, null);
+    }
+
+    /**
+     * Build an engine from a stream containing the data file, for example
+     * the body of a download, without first reading it into a byte array.
+     * <p>
+     * The stream is copied in a single pass into a temporary file in the
+     * temp directory set by {@link #setTempDirPath(String)}, which is then
+     * memory mapped and used as in {@link #build(ByteBuffer)}. If the data
+     * is gzipped it is decompressed as it is read. If an MD5 hash is
+     * supplied, the hash of the data as read from the stream is computed in
+     * the same pass and must match it, so a compressed download is verified
+     * against its 'content-md5' header without a second read. The stream is
+     * not closed.
+     * @param data stream containing the data file, optionally gzipped
+     * @param md5 hex encoded MD5 hash of the data in the stream, or null if
+     *            the data should not be verified
+     * @return new engine
+     * @throws Exception if the stream could not be read, the MD5 hash does
+     * not match, or the engine could not be built
+     */
+    public DeviceDetectionHashEngine build(
+        InputStream data,
+        String md5) throws Exception {
+        return build(DataFileStream.map(data, tempDir, md5));
+    }
+
     /**
      * The default value to use for the 'Type' parameter when sending
      * a request to the Distributor
@@ -324,6 +806,7 @@ public class DeviceDetectionHashEngineBuilder
 
         // Update the swig configuration object.
         config.setUseUpperPrefixHeaders(false);
+        applyCollectionConfigurations(dataFile);
         if (dataFile.getConfiguration().getCreateTempDataCopy() && Check.notNullOrBlank(tempDir)) {
             try (VectorStringSwig tempDirs = new VectorStringSwig()) {
                 tempDirs.add(tempDir);
@@ -342,7 +825,17 @@ public class DeviceDetectionHashEngineBuilder
             config,
             requiredProperties,
             new HashDataFactory(loggerFactory),
-            tempDir);
+            tempDir,
+            resultsCacheBuilder,
+            resultsCacheSize,
+            eagerResults,
+            profileQueryIndex,
+            profileValueIndex,
+            warmUp != null ? warmUp : warmUpFile != null ?
+                new WarmUp(new File(warmUpFile), warmUpLimit, warmUpThreads) :
+                null,
+            dataBuffer,
+            jmxStatistics);
     }
 
     private static class HashDataFactory implements
@@ -0,0 +1,125 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.Map;
+
+/**
+ * JMX attributes for a {@link DeviceDetectionHashEngine}, registered when
+ * enabled with
+ * {@link DeviceDetectionHashEngineBuilder#setJmxStatistics(boolean)}. Each
+ * attribute is read from {@link DeviceDetectionHashEngine#getStatistics()}.
+ * Results cache attributes are 0 if results are not cached.
+ */
+public interface DeviceDetectionHashEngineMXBean {
+
+    /**
+     * See {@link EngineStatistics#getDataFileSize()}.
+     * @return size of the data file in bytes
+     */
+    long getDataFileSize();
+
+    /**
+     * See {@link EngineStatistics#getEstimatedBytes()}.
+     * @return estimated bytes held in memory
+     */
+    long getEstimatedBytes();
+
+    /**
+     * See {@link EngineStatistics#getResidentBytes()}.
+     * @return bytes held in memory
+     */
+    long getResidentBytes();
+
+    /**
+     * See {@link CollectionStatistics#getConfiguration()}.
+     * @return configuration of each collection by name
+     */
+    Map<String, String> getCollectionConfigurations();
+
+    /**
+     * See {@link CollectionStatistics#getCount()}.
+     * @return number of items in each collection by name
+     */
+    Map<String, Long> getCollectionCounts();
+
+    /**
+     * See {@link CollectionStatistics#getHits()}.
+     * @return cache hits for each collection by name
+     */
+    Map<String, Long> getCollectionCacheHits();
+
+    /**
+     * See {@link CollectionStatistics#getMisses()}.
+     * @return cache misses for each collection by name
+     */
+    Map<String, Long> getCollectionCacheMisses();
+
+    /**
+     * See {@link CollectionStatistics#getEstimatedEvictions()}. This is an
+     * estimate from the misses and capacity of each cache, not a count.
+     * @return estimated cache evictions for each collection by name
+     */
+    Map<String, Long> getCollectionCacheEstimatedEvictions();
+
+    /**
+     * See {@link CollectionStatistics#getResidentEntries()}.
+     * @return number of items held in memory for each collection by name
+     */
+    Map<String, Long> getCollectionResidentEntries();
+
+    /**
+     * See {@link CollectionStatistics#getResidentBytes()}.
+     * @return bytes held in memory for each collection by name
+     */
+    Map<String, Long> getCollectionResidentBytes();
+
+    /**
+     * See {@link CollectionStatistics#getEstimatedBytes()}.
+     * @return estimated bytes for each collection by name
+     */
+    Map<String, Long> getCollectionEstimatedBytes();
+
+    /**
+     * See {@link CacheStatistics#getHits()}.
+     * @return results cache hits
+     */
+    long getResultsCacheHits();
+
+    /**
+     * See {@link CacheStatistics#getMisses()}.
+     * @return results cache misses
+     */
+    long getResultsCacheMisses();
+
+    /**
+     * See {@link CacheStatistics#getCapacity()}.
+     * @return results cache capacity
+     */
+    int getResultsCacheCapacity();
+
+    /**
+     * See {@link CacheStatistics#getHitRatio()}.
+     * @return results cache hit ratio
+     */
+    double getResultsCacheHitRatio();
+}
@@ -0,0 +1,159 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EngineHashSwig;
+import fiftyone.pipeline.core.data.EvidenceKeyFilter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable state of a {@link DeviceDetectionHashEngine} for a single data
+ * set. This is the native engine along with everything derived from it on
+ * the Java side. A refresh builds a complete new state, then replaces the
+ * current one in a single write, so processing never sees a mix of two data
+ * sets.
+ * <p>
+ * The native engine is reference counted. The engine holds one reference
+ * while the state is current, and each user of the native engine holds
+ * another until it is finished, which for native results is when the
+ * device data is closed. When a state is replaced its reference is
+ * released, and the native engine is freed once the last user releases
+ * theirs.
+ */
+final class EngineState {
+
+    private final EngineHashSwig engine;
+
+    /**
+     * Direct buffer the native engine reads the data set from in place, or
+     * null if the native engine owns its data. Held so that the buffer is
+     * not freed while the native engine is still using it.
+     */
+    private final ByteBuffer data;
+
+    private final EvidenceKeyFilter evidenceKeyFilter;
+
+    private final EvidenceMarshaller evidenceMarshaller;
+
+    private final MetaDataSnapshot metaData;
+
+    private final RequiredPropertyIndex propertyIndex;
+
+    private final ResultsCache resultsCache;
+
+    /**
+     * Number of references to the native engine. Once this reaches zero the
+     * native engine has been freed and the state can no longer be used.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /**
+     * Construct a new instance.
+     * @param engine native engine for the data set
+     * @param data direct buffer the native engine reads from, or null
+     * @param evidenceKeyFilter filter built from the native engine's
+     *                          evidence keys
+     * @param evidenceMarshaller marshaller built from the native engine's
+     *                           evidence keys
+     * @param metaData meta data snapshot for the data set
+     * @param propertyIndex required property index for the data set
+     * @param resultsCache cache for results from the data set, or null if
+     *                     results are not cached
+     */
+    EngineState(
+        EngineHashSwig engine,
+        ByteBuffer data,
+        EvidenceKeyFilter evidenceKeyFilter,
+        EvidenceMarshaller evidenceMarshaller,
+        MetaDataSnapshot metaData,
+        RequiredPropertyIndex propertyIndex,
+        ResultsCache resultsCache) {
+        this.engine = engine;
+        this.data = data;
+        this.evidenceKeyFilter = evidenceKeyFilter;
+        this.evidenceMarshaller = evidenceMarshaller;
+        this.metaData = metaData;
+        this.propertyIndex = propertyIndex;
+        this.resultsCache = resultsCache;
+    }
+
+    /**
+     * Add a reference to the native engine. Every successful call must be
+     * matched by a call to {@link #release()}.
+     * @return true if the reference was added, or false if the native engine
+     * has already been freed
+     */
+    boolean acquire() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (references.compareAndSet(count, count + 1) == false);
+        return true;
+    }
+
+    /**
+     * Release a reference to the native engine, freeing it if this was the
+     * last one.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            engine.delete();
+            if (resultsCache != null) {
+                resultsCache.close();
+            }
+        }
+    }
+
+    EngineHashSwig getEngine() {
+        return engine;
+    }
+
+    ByteBuffer getData() {
+        return data;
+    }
+
+    EvidenceKeyFilter getEvidenceKeyFilter() {
+        return evidenceKeyFilter;
+    }
+
+    EvidenceMarshaller getEvidenceMarshaller() {
+        return evidenceMarshaller;
+    }
+
+    MetaDataSnapshot getMetaData() {
+        return metaData;
+    }
+
+    RequiredPropertyIndex getPropertyIndex() {
+        return propertyIndex;
+    }
+
+    ResultsCache getResultsCache() {
+        return resultsCache;
+    }
+}
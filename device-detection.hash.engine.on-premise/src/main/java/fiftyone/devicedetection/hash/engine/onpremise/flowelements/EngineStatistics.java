@@ -0,0 +1,191 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runtime statistics for the data set currently used by a
+ * {@link DeviceDetectionHashEngine}. Returned by
+ * {@link DeviceDetectionHashEngine#getStatistics()}, and also available as
+ * JMX attributes when enabled with
+ * {@link DeviceDetectionHashEngineBuilder#setJmxStatistics(boolean)}.
+ * <p>
+ * Memory is estimated in the same way as
+ * {@link DeviceDetectionHashEngineBuilder#estimateMemory(String)}, from the
+ * collection configurations and the sizes in the header of the data set
+ * which is loaded. The counters and items in memory for each collection are
+ * read from the native collections, see {@link CollectionStatistics}.
+ */
+public class EngineStatistics {
+
+    private final long dataFileSize;
+
+    private final MemoryEstimate memoryEstimate;
+
+    private final Map<HashCollection, CollectionStatistics> collections;
+
+    private final CacheStatistics resultsCache;
+
+    /**
+     * Construct a new instance.
+     * @param dataFileSize size of the data file in bytes
+     * @param memoryEstimate estimate from the native collection
+     *                       configurations and data set header
+     * @param caches cache hits, misses and capacity followed by the number
+     *               of items and bytes loaded for each collection, in the
+     *               order of {@link HashCollection}, as returned by the
+     *               native engine
+     * @param resultsCache statistics for the results cache, or null if
+     *                     results are not cached
+     */
+    EngineStatistics(
+        long dataFileSize,
+        MemoryEstimate memoryEstimate,
+        long[] caches,
+        CacheStatistics resultsCache) {
+        this.dataFileSize = dataFileSize;
+        this.memoryEstimate = memoryEstimate;
+        this.resultsCache = resultsCache;
+        Map<HashCollection, CollectionStatistics> result =
+            new EnumMap<>(HashCollection.class);
+        for (Map.Entry<HashCollection, CollectionConfiguration> entry :
+            memoryEstimate.getCollections().entrySet()) {
+            HashCollection collection = entry.getKey();
+            result.put(collection, createCollection(
+                collection,
+                entry.getValue(),
+                caches,
+                collection.ordinal() * 5));
+        }
+        this.collections = Collections.unmodifiableMap(result);
+    }
+
+    private CollectionStatistics createCollection(
+        HashCollection collection,
+        CollectionConfiguration configuration,
+        long[] caches,
+        int offset) {
+        long count = memoryEstimate.getCount(collection);
+        long hits = caches[offset];
+        long misses = caches[offset + 1];
+        long capacity = caches[offset + 2];
+        long cached = Math.min(misses, capacity);
+        long itemBytes = count == 0 ? 0 :
+            memoryEstimate.getSize(collection) / count;
+        return new CollectionStatistics(
+            collection,
+            configuration,
+            count,
+            hits,
+            misses,
+            Math.max(0, misses - capacity),
+            caches[offset + 3] + cached,
+            caches[offset + 4] + cached * itemBytes,
+            memoryEstimate.getEstimatedBytes(collection));
+    }
+
+    /**
+     * Get the size of the data file the data set was loaded from.
+     * @return size in bytes
+     */
+    public long getDataFileSize() {
+        return dataFileSize;
+    }
+
+    /**
+     * Get the memory estimate from the native collection configurations and
+     * the sizes in the data set header.
+     * @return memory estimate
+     */
+    public MemoryEstimate getMemoryEstimate() {
+        return memoryEstimate;
+    }
+
+    /**
+     * Get the statistics for every native collection.
+     * @return unmodifiable map of collection statistics
+     */
+    public Map<HashCollection, CollectionStatistics> getCollections() {
+        return collections;
+    }
+
+    /**
+     * Get the statistics for a native collection.
+     * @param collection collection to get
+     * @return collection statistics
+     */
+    public CollectionStatistics getCollection(HashCollection collection) {
+        return collections.get(collection);
+    }
+
+    /**
+     * Get the estimated number of bytes held in memory for the whole data
+     * set.
+     * @return estimated bytes
+     */
+    public long getEstimatedBytes() {
+        return memoryEstimate.getTotalBytes();
+    }
+
+    /**
+     * Get the number of bytes currently held in memory for the items of
+     * every collection. See {@link CollectionStatistics#getResidentBytes()}.
+     * @return bytes in memory
+     */
+    public long getResidentBytes() {
+        long total = 0;
+        for (CollectionStatistics collection : collections.values()) {
+            total += collection.getResidentBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Get the statistics for the results cache of the current data set.
+     * @return results cache statistics, or null if results are not cached
+     */
+    public CacheStatistics getResultsCache() {
+        return resultsCache;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (CollectionStatistics collection : collections.values()) {
+            builder.append(collection).append(String.format("%n"));
+        }
+        builder.append(String.format(
+            "Total: %d bytes in memory, about %d bytes (%d MB) when full, " +
+                "from a %d byte data file",
+            getResidentBytes(),
+            getEstimatedBytes(),
+            getEstimatedBytes() / (1024 * 1024),
+            dataFileSize));
+        if (resultsCache != null) {
+            builder.append(String.format("%nResults cache: %s", resultsCache));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,134 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Implementation of {@link DeviceDetectionHashEngineMXBean} which reads
+ * new statistics from the engine for every attribute.
+ */
+class EngineStatisticsBean implements DeviceDetectionHashEngineMXBean {
+
+    private static final CacheStatistics NO_CACHE =
+        new CacheStatistics(0, 0, 0);
+
+    private final DeviceDetectionHashEngine engine;
+
+    EngineStatisticsBean(DeviceDetectionHashEngine engine) {
+        this.engine = engine;
+    }
+
+    private CacheStatistics getResultsCache() {
+        CacheStatistics cache = engine.getStatistics().getResultsCache();
+        return cache == null ? NO_CACHE : cache;
+    }
+
+    private <T> Map<String, T> getCollections(
+        Function<CollectionStatistics, T> attribute) {
+        Map<String, T> result = new TreeMap<>();
+        for (CollectionStatistics collection :
+            engine.getStatistics().getCollections().values()) {
+            result.put(
+                collection.getCollection().name(),
+                attribute.apply(collection));
+        }
+        return result;
+    }
+
+    @Override
+    public long getDataFileSize() {
+        return engine.getStatistics().getDataFileSize();
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return engine.getStatistics().getEstimatedBytes();
+    }
+
+    @Override
+    public long getResidentBytes() {
+        return engine.getStatistics().getResidentBytes();
+    }
+
+    @Override
+    public Map<String, String> getCollectionConfigurations() {
+        return getCollections(c -> c.getConfiguration().toString());
+    }
+
+    @Override
+    public Map<String, Long> getCollectionCounts() {
+        return getCollections(CollectionStatistics::getCount);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionCacheHits() {
+        return getCollections(CollectionStatistics::getHits);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionCacheMisses() {
+        return getCollections(CollectionStatistics::getMisses);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionCacheEstimatedEvictions() {
+        return getCollections(CollectionStatistics::getEstimatedEvictions);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionResidentEntries() {
+        return getCollections(CollectionStatistics::getResidentEntries);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionResidentBytes() {
+        return getCollections(CollectionStatistics::getResidentBytes);
+    }
+
+    @Override
+    public Map<String, Long> getCollectionEstimatedBytes() {
+        return getCollections(CollectionStatistics::getEstimatedBytes);
+    }
+
+    @Override
+    public long getResultsCacheHits() {
+        return getResultsCache().getHits();
+    }
+
+    @Override
+    public long getResultsCacheMisses() {
+        return getResultsCache().getMisses();
+    }
+
+    @Override
+    public int getResultsCacheCapacity() {
+        return getResultsCache().getCapacity();
+    }
+
+    @Override
+    public double getResultsCacheHitRatio() {
+        return getResultsCache().getHitRatio();
+    }
+}
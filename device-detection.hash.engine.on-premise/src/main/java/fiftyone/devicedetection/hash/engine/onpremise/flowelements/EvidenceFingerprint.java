@@ -0,0 +1,66 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of the evidence used by the native engine, used as the key
+ * for cached results. Values are held in the order of the engine's evidence
+ * keys, so two instances are equal if they contain the same value for each
+ * key regardless of the case of the keys or the order they were added in.
+ */
+final class EvidenceFingerprint {
+
+    private final String[] values;
+    private final int hashCode;
+
+    /**
+     * Construct a new instance.
+     * @param values value for each engine evidence key, or null if the
+     *               evidence does not contain the key. The array must not be
+     *               modified after it is passed in
+     */
+    EvidenceFingerprint(String[] values) {
+        this.values = values;
+        this.hashCode = Arrays.hashCode(values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof EvidenceFingerprint == false) {
+            return false;
+        }
+        EvidenceFingerprint other = (EvidenceFingerprint) obj;
+        return hashCode == other.hashCode &&
+            Arrays.equals(values, other.values);
+    }
+}
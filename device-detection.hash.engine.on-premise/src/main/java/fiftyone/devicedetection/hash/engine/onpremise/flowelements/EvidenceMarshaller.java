@@ -0,0 +1,314 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.Swig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EvidenceBaseSwig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the evidence relevant to the native engine into a native evidence
+ * instance. This is created once each time the engine's data is loaded, and
+ * is then used for every call to
+ * {@link DeviceDetectionHashEngine#processEngine}.
+ * <p>
+ * The key bytes passed to the native layer are encoded once on construction.
+ * Evidence keys are found using a case-insensitive perfect hash table rather
+ * than comparing against every engine key, and values are encoded into a
+ * buffer which is reused by the calling thread. The native layer copies both
+ * the key and the value, so the buffer can safely be reused as soon as the
+ * call returns.
+ */
+final class EvidenceMarshaller {
+
+    /**
+     * Initial size of the value buffer for each thread.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * Largest buffer which will be retained for a thread. Values longer than
+     * this are encoded into a new array instead.
+     */
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of seeds to try for each table size before the size is doubled.
+     */
+    private static final int SEEDS_PER_SIZE = 256;
+
+    /**
+     * Largest table which will be considered when searching for a perfect
+     * hash.
+     */
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+
+    /**
+     * Value buffer for the current thread. This is shared by all instances as
+     * the buffer is only used for the duration of a single call to the native
+     * layer.
+     */
+    private static final ThreadLocal<byte[]> valueBuffer =
+        new ThreadLocal<byte[]>() {
+            @Override
+            protected byte[] initialValue() {
+                return new byte[INITIAL_BUFFER_SIZE];
+            }
+        };
+
+    /**
+     * Engine evidence keys in the order they were returned by the engine, with
+     * any case-insensitive duplicates removed.
+     */
+    private final List<String> keys;
+
+    /**
+     * Engine evidence keys indexed by hash table slot. Empty slots are null.
+     */
+    private final String[] table;
+
+    /**
+     * Null terminated key bytes indexed by hash table slot.
+     */
+    private final byte[][] tableBytes;
+
+    /**
+     * Index of the key in {@link #keys} indexed by hash table slot.
+     */
+    private final int[] tableIndexes;
+
+    /**
+     * Seed used for the hash function which results in no collisions.
+     */
+    private final int seed;
+
+    /**
+     * Construct a new instance for the evidence keys provided.
+     * @param engineKeys evidence keys used by the native engine
+     */
+    EvidenceMarshaller(List<String> engineKeys) {
+        List<String> unique = new ArrayList<>(engineKeys.size());
+        for (String key : engineKeys) {
+            boolean exists = false;
+            for (String existing : unique) {
+                if (existing.equalsIgnoreCase(key)) {
+                    exists = true;
+                    break;
+                }
+            }
+            if (exists == false) {
+                unique.add(key);
+            }
+        }
+        this.keys = Collections.unmodifiableList(unique);
+
+        int[] hashes = new int[unique.size()];
+        int size = Integer.highestOneBit(Math.max(unique.size(), 1) * 2) << 1;
+        int foundSeed = -1;
+        while (foundSeed < 0) {
+            if (size > MAX_TABLE_SIZE) {
+                throw new IllegalStateException(
+                    "Could not find a perfect hash for the " +
+                    unique.size() + " evidence keys provided.");
+            }
+            for (int s = 0; s < SEEDS_PER_SIZE && foundSeed < 0; s++) {
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = hash(unique.get(i), s);
+                }
+                if (isPerfect(hashes, size - 1)) {
+                    foundSeed = s;
+                }
+            }
+            if (foundSeed < 0) {
+                size <<= 1;
+            }
+        }
+
+        this.seed = foundSeed;
+        this.table = new String[size];
+        this.tableBytes = new byte[size][];
+        this.tableIndexes = new int[size];
+        for (int i = 0; i < unique.size(); i++) {
+            int slot = hashes[i] & (size - 1);
+            table[slot] = unique.get(i);
+            tableBytes[slot] = Swig.asBytes(unique.get(i));
+            tableIndexes[slot] = i;
+        }
+    }
+
+    /**
+     * Get the evidence keys used by the native engine.
+     * @return unmodifiable list of evidence keys
+     */
+    List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Get the index in {@link #getKeys()} of the evidence key provided. The
+     * comparison is case-insensitive.
+     * @param key evidence key to find
+     * @return index of the key, or -1 if the engine does not use the key
+     */
+    int indexOf(String key) {
+        int slot = slotOf(key);
+        return slot < 0 ? -1 : tableIndexes[slot];
+    }
+
+    /**
+     * Add all the evidence which is used by the native engine to the native
+     * evidence instance.
+     * @param evidence all evidence from the flow data
+     * @param target native evidence to add the relevant evidence to
+     */
+    void marshal(Map<String, Object> evidence, EvidenceBaseSwig target) {
+        for (Map.Entry<String, Object> evidenceItem : evidence.entrySet()) {
+            int slot = slotOf(evidenceItem.getKey());
+            if (slot >= 0) {
+                target.addFromBytes(
+                    tableBytes[slot],
+                    encode(evidenceItem.getValue().toString()));
+            }
+        }
+    }
+
+    /**
+     * Get the canonical fingerprint of the evidence which is used by the
+     * native engine. Evidence which is not used by the engine does not affect
+     * the fingerprint.
+     * @param evidence all evidence from the flow data
+     * @return fingerprint of the relevant evidence
+     */
+    EvidenceFingerprint fingerprint(Map<String, Object> evidence) {
+        String[] values = new String[keys.size()];
+        for (Map.Entry<String, Object> evidenceItem : evidence.entrySet()) {
+            int slot = slotOf(evidenceItem.getKey());
+            if (slot >= 0) {
+                values[tableIndexes[slot]] =
+                    evidenceItem.getValue().toString();
+            }
+        }
+        return new EvidenceFingerprint(values);
+    }
+
+    /**
+     * Get the hash table slot containing the key provided.
+     * @param key evidence key to find
+     * @return slot index, or -1 if the key is not in the table
+     */
+    private int slotOf(String key) {
+        int slot = hash(key, seed) & (table.length - 1);
+        String candidate = table[slot];
+        return candidate != null && candidate.equalsIgnoreCase(key) ?
+            slot : -1;
+    }
+
+    /**
+     * Encode the value as null terminated ASCII in the same way as
+     * {@link Swig#asBytes(String)}. The array returned is the buffer for the
+     * current thread, so is only valid until the next call from the same
+     * thread.
+     * @param value string to encode
+     * @return null terminated bytes, possibly followed by unused space
+     */
+    static byte[] encode(String value) {
+        int length = value.length();
+        byte[] buffer = valueBuffer.get();
+        if (buffer.length <= length) {
+            if (length >= MAX_BUFFER_SIZE) {
+                return Swig.asBytes(value);
+            }
+            buffer = new byte[Integer.highestOneBit(length) << 1];
+            valueBuffer.set(buffer);
+        }
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else {
+                // Characters which can't be represented in ASCII are replaced
+                // in the same way as String.getBytes, where a surrogate pair
+                // becomes a single replacement character.
+                if (Character.isHighSurrogate(c) &&
+                    i + 1 < length &&
+                    Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+                buffer[position++] = '?';
+            }
+        }
+        buffer[position] = 0;
+        return buffer;
+    }
+
+    /**
+     * Case-insensitive FNV-1a hash of the string.
+     * @param key string to hash
+     * @param seed seed to combine with the hash
+     * @return hash code
+     */
+    private static int hash(String key, int seed) {
+        int hash = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= fold(key.charAt(i));
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Fold the case of the character so that characters which are equal
+     * according to {@link String#equalsIgnoreCase(String)} are the same.
+     * @param c character to fold
+     * @return folded character
+     */
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Check whether all the hashes fall into different slots.
+     * @param hashes hash codes to check
+     * @param mask mask for the table size
+     * @return true if there are no collisions
+     */
+    private static boolean isPerfect(int[] hashes, int mask) {
+        boolean[] used = new boolean[mask + 1];
+        for (int hash : hashes) {
+            int slot = hash & mask;
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EvidenceDeviceDetectionSwig;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of native evidence instances owned by a
+ * {@link DeviceDetectionHashEngine}. Evidence instances are cleared and
+ * returned to the pool after use rather than being freed, so processing does
+ * not need to allocate a new native evidence map and Java proxy for every
+ * request.
+ * <p>
+ * Instances are not tied to a thread, so the pool can be closed with the
+ * engine and all the native memory freed.
+ */
+final class EvidencePool implements AutoCloseable {
+
+    /**
+     * Idle evidence instances available to be taken.
+     */
+    private final ConcurrentLinkedQueue<EvidenceDeviceDetectionSwig> idle =
+        new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of instances in {@link #idle}. This is tracked separately as the
+     * size of the queue is not a constant time operation.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger(0);
+
+    /**
+     * Maximum number of idle instances to retain.
+     */
+    private final int capacity;
+
+    /**
+     * True if the pool has been closed and should no longer retain instances.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Construct a new instance.
+     * @param capacity maximum number of idle instances to retain
+     */
+    EvidencePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Take an empty evidence instance from the pool, or create a new one if
+     * none are idle. The instance must be returned using
+     * {@link #release(EvidenceDeviceDetectionSwig)}.
+     * @return empty native evidence
+     */
+    EvidenceDeviceDetectionSwig take() {
+        EvidenceDeviceDetectionSwig evidence = idle.poll();
+        if (evidence != null) {
+            idleCount.decrementAndGet();
+            return evidence;
+        }
+        return new EvidenceDeviceDetectionSwig();
+    }
+
+    /**
+     * Clear the evidence instance and return it to the pool. If the pool is
+     * full or closed, then the native memory is freed instead.
+     * @param evidence instance taken from {@link #take()}
+     */
+    void release(EvidenceDeviceDetectionSwig evidence) {
+        evidence.clear();
+        if (closed == false && idleCount.incrementAndGet() <= capacity) {
+            idle.offer(evidence);
+            if (closed) {
+                // The pool was closed while the instance was being returned,
+                // so make sure it does not get left behind.
+                drain();
+            }
+        } else {
+            if (closed == false) {
+                idleCount.decrementAndGet();
+            }
+            evidence.delete();
+        }
+    }
+
+    /**
+     * Get the number of idle instances currently held by the pool.
+     * @return idle instances
+     */
+    int getIdleCount() {
+        return idleCount.get();
+    }
+
+    /**
+     * Free all idle instances and stop retaining any which are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        EvidenceDeviceDetectionSwig evidence;
+        while ((evidence = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            evidence.delete();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.CollectionConfigSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ConfigHashSwig;
+
+/**
+ * The collections in a Hash data set which can be configured independently
+ * using {@link DeviceDetectionHashEngineBuilder#setCollectionConfiguration(
+ * HashCollection, CollectionConfiguration)}.
+ */
+public enum HashCollection {
+    /**
+     * Strings used for property names, values and descriptions. Read when
+     * property values are returned.
+     */
+    Strings,
+    /**
+     * Property definitions.
+     */
+    Properties,
+    /**
+     * Values which properties can have. Read when property values are
+     * returned.
+     */
+    Values,
+    /**
+     * Profiles, each of which is a list of values for a component.
+     */
+    Profiles,
+    /**
+     * Graph nodes which are traversed while processing evidence.
+     */
+    Nodes,
+    /**
+     * Offsets of the profiles in the profiles collection, ordered by profile
+     * id.
+     */
+    ProfileOffsets;
+
+    /**
+     * Get the native configuration of this collection. The returned
+     * instance refers to the configuration held by the native config, so
+     * changes to it apply to the native config. It must be deleted by the
+     * caller.
+     * @param config native configuration
+     * @return native collection configuration
+     */
+    CollectionConfigSwig get(ConfigHashSwig config) {
+        switch (this) {
+            case Strings:
+                return config.getStrings();
+            case Properties:
+                return config.getProperties();
+            case Values:
+                return config.getValues();
+            case Profiles:
+                return config.getProfiles();
+            case Nodes:
+                return config.getNodes();
+            case ProfileOffsets:
+                return config.getProfileOffsets();
+            default:
+                throw new IllegalArgumentException(
+                    "The collection '" + name() + "' is not recognised.");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimate of the native memory used by a Hash data set with a given
+ * configuration of its collections. Returned by
+ * {@link DeviceDetectionHashEngineBuilder#estimateMemory(String)} and
+ * {@link EngineStatistics#getMemoryEstimate()}.
+ * <p>
+ * The number of items in each collection, and the number of bytes it takes
+ * in the data file, are read from the data set header. A collection which is
+ * entirely loaded takes its size in the data file. A partially loaded
+ * collection takes the same share of that size as the share of its items
+ * which are loaded. A cache takes the average size of an item in the
+ * collection, plus the size of a native cache entry, for each item it can
+ * hold.
+ */
+public final class MemoryEstimate {
+
+    /**
+     * Approximate size of the native node which holds each cached item,
+     * excluding the item itself.
+     */
+    static final long CACHE_ENTRY_BYTES = 64;
+
+    private final long dataFileSize;
+    private final boolean allInMemory;
+    private final Map<HashCollection, CollectionConfiguration> collections;
+
+    /**
+     * Number of items and number of bytes in the data file of each
+     * collection, in the order of {@link HashCollection}.
+     */
+    private final long[] sizes;
+
+    /**
+     * Construct a new instance.
+     * @param dataFileSize size of the data file in bytes
+     * @param allInMemory true if the whole data set is loaded into memory
+     *                    regardless of the collection configurations
+     * @param collections configuration of every collection
+     * @param sizes number of items followed by the number of bytes in the
+     *              data file for each collection, in the order of
+     *              {@link HashCollection}, as returned by the native engine
+     */
+    MemoryEstimate(
+        long dataFileSize,
+        boolean allInMemory,
+        Map<HashCollection, CollectionConfiguration> collections,
+        long[] sizes) {
+        if (sizes.length < HashCollection.values().length * 2) {
+            throw new IllegalArgumentException(
+                "There must be a count and size for every collection.");
+        }
+        this.dataFileSize = dataFileSize;
+        this.allInMemory = allInMemory;
+        this.collections = Collections.unmodifiableMap(
+            new EnumMap<>(collections));
+        this.sizes = sizes.clone();
+    }
+
+    /**
+     * Get the configuration of every collection the estimate is for.
+     * @return unmodifiable map of collection configurations
+     */
+    public Map<HashCollection, CollectionConfiguration> getCollections() {
+        return collections;
+    }
+
+    /**
+     * Get whether the whole data set is loaded into memory, in which case
+     * the collection configurations are not used.
+     * @return true if the whole data set is in memory
+     */
+    public boolean isAllInMemory() {
+        return allInMemory;
+    }
+
+    /**
+     * Get the number of items in the collection, from the data set header.
+     * @param collection collection to get
+     * @return number of items
+     */
+    public long getCount(HashCollection collection) {
+        return sizes[collection.ordinal() * 2];
+    }
+
+    /**
+     * Get the number of bytes the collection takes in the data file, from
+     * the data set header.
+     * @param collection collection to get
+     * @return bytes in the data file
+     */
+    public long getSize(HashCollection collection) {
+        return sizes[collection.ordinal() * 2 + 1];
+    }
+
+    /**
+     * Get the estimated number of bytes held in memory for the collection.
+     * @param collection collection to estimate
+     * @return estimated bytes
+     */
+    public long getEstimatedBytes(HashCollection collection) {
+        long size = getSize(collection);
+        CollectionConfiguration configuration = collections.get(collection);
+        if (allInMemory || configuration.isFullyLoaded()) {
+            return size;
+        }
+        long count = getCount(collection);
+        if (count == 0) {
+            return 0;
+        }
+        long loaded = Math.min(configuration.getLoaded(), count);
+        long cached = Math.min(configuration.getCapacity(), count - loaded);
+        return size * loaded / count +
+            cached * (size / count + CACHE_ENTRY_BYTES);
+    }
+
+    /**
+     * Get the estimated number of bytes held in memory for the whole data
+     * set.
+     * @return estimated bytes
+     */
+    public long getTotalBytes() {
+        if (allInMemory) {
+            return dataFileSize;
+        }
+        long total = 0;
+        for (HashCollection collection : collections.keySet()) {
+            total += getEstimatedBytes(collection);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (allInMemory) {
+            builder.append("Entire data set in memory");
+        } else {
+            for (Map.Entry<HashCollection, CollectionConfiguration> entry :
+                collections.entrySet()) {
+                builder.append(String.format(
+                    "%s: %s, %d of %d bytes%n",
+                    entry.getKey(),
+                    entry.getValue(),
+                    getEstimatedBytes(entry.getKey()),
+                    getSize(entry.getKey())));
+            }
+            builder.append("Total");
+        }
+        builder.append(String.format(
+            ": about %d bytes (%d MB)",
+            getTotalBytes(),
+            getTotalBytes() / (1024 * 1024)));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,381 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.data.ComponentMetaDataHash;
+import fiftyone.devicedetection.hash.engine.onpremise.data.PropertyMetaDataHash;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.*;
+import fiftyone.pipeline.engines.fiftyone.data.ComponentMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable on-heap copy of the meta data in a native {@link MetaDataSwig}
+ * instance. The properties and components are copied in full, while values
+ * and profiles, of which there can be hundreds of thousands, are indexed so
+ * that a key can be resolved to a position in the native collection without
+ * a native key lookup. Keys which are not in the data set are answered
+ * without going to the native layer at all.
+ * <p>
+ * A new snapshot is created each time the data set is refreshed, and
+ * replaces the previous one in a single write. Readers which still hold the
+ * previous snapshot continue to see consistent meta data.
+ */
+final class MetaDataSnapshot {
+
+    /**
+     * Number of native items read by each task when indexing values and
+     * profiles in parallel.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final List<FiftyOneAspectPropertyMetaData> properties;
+
+    private final Map<String, FiftyOneAspectPropertyMetaData> propertiesByName;
+
+    private final List<ComponentMetaData> components;
+
+    /**
+     * Index of each value in the native values collection, keyed on property
+     * name and then value name.
+     */
+    private final Map<String, Map<String, Integer>> valueIndexes;
+
+    /**
+     * Profile ids in ascending order.
+     */
+    private final int[] profileIds;
+
+    /**
+     * Index in the native profiles collection of the profile with the id at
+     * the same position in {@link #profileIds}.
+     */
+    private final int[] profileIndexes;
+
+    private final ProfileValueIndex profileValues;
+
+    private final int valueCount;
+
+    /**
+     * Reverse index from values to profiles, or null if it was not
+     * requested.
+     */
+    private final ProfileQueryIndex profileQueries;
+
+    private MetaDataSnapshot(
+        DeviceDetectionHashEngine engine,
+        MetaDataSwig metaData,
+        ByteBuffer data,
+        List<FiftyOneAspectPropertyMetaData> metricProperties,
+        boolean indexProfiles,
+        boolean indexProfileValues) {
+        List<FiftyOneAspectPropertyMetaData> allProperties = new ArrayList<>();
+        Map<String, FiftyOneAspectPropertyMetaData> byName =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        PropertyMetaDataCollectionSwig nativeProperties =
+            metaData.getProperties();
+        try {
+            long size = nativeProperties.getSize();
+            for (long i = 0; i < size; i++) {
+                FiftyOneAspectPropertyMetaData property =
+                    new PropertyMetaDataHash(
+                        engine,
+                        nativeProperties.getByIndex(i),
+                        data);
+                allProperties.add(property);
+                byName.put(property.getName(), property);
+            }
+        } finally {
+            nativeProperties.delete();
+        }
+        for (FiftyOneAspectPropertyMetaData property : metricProperties) {
+            allProperties.add(property);
+            byName.put(property.getName(), property);
+        }
+        this.properties = Collections.unmodifiableList(allProperties);
+        this.propertiesByName = byName;
+
+        List<ComponentMetaData> allComponents = new ArrayList<>();
+        ComponentMetaDataCollectionSwig nativeComponents =
+            metaData.getComponents();
+        try {
+            long size = nativeComponents.getSize();
+            for (long i = 0; i < size; i++) {
+                allComponents.add(new ComponentMetaDataHash(
+                    engine,
+                    nativeComponents.getByIndex(i),
+                    data));
+            }
+        } finally {
+            nativeComponents.delete();
+        }
+        this.components = Collections.unmodifiableList(allComponents);
+
+        ValueMetaDataCollectionSwig values = metaData.getValues();
+        try {
+            this.valueCount = (int) values.getSize();
+        } finally {
+            values.delete();
+        }
+        this.valueIndexes = indexValues(metaData, valueCount, byName);
+
+        long[] profiles = indexProfiles(metaData);
+        this.profileIds = new int[profiles.length];
+        this.profileIndexes = new int[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            profileIds[i] = (int) (profiles[i] >>> 32);
+            profileIndexes[i] = (int) profiles[i];
+        }
+        this.profileValues = ProfileValueIndex.build(
+            metaData,
+            this.properties,
+            profiles.length,
+            indexProfileValues);
+
+        this.profileQueries = indexProfiles ?
+            ProfileQueryIndex.build(metaData, this) :
+            null;
+    }
+
+    /**
+     * Copy the meta data from the native engine. Values, profiles and, if
+     * requested, the values of each profile are indexed in parallel.
+     * @param engine the engine the meta data relates to
+     * @param metaData native meta data to copy
+     * @param data buffer the native data set reads from in place, or null
+     *             if it owns its data
+     * @param metricProperties properties which are not in the data set, but
+     *                         are added by the engine
+     * @param indexProfiles true if the {@link ProfileQueryIndex} should be
+     *                      built
+     * @param indexProfileValues true if the values of every profile should
+     *                           be indexed in the {@link ProfileValueIndex}
+     * @return new snapshot
+     */
+    static MetaDataSnapshot create(
+        DeviceDetectionHashEngine engine,
+        MetaDataSwig metaData,
+        ByteBuffer data,
+        List<FiftyOneAspectPropertyMetaData> metricProperties,
+        boolean indexProfiles,
+        boolean indexProfileValues) {
+        return new MetaDataSnapshot(
+            engine,
+            metaData,
+            data,
+            metricProperties,
+            indexProfiles,
+            indexProfileValues);
+    }
+
+    /**
+     * Read the name and property of every value in the native collection,
+     * then group the value indexes by property. Each parallel task uses its
+     * own native collection.
+     */
+    private static Map<String, Map<String, Integer>> indexValues(
+        final MetaDataSwig metaData,
+        final int size,
+        Map<String, FiftyOneAspectPropertyMetaData> properties) {
+        final String[] names = new String[size];
+        final String[] propertyNames = new String[size];
+        IntStream.range(0, chunks(size)).parallel().forEach(chunk -> {
+            ValueMetaDataCollectionSwig collection = metaData.getValues();
+            try {
+                int end = Math.min(size, (chunk + 1) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    ValueMetaDataSwig value = collection.getByIndex(i);
+                    PropertyMetaDataSwig property =
+                        metaData.getPropertyForValue(value);
+                    names[i] = value.getName();
+                    propertyNames[i] = property.getName();
+                    property.delete();
+                    value.delete();
+                }
+            } finally {
+                collection.delete();
+            }
+        });
+
+        Map<String, Map<String, Integer>> result =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < size; i++) {
+            // Share the name instance with the property meta data rather
+            // than holding a copy for every value.
+            FiftyOneAspectPropertyMetaData property =
+                properties.get(propertyNames[i]);
+            String propertyName = property == null ?
+                propertyNames[i] : property.getName();
+            Map<String, Integer> propertyValues = result.get(propertyName);
+            if (propertyValues == null) {
+                propertyValues = new HashMap<>();
+                result.put(propertyName, propertyValues);
+            }
+            propertyValues.put(names[i], i);
+        }
+        return result;
+    }
+
+    /**
+     * Read the id of every profile in the native collection.
+     * @return profile id in the upper 32 bits and index in the lower 32 bits
+     * of each entry, sorted by profile id
+     */
+    private static long[] indexProfiles(final MetaDataSwig metaData) {
+        ProfileMetaDataCollectionSwig profiles = metaData.getProfiles();
+        final int size;
+        try {
+            size = (int) profiles.getSize();
+        } finally {
+            profiles.delete();
+        }
+        final long[] result = new long[size];
+        IntStream.range(0, chunks(size)).parallel().forEach(chunk -> {
+            ProfileMetaDataCollectionSwig collection = metaData.getProfiles();
+            try {
+                int end = Math.min(size, (chunk + 1) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    ProfileMetaDataSwig profile = collection.getByIndex(i);
+                    result[i] = (profile.getProfileId() << 32) | i;
+                    profile.delete();
+                }
+            } finally {
+                collection.delete();
+            }
+        });
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int chunks(int size) {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Get all properties, including the match metric properties.
+     * @return unmodifiable list of properties
+     */
+    List<FiftyOneAspectPropertyMetaData> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Get the property with the name provided, ignoring case.
+     * @param name name of the property
+     * @return property, or null if there is no property with the name
+     */
+    FiftyOneAspectPropertyMetaData getProperty(String name) {
+        return propertiesByName.get(name);
+    }
+
+    /**
+     * Get all components.
+     * @return unmodifiable list of components
+     */
+    List<ComponentMetaData> getComponents() {
+        return components;
+    }
+
+    /**
+     * Get the index in the native values collection of the value provided.
+     * @param propertyName name of the property the value belongs to
+     * @param valueName name of the value
+     * @return index of the value, or -1 if there is no such value
+     */
+    int getValueIndex(String propertyName, String valueName) {
+        Map<String, Integer> values = valueIndexes.get(propertyName);
+        if (values != null) {
+            Integer index = values.get(valueName);
+            if (index != null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index in the native profiles collection of the profile
+     * provided.
+     * @param profileId id of the profile
+     * @return index of the profile, or -1 if there is no such profile
+     */
+    int getProfileIndex(int profileId) {
+        int i = Arrays.binarySearch(profileIds, profileId);
+        return i < 0 ? -1 : profileIndexes[i];
+    }
+
+    /**
+     * Get the number of profiles in the data set.
+     * @return number of profiles
+     */
+    int getProfileCount() {
+        return profileIds.length;
+    }
+
+    /**
+     * Get the id of the profile at a position in the ascending list of
+     * profile ids.
+     * @param position position of the profile
+     * @return profile id
+     */
+    int getProfileId(int position) {
+        return profileIds[position];
+    }
+
+    /**
+     * Get the index in the native profiles collection of the profile at a
+     * position in the ascending list of profile ids.
+     * @param position position of the profile
+     * @return index of the profile
+     */
+    int getProfileIndexAt(int position) {
+        return profileIndexes[position];
+    }
+
+    /**
+     * Get the number of values in the data set.
+     * @return number of values
+     */
+    int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Get the reverse index from values to profiles.
+     * @return profile query index, or null if it was not built
+     */
+    ProfileQueryIndex getProfileQueries() {
+        return profileQueries;
+    }
+
+    /**
+     * Get the index of each profile's values by property.
+     * @return profile value index
+     */
+    ProfileValueIndex getProfileValues() {
+        return profileValues;
+    }
+}
@@ -0,0 +1,290 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.*;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Reverse index from each value in the data set to the profiles which have
+ * that value. Profiles are identified by their position in the ascending
+ * list of profile ids held by the {@link MetaDataSnapshot}, so a set of
+ * positions is also a set of profile ids in ascending order.
+ * <p>
+ * Most values belong to a handful of profiles, while a few, such as
+ * IsMobile=True, belong to a large fraction of them. Each value's profiles
+ * are therefore stored either as a sorted array of positions or, when that
+ * would be larger, as a {@link BitSet}. This keeps the index no larger
+ * than an array of every profile value.
+ */
+final class ProfileQueryIndex {
+
+    /**
+     * Number of profiles read by each task when building the index in
+     * parallel.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Profiles for each value, indexed by the value's index in the native
+     * values collection. Each entry is an int[] or a BitSet, or null if no
+     * profile has the value.
+     */
+    private final Object[] profiles;
+
+    /**
+     * Number of profiles in each entry of {@link #profiles}.
+     */
+    private final int[] cardinalities;
+
+    /**
+     * Component id of each property, used to group query conditions.
+     */
+    private final Map<String, Byte> components =
+        new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private ProfileQueryIndex(
+        final MetaDataSwig metaData,
+        final MetaDataSnapshot snapshot) {
+        // Read the components from the native meta data being indexed, as
+        // the engine may still be using a previous data set.
+        PropertyMetaDataCollectionSwig properties = metaData.getProperties();
+        try {
+            long size = properties.getSize();
+            for (long i = 0; i < size; i++) {
+                PropertyMetaDataSwig property = properties.getByIndex(i);
+                ComponentMetaDataSwig component =
+                    metaData.getComponentForProperty(property);
+                components.put(property.getName(), component.getComponentId());
+                component.delete();
+                property.delete();
+            }
+        } finally {
+            properties.delete();
+        }
+
+        final int profileCount = snapshot.getProfileCount();
+        final long[][] chunkPairs = new long[chunks(profileCount)][];
+        IntStream.range(0, chunkPairs.length).parallel().forEach(chunk -> {
+            chunkPairs[chunk] = readChunk(metaData, snapshot, chunk);
+        });
+
+        int valueCount = snapshot.getValueCount();
+        this.cardinalities = new int[valueCount];
+        for (long[] pairs : chunkPairs) {
+            for (long pair : pairs) {
+                cardinalities[(int) (pair >>> 32)]++;
+            }
+        }
+        // A bitmap takes one bit per profile, and an array 32 bits per
+        // profile with the value.
+        this.profiles = new Object[valueCount];
+        int[] counts = new int[valueCount];
+        for (int v = 0; v < valueCount; v++) {
+            if (cardinalities[v] > profileCount / 32) {
+                profiles[v] = new BitSet(profileCount);
+            } else if (cardinalities[v] > 0) {
+                profiles[v] = new int[cardinalities[v]];
+            }
+        }
+        for (long[] pairs : chunkPairs) {
+            for (long pair : pairs) {
+                int v = (int) (pair >>> 32);
+                int position = (int) pair;
+                if (profiles[v] instanceof BitSet) {
+                    ((BitSet) profiles[v]).set(position);
+                } else {
+                    ((int[]) profiles[v])[counts[v]++] = position;
+                }
+            }
+        }
+        for (Object positions : profiles) {
+            if (positions instanceof int[]) {
+                Arrays.sort((int[]) positions);
+            }
+        }
+    }
+
+    /**
+     * Build the index by reading the values of every profile from the native
+     * layer. This reads every profile value in the data set, so can take
+     * some time for larger data files. Profiles are read in parallel.
+     * @param metaData native meta data to read
+     * @param snapshot snapshot the index is for, which provides the profile
+     *                 positions and value indexes
+     * @return new index
+     */
+    static ProfileQueryIndex build(
+        MetaDataSwig metaData,
+        MetaDataSnapshot snapshot) {
+        return new ProfileQueryIndex(metaData, snapshot);
+    }
+
+    /**
+     * Read the values of the profiles in the chunk.
+     * @return value index in the upper 32 bits and profile position in the
+     * lower 32 bits of each entry
+     */
+    private static long[] readChunk(
+        MetaDataSwig metaData,
+        MetaDataSnapshot snapshot,
+        int chunk) {
+        long[] pairs = new long[CHUNK_SIZE * 16];
+        int count = 0;
+        int end = Math.min(snapshot.getProfileCount(), (chunk + 1) * CHUNK_SIZE);
+        ProfileMetaDataCollectionSwig collection = metaData.getProfiles();
+        try {
+            for (int position = chunk * CHUNK_SIZE; position < end; position++) {
+                ProfileMetaDataSwig profile = collection.getByIndex(
+                    snapshot.getProfileIndexAt(position));
+                ValueMetaDataCollectionSwig values =
+                    metaData.getValuesForProfile(profile);
+                try {
+                    long size = values.getSize();
+                    for (long i = 0; i < size; i++) {
+                        ValueMetaDataSwig value = values.getByIndex(i);
+                        PropertyMetaDataSwig property =
+                            metaData.getPropertyForValue(value);
+                        int v = snapshot.getValueIndex(
+                            property.getName(),
+                            value.getName());
+                        property.delete();
+                        value.delete();
+                        if (v >= 0) {
+                            if (count == pairs.length) {
+                                pairs = Arrays.copyOf(pairs, count * 2);
+                            }
+                            pairs[count++] = ((long) v << 32) | position;
+                        }
+                    }
+                } finally {
+                    values.delete();
+                    profile.delete();
+                }
+            }
+        } finally {
+            collection.delete();
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    private static int chunks(int size) {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Find the positions of the profiles matching the conditions, grouped
+     * by component. See {@link DeviceDetectionHashEngine#findProfileIds(Map)}.
+     * @param snapshot snapshot the index was built for
+     * @param conditions property names mapped to the required value
+     * @return component ids mapped to the positions, in ascending order, of
+     * the profiles of that component which meet all of its conditions
+     * @throws IllegalArgumentException if a condition is on a property which
+     * is not in the data set
+     */
+    Map<Byte, int[]> find(
+        MetaDataSnapshot snapshot,
+        Map<String, String> conditions) {
+        // A profile only has values for the properties of its component, so
+        // the conditions are grouped by component and each group is
+        // answered separately.
+        Map<Byte, List<Integer>> groups = new TreeMap<>();
+        for (Map.Entry<String, String> condition : conditions.entrySet()) {
+            Byte component = components.get(condition.getKey());
+            if (component == null) {
+                throw new IllegalArgumentException(String.format(
+                    "Property '%s' is not present in the data set.",
+                    condition.getKey()));
+            }
+            List<Integer> group = groups.get(component);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(component, group);
+            }
+            group.add(snapshot.getValueIndex(
+                condition.getKey(),
+                condition.getValue()));
+        }
+        Map<Byte, int[]> result = new TreeMap<>();
+        for (Map.Entry<Byte, List<Integer>> group : groups.entrySet()) {
+            BitSet matches = new BitSet();
+            addAll(group.getValue(), matches);
+            int[] positions = new int[matches.cardinality()];
+            int i = 0;
+            for (int p = matches.nextSetBit(0);
+                 p >= 0;
+                 p = matches.nextSetBit(p + 1)) {
+                positions[i++] = p;
+            }
+            result.put(group.getKey(), positions);
+        }
+        return result;
+    }
+
+    /**
+     * Add the positions of profiles which have all the values to the result.
+     */
+    private void addAll(List<Integer> values, BitSet result) {
+        for (int v : values) {
+            if (v < 0 || profiles[v] == null) {
+                // An unknown value means no profile can match.
+                return;
+            }
+        }
+        // Start from the smallest set and check membership of the others.
+        Collections.sort(values, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Integer.compare(cardinalities[o1], cardinalities[o2]);
+            }
+        });
+        Object smallest = profiles[values.get(0)];
+        if (smallest instanceof BitSet) {
+            // Every set is at least as large, so all are bitmaps.
+            BitSet matches = (BitSet) ((BitSet) smallest).clone();
+            for (int i = 1; i < values.size(); i++) {
+                matches.and((BitSet) profiles[values.get(i)]);
+            }
+            result.or(matches);
+            return;
+        }
+        for (int position : (int[]) smallest) {
+            boolean match = true;
+            for (int i = 1; match && i < values.size(); i++) {
+                match = contains(profiles[values.get(i)], position);
+            }
+            if (match) {
+                result.set(position);
+            }
+        }
+    }
+
+    private static boolean contains(Object positions, int position) {
+        if (positions instanceof BitSet) {
+            return ((BitSet) positions).get(position);
+        }
+        return Arrays.binarySearch((int[]) positions, position) >= 0;
+    }
+}
@@ -0,0 +1,254 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.MetaDataSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ProfileMetaDataCollectionSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ProfileMetaDataSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.PropertyMetaDataSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ValueMetaDataCollectionSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ValueMetaDataSwig;
+import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Index from a profile and property to the positions of the property's
+ * values in the profile's native values collection.
+ * <p>
+ * The values of a profile are grouped by property, so the index for a
+ * profile is a short list of ranges. Each range is stored as three integers:
+ * the property ordinal, the first position and the position after the last.
+ * Ranges are sorted by property ordinal, so the ranges for a property are
+ * found with a binary search. A property whose values are not contiguous
+ * has more than one range.
+ * <p>
+ * Building the ranges reads every value of every profile, so it is only done
+ * when enabled with
+ * {@link DeviceDetectionHashEngineBuilder#setProfileValueIndex(boolean)}.
+ * The ranges for every profile are then built in parallel when the data set
+ * is loaded, and are not changed afterwards, so the size of the index is
+ * fixed by the number of profile values in the data set. Otherwise only the
+ * property ordinals are held, and the ranges for a profile are found from
+ * the native layer each time they are needed.
+ */
+final class ProfileValueIndex {
+
+    /**
+     * Number of profiles read by each task when building the index in
+     * parallel.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final int[] NO_RANGES = new int[0];
+
+    private final Map<String, Integer> ordinals =
+        new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Ranges for each profile, indexed by the profile's index in the native
+     * profiles collection, or null if the profiles are not indexed.
+     */
+    private final int[][] ranges;
+
+    private ProfileValueIndex(
+        final MetaDataSwig metaData,
+        List<FiftyOneAspectPropertyMetaData> properties,
+        final int profileCount,
+        boolean indexProfiles) {
+        for (int i = 0; i < properties.size(); i++) {
+            ordinals.put(properties.get(i).getName(), i);
+        }
+        if (indexProfiles == false) {
+            this.ranges = null;
+            return;
+        }
+        this.ranges = new int[profileCount][];
+        IntStream.range(0, chunks(profileCount)).parallel().forEach(chunk -> {
+            ProfileMetaDataCollectionSwig collection = metaData.getProfiles();
+            try {
+                int end = Math.min(profileCount, (chunk + 1) * CHUNK_SIZE);
+                for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                    ProfileMetaDataSwig profile = collection.getByIndex(i);
+                    ValueMetaDataCollectionSwig values =
+                        metaData.getValuesForProfile(profile);
+                    try {
+                        ranges[i] = build(metaData, values);
+                    } finally {
+                        values.delete();
+                        profile.delete();
+                    }
+                }
+            } finally {
+                collection.delete();
+            }
+        });
+    }
+
+    /**
+     * Build the index. If the profiles are indexed, the values of every
+     * profile are read from the native layer. This reads every profile
+     * value in the data set, so can take some time for larger data files.
+     * Profiles are read in parallel.
+     * @param metaData native meta data to read
+     * @param properties all properties in the data set, in the order which
+     *                   defines their ordinals
+     * @param profileCount number of profiles in the native collection
+     * @param indexProfiles true if the ranges of every profile should be
+     *                      built, or false if only the property ordinals
+     *                      are needed
+     * @return new index
+     */
+    static ProfileValueIndex build(
+        MetaDataSwig metaData,
+        List<FiftyOneAspectPropertyMetaData> properties,
+        int profileCount,
+        boolean indexProfiles) {
+        return new ProfileValueIndex(
+            metaData,
+            properties,
+            profileCount,
+            indexProfiles);
+    }
+
+    /**
+     * Get whether the ranges of every profile were built, so that
+     * {@link #getPositions(int, int)} can be used.
+     * @return true if the profiles are indexed
+     */
+    boolean isProfilesIndexed() {
+        return ranges != null;
+    }
+
+    private static int chunks(int size) {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Get the ordinal of the property provided.
+     * @param propertyName name of the property, ignoring case
+     * @return property ordinal, or -1 if there is no such property
+     */
+    int getOrdinal(String propertyName) {
+        Integer ordinal = ordinals.get(propertyName);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Get the ranges of positions in the values collection of the profile
+     * at the index provided which hold values for the property provided.
+     * @param profileIndex index of the profile in the native profiles
+     *                     collection, see
+     *                     {@link MetaDataSnapshot#getProfileIndex(int)}
+     * @param ordinal property ordinal from {@link #getOrdinal(String)}
+     * @return pairs of first and last (exclusive) positions, which is empty
+     * if the profile has no values for the property
+     */
+    int[] getPositions(int profileIndex, int ordinal) {
+        return find(ranges[profileIndex], ordinal);
+    }
+
+    /**
+     * Get the ranges of positions in a values collection which hold values
+     * for the property provided, reading the collection from the native
+     * layer. This is used when the profiles are not indexed, or for profiles
+     * which are not in the index, and the result is not kept.
+     * @param ordinal property ordinal from {@link #getOrdinal(String)}
+     * @param metaData native meta data used to find the property of each
+     *                 value
+     * @param values the profile's native values collection
+     * @return pairs of first and last (exclusive) positions, which is empty
+     * if the profile has no values for the property
+     */
+    int[] getPositions(
+        int ordinal,
+        MetaDataSwig metaData,
+        ValueMetaDataCollectionSwig values) {
+        return find(build(metaData, values), ordinal);
+    }
+
+    private int[] build(
+        MetaDataSwig metaData,
+        ValueMetaDataCollectionSwig values) {
+        long size = values.getSize();
+        if (size == 0) {
+            return NO_RANGES;
+        }
+        List<int[]> runs = new ArrayList<>();
+        int[] run = null;
+        for (int i = 0; i < size; i++) {
+            ValueMetaDataSwig value = values.getByIndex(i);
+            PropertyMetaDataSwig property = metaData.getPropertyForValue(value);
+            int ordinal = getOrdinal(property.getName());
+            property.delete();
+            value.delete();
+            if (run != null && run[0] == ordinal) {
+                run[2] = i + 1;
+            } else {
+                run = new int[]{ordinal, i, i + 1};
+                runs.add(run);
+            }
+        }
+        Collections.sort(runs, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                return Integer.compare(o1[0], o2[0]);
+            }
+        });
+        int[] result = new int[runs.size() * 3];
+        for (int i = 0; i < runs.size(); i++) {
+            System.arraycopy(runs.get(i), 0, result, i * 3, 3);
+        }
+        return result;
+    }
+
+    private static int[] find(int[] profileRanges, int ordinal) {
+        int low = 0;
+        int high = profileRanges.length / 3 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrdinal = profileRanges[mid * 3];
+            if (midOrdinal < ordinal) {
+                low = mid + 1;
+            } else if (midOrdinal > ordinal || (mid > 0 &&
+                profileRanges[(mid - 1) * 3] == ordinal)) {
+                high = mid - 1;
+            } else {
+                low = mid;
+                break;
+            }
+        }
+        int count = 0;
+        for (int i = low; i * 3 < profileRanges.length &&
+            profileRanges[i * 3] == ordinal; i++) {
+            count++;
+        }
+        int[] result = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            result[i * 2] = profileRanges[(low + i) * 3 + 1];
+            result[i * 2 + 1] = profileRanges[(low + i) * 3 + 2];
+        }
+        return result;
+    }
+}
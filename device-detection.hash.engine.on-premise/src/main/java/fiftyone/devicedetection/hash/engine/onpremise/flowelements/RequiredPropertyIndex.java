@@ -0,0 +1,153 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ResultsBaseSwig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps property names to the required property indexes used by the native
+ * results. The indexes are fixed for the lifetime of a native data set, so an
+ * instance is created each time the engine's data is loaded or refreshed.
+ */
+final class RequiredPropertyIndex {
+
+    /**
+     * Property names indexed by required property index.
+     */
+    private final String[] names;
+
+    /**
+     * Property value types indexed by required property index.
+     */
+    private final Class<?>[] types;
+
+    /**
+     * Index for each property name with the exact case used by the data set.
+     * Most requests use the exact name, so this avoids a case-insensitive
+     * comparison in the common case.
+     */
+    private final Map<String, Integer> exactIndexes;
+
+    /**
+     * Index for each property name ignoring case.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Construct a new instance.
+     * @param names property names in required property index order
+     * @param propertyTypes value types for each property. Properties which
+     *                      are not present are treated as {@link String}
+     */
+    RequiredPropertyIndex(
+        List<String> names,
+        Map<String, Class<?>> propertyTypes) {
+        Map<String, Class<?>> typesIgnoreCase =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        typesIgnoreCase.putAll(propertyTypes);
+        this.names = names.toArray(new String[0]);
+        this.types = new Class<?>[this.names.length];
+        this.exactIndexes = new HashMap<>();
+        this.indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < this.names.length; i++) {
+            Class<?> type = typesIgnoreCase.get(this.names[i]);
+            types[i] = type == null ? String.class : type;
+            exactIndexes.put(this.names[i], i);
+            indexes.put(this.names[i], i);
+        }
+    }
+
+    /**
+     * Create a new instance from the properties available in the native
+     * results.
+     * @param results native results from the data set to index
+     * @param propertyTypes value types for each property
+     * @return new instance
+     */
+    static RequiredPropertyIndex fromResults(
+        ResultsBaseSwig results,
+        Map<String, Class<?>> propertyTypes) {
+        int count = results.getAvailableProperties();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(results.getPropertyName(i));
+        }
+        return new RequiredPropertyIndex(names, propertyTypes);
+    }
+
+    /**
+     * Get the required property index for the property name. The comparison
+     * is case-insensitive.
+     * @param propertyName name of the property
+     * @return index, or -1 if the property is not available
+     */
+    int indexOf(String propertyName) {
+        Integer index = exactIndexes.get(propertyName);
+        if (index == null) {
+            index = indexes.get(propertyName);
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the number of properties available.
+     * @return number of properties
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Get the name of the property at the index.
+     * @param index required property index
+     * @return property name
+     */
+    String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get the value type of the property at the index.
+     * @param index required property index
+     * @return value type
+     */
+    Class<?> getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Get the names of all the properties available.
+     * @return unmodifiable list of property names
+     */
+    List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,107 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.caching.PutCache;
+import fiftyone.caching.PutCacheBuilder;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of results snapshots for a single data set. The cache itself is
+ * built by the {@link PutCacheBuilder} from the engine's cache
+ * configuration. This counts the requests which are found and not found in
+ * it, as the cache does not expose any counters of its own.
+ */
+final class ResultsCache {
+
+    private final Logger logger;
+
+    private final PutCache<EvidenceFingerprint, ResultsSnapshot> cache;
+
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong(0);
+
+    private final AtomicLong misses = new AtomicLong(0);
+
+    /**
+     * Construct a new instance.
+     * @param logger used to log failures closing the cache
+     * @param builder builder for the underlying cache
+     * @param capacity maximum number of results in the cache
+     */
+    ResultsCache(Logger logger, PutCacheBuilder builder, int capacity) {
+        this.logger = logger;
+        this.cache = builder.build(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the results snapshot for the evidence.
+     * @param fingerprint fingerprint of the evidence
+     * @return snapshot, or null if the evidence is not in the cache
+     */
+    ResultsSnapshot get(EvidenceFingerprint fingerprint) {
+        ResultsSnapshot snapshot = cache.get(fingerprint);
+        if (snapshot == null) {
+            misses.incrementAndGet();
+        }
+        else {
+            hits.incrementAndGet();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Add the results snapshot for the evidence.
+     * @param fingerprint fingerprint of the evidence
+     * @param snapshot snapshot of the results
+     */
+    void put(EvidenceFingerprint fingerprint, ResultsSnapshot snapshot) {
+        cache.put(fingerprint, snapshot);
+    }
+
+    /**
+     * Read the current counters.
+     * @return statistics for the cache
+     */
+    CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.get(), misses.get(), capacity);
+    }
+
+    /**
+     * Close the underlying cache if it holds any resources. Called when the
+     * data set the results came from is freed.
+     */
+    void close() {
+        if (cache instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) cache).close();
+            } catch (Exception e) {
+                logger.warn("Failed to close the results cache.", e);
+            }
+        }
+    }
+}
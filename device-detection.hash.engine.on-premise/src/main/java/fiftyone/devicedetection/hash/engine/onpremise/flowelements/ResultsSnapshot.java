@@ -0,0 +1,308 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.Swig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.*;
+import fiftyone.pipeline.core.data.types.JavaScript;
+import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import fiftyone.pipeline.engines.data.AspectPropertyValueDefault;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of the values in a native {@link ResultsHashSwig} instance.
+ * All the values for the required properties, and the match metrics, are read
+ * from the native results when the snapshot is created. The native results
+ * can then be closed, and the snapshot shared between any number of
+ * {@link DeviceDataHashDefault} instances without going back to the native
+ * layer.
+ * <p>
+ * Values are stored in arrays indexed by the required property index from
+ * the {@link RequiredPropertyIndex} used to create the snapshot.
+ */
+final class ResultsSnapshot {
+
+    private final RequiredPropertyIndex index;
+
+    /**
+     * Raw values for each property, or null if there is no value.
+     */
+    private final List<String>[] values;
+
+    /**
+     * Values as returned by the native string getter for each property, or
+     * null if there is no value.
+     */
+    private final String[] strings;
+
+    /**
+     * Values as returned by the native typed getter for properties which are
+     * a boolean, integer or double. Null for other property types, or if
+     * there is no value.
+     */
+    private final Object[] typedValues;
+
+    /**
+     * Reason there is no value for each property, or null if there is a
+     * value.
+     */
+    private final String[] noValueMessages;
+
+    private final String deviceId;
+    private final int difference;
+    private final int drift;
+    private final int iterations;
+    private final int matchedNodes;
+    private final int method;
+    private final List<String> userAgents;
+
+    @SuppressWarnings("unchecked")
+    private ResultsSnapshot(ResultsHashSwig results, RequiredPropertyIndex index) {
+        this.index = index;
+        int count = index.size();
+        this.values = new List[count];
+        this.strings = new String[count];
+        this.typedValues = new Object[count];
+        this.noValueMessages = new String[count];
+        for (int i = 0; i < count; i++) {
+            copyValue(results, i);
+        }
+        this.deviceId = results.getDeviceId();
+        this.difference = results.getDifference();
+        this.drift = results.getDrift();
+        this.iterations = results.getIterations();
+        this.matchedNodes = results.getMatchedNodes();
+        this.method = results.getMethod();
+        List<String> matchedUserAgents = new ArrayList<>();
+        for (int i = 0; i < results.getUserAgents(); i++) {
+            String userAgent = results.getUserAgent(i);
+            if (matchedUserAgents.contains(userAgent) == false) {
+                matchedUserAgents.add(userAgent);
+            }
+        }
+        this.userAgents = Collections.unmodifiableList(matchedUserAgents);
+    }
+
+    /**
+     * Copy all the values from the native results. The native results are
+     * not closed, so can still be used by the caller.
+     * @param results native results to copy
+     * @param index required property index of the data set which produced the
+     *              results
+     * @return new snapshot
+     */
+    static ResultsSnapshot create(
+        ResultsHashSwig results,
+        RequiredPropertyIndex index) {
+        return new ResultsSnapshot(results, index);
+    }
+
+    private void copyValue(ResultsHashSwig results, int i) {
+        try (VectorStringValuesSwig value = results.getValues(i)) {
+            if (value.hasValue() == false) {
+                noValueMessages[i] = value.getNoValueMessage();
+                return;
+            }
+            try (VectorStringSwig vector = value.getValue()) {
+                values[i] = Collections.unmodifiableList(Swig.asList(vector));
+            }
+        }
+        try (StringValueSwig value = results.getValueAsString(i)) {
+            if (value.hasValue()) {
+                strings[i] = value.getValue();
+            }
+        }
+        Class<?> type = index.getType(i);
+        if (type.equals(Boolean.class)) {
+            try (BoolValueSwig value = results.getValueAsBool(i)) {
+                if (value.hasValue()) {
+                    typedValues[i] = value.getValue();
+                }
+            }
+        } else if (type.equals(Integer.class)) {
+            try (IntegerValueSwig value = results.getValueAsInteger(i)) {
+                if (value.hasValue()) {
+                    typedValues[i] = value.getValue();
+                }
+            }
+        } else if (type.equals(Double.class)) {
+            try (DoubleValueSwig value = results.getValueAsDouble(i)) {
+                if (value.hasValue()) {
+                    typedValues[i] = value.getValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the required property index used to create the snapshot.
+     * @return required property index
+     */
+    RequiredPropertyIndex getIndex() {
+        return index;
+    }
+
+    AspectPropertyValue<List<String>> getValues(int i) {
+        AspectPropertyValue<List<String>> result =
+            new AspectPropertyValueDefault<>();
+        if (values[i] != null) {
+            result.setValue(values[i]);
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    AspectPropertyValue<String> getValueAsString(int i) {
+        AspectPropertyValue<String> result = new AspectPropertyValueDefault<>();
+        if (strings[i] != null) {
+            result.setValue(strings[i]);
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    AspectPropertyValue<JavaScript> getValueAsJavaScript(int i) {
+        AspectPropertyValue<JavaScript> result =
+            new AspectPropertyValueDefault<>();
+        if (strings[i] != null) {
+            result.setValue(new JavaScript(strings[i]));
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    AspectPropertyValue<Boolean> getValueAsBool(int i) {
+        AspectPropertyValue<Boolean> result = new AspectPropertyValueDefault<>();
+        if (typedValues[i] instanceof Boolean) {
+            result.setValue((Boolean) typedValues[i]);
+        } else if (strings[i] != null) {
+            result.setValue(Boolean.parseBoolean(strings[i]));
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    AspectPropertyValue<Integer> getValueAsInteger(int i) {
+        AspectPropertyValue<Integer> result = new AspectPropertyValueDefault<>();
+        if (typedValues[i] instanceof Integer) {
+            result.setValue((Integer) typedValues[i]);
+        } else if (strings[i] != null) {
+            try {
+                result.setValue(Integer.parseInt(strings[i]));
+            } catch (NumberFormatException e) {
+                result.setNoValueMessage(
+                    "The value '" + strings[i] + "' is not an integer.");
+            }
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    AspectPropertyValue<Double> getValueAsDouble(int i) {
+        AspectPropertyValue<Double> result = new AspectPropertyValueDefault<>();
+        if (typedValues[i] instanceof Double) {
+            result.setValue((Double) typedValues[i]);
+        } else if (strings[i] != null) {
+            try {
+                result.setValue(Double.parseDouble(strings[i]));
+            } catch (NumberFormatException e) {
+                result.setNoValueMessage(
+                    "The value '" + strings[i] + "' is not a double.");
+            }
+        } else {
+            result.setNoValueMessage(noValueMessages[i]);
+        }
+        return result;
+    }
+
+    boolean getValueAsBool(int i, boolean defaultValue) {
+        if (typedValues[i] instanceof Boolean) {
+            return (Boolean) typedValues[i];
+        } else if (strings[i] != null) {
+            return Boolean.parseBoolean(strings[i]);
+        }
+        return defaultValue;
+    }
+
+    int getValueAsInteger(int i, int defaultValue) {
+        if (typedValues[i] instanceof Integer) {
+            return (Integer) typedValues[i];
+        } else if (strings[i] != null) {
+            try {
+                return Integer.parseInt(strings[i]);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    double getValueAsDouble(int i, double defaultValue) {
+        if (typedValues[i] instanceof Double) {
+            return (Double) typedValues[i];
+        } else if (strings[i] != null) {
+            try {
+                return Double.parseDouble(strings[i]);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    String getDeviceId() {
+        return deviceId;
+    }
+
+    int getDifference() {
+        return difference;
+    }
+
+    int getDrift() {
+        return drift;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    int getMatchedNodes() {
+        return matchedNodes;
+    }
+
+    int getMethod() {
+        return method;
+    }
+
+    List<String> getUserAgents() {
+        return userAgents;
+    }
+}
@@ -0,0 +1,317 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EvidenceDeviceDetectionSwig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ResultsHashSwig;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Corpus of evidence which is processed against a newly loaded data set
+ * before it starts serving requests. This fills the native collection
+ * caches used by the lower memory performance profiles, so the first real
+ * requests after a start or refresh do not pay for loading them.
+ * <p>
+ * The corpus is either provided directly, or read from a file each time it
+ * is used so that a recorded file of the most frequent evidence can be
+ * replaced between refreshes. Two file formats are supported:
+ * <ul>
+ *     <li>YAML (.yml or .yaml) containing one document of evidence key and
+ *     value pairs per record, as in the "20000 Evidence Records.yml"
+ *     file,</li>
+ *     <li>any other file is read as one User-Agent per line.</li>
+ * </ul>
+ */
+public class WarmUp {
+
+    /**
+     * Percentage of the corpus between progress log messages.
+     */
+    private static final int PROGRESS_PERCENT = 10;
+
+    private final List<Map<String, Object>> corpus;
+
+    private final File file;
+
+    private final int limit;
+
+    private final int threads;
+
+    /**
+     * Construct a new instance from evidence in memory.
+     * @param corpus evidence records to process, each a map of evidence key
+     *               to value
+     * @param threads number of threads to process the corpus with
+     */
+    public WarmUp(List<Map<String, String>> corpus, int threads) {
+        this(copy(corpus), null, Integer.MAX_VALUE, threads);
+    }
+
+    /**
+     * Construct a new instance which reads the corpus from a file each time
+     * it is used.
+     * @param file evidence or User-Agent file
+     * @param limit maximum number of records to read from the file
+     * @param threads number of threads to process the corpus with
+     */
+    public WarmUp(File file, int limit, int threads) {
+        this(null, file, limit, threads);
+    }
+
+    private WarmUp(
+        List<Map<String, Object>> corpus,
+        File file,
+        int limit,
+        int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                "The number of warm up threads must be at least 1.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException(
+                "The warm up record limit must be at least 1.");
+        }
+        this.corpus = corpus;
+        this.file = file;
+        this.limit = limit;
+        this.threads = threads;
+    }
+
+    private static List<Map<String, Object>> copy(
+        List<Map<String, String>> corpus) {
+        List<Map<String, Object>> result = new ArrayList<>(corpus.size());
+        for (Map<String, String> record : corpus) {
+            result.add(Collections.<String, Object>unmodifiableMap(
+                new HashMap<>(record)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Get the number of threads the corpus is processed with.
+     * @return number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Get the evidence to process, reading it from the file if there is one.
+     * @return evidence records
+     * @throws IOException if the file could not be read
+     */
+    List<Map<String, Object>> getCorpus() throws IOException {
+        if (corpus != null) {
+            return corpus;
+        }
+        String name = file.getName().toLowerCase();
+        return name.endsWith(".yml") || name.endsWith(".yaml") ?
+            readYaml(file, limit) :
+            readUserAgents(file, limit);
+    }
+
+    private static List<Map<String, Object>> readUserAgents(
+        File file,
+        int limit) throws IOException {
+        List<Map<String, Object>> result = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(
+            file.toPath(),
+            StandardCharsets.UTF_8)) {
+            String line;
+            while (result.size() < limit &&
+                (line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() == false) {
+                    result.add(Collections.<String, Object>singletonMap(
+                        "header.user-agent",
+                        line.trim()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read flat YAML documents of evidence. Only the subset of YAML used by
+     * evidence files is supported: documents separated by '---', each
+     * containing 'key: value' lines where the value may be quoted.
+     */
+    private static List<Map<String, Object>> readYaml(
+        File file,
+        int limit) throws IOException {
+        List<Map<String, Object>> result = new ArrayList<>();
+        Map<String, Object> record = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(
+            file.toPath(),
+            StandardCharsets.UTF_8)) {
+            String line;
+            while (result.size() < limit &&
+                (line = reader.readLine()) != null) {
+                if (line.startsWith("---") || line.startsWith("...")) {
+                    if (record.isEmpty() == false) {
+                        result.add(record);
+                        record = new HashMap<>();
+                    }
+                    continue;
+                }
+                int separator = line.indexOf(": ");
+                if (separator > 0 && line.startsWith("#") == false) {
+                    record.put(
+                        line.substring(0, separator).trim(),
+                        unquote(line.substring(separator + 2).trim()));
+                }
+            }
+        }
+        if (record.isEmpty() == false && result.size() < limit) {
+            result.add(record);
+        }
+        return result;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2) {
+            char first = value.charAt(0);
+            char last = value.charAt(value.length() - 1);
+            if (first == '\'' && last == '\'') {
+                return value.substring(1, value.length() - 1)
+                    .replace("''", "'");
+            }
+            if (first == '"' && last == '"') {
+                return value.substring(1, value.length() - 1)
+                    .replace("\\\"", "\"")
+                    .replace("\\\\", "\\");
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Process the corpus against the state, which is not yet serving
+     * requests. Failures are counted rather than thrown, as a warm up must
+     * never prevent a data set from being used.
+     * @param state state to warm up, which the caller holds a reference to
+     * @param pool pool to take native evidence instances from
+     * @param logger logger to report progress to
+     * @return timings of the warm up
+     * @throws IOException if the corpus file could not be read
+     */
+    WarmUpResult run(
+        final EngineState state,
+        final EvidencePool pool,
+        final Logger logger) throws IOException {
+        final List<Map<String, Object>> records = getCorpus();
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final int step = Math.max(1, records.size() * PROGRESS_PERCENT / 100);
+        final long start = System.nanoTime();
+        int threadCount = Math.min(threads, Math.max(1, records.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(
+            threadCount,
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(
+                        runnable,
+                        "51d-warm-up-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                workers.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        int i;
+                        while ((i = next.getAndIncrement()) < records.size()) {
+                            process(records.get(i), state, pool, failures);
+                            if ((i + 1) % step == 0) {
+                                logger.info(String.format(
+                                    "Warm up processed %d of %d records in " +
+                                        "%d ms.",
+                                    i + 1,
+                                    records.size(),
+                                    TimeUnit.NANOSECONDS.toMillis(
+                                        System.nanoTime() - start)));
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    next.set(records.size());
+                    break;
+                } catch (ExecutionException e) {
+                    logger.warn("Warm up thread failed.", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        WarmUpResult result = new WarmUpResult(
+            Math.min(next.get(), records.size()),
+            failures.get(),
+            threadCount,
+            System.nanoTime() - start);
+        logger.info("Warm up complete. " + result);
+        return result;
+    }
+
+    private static void process(
+        Map<String, Object> evidence,
+        EngineState state,
+        EvidencePool pool,
+        AtomicInteger failures) {
+        EvidenceDeviceDetectionSwig relevantEvidence = pool.take();
+        try {
+            state.getEvidenceMarshaller().marshal(evidence, relevantEvidence);
+            try (ResultsHashSwig results =
+                     state.getEngine().process(relevantEvidence)) {
+                // Read every required property so that the profile, value
+                // and string collections are all loaded.
+                results.getDeviceId();
+                for (int i = 0; i < state.getPropertyIndex().size(); i++) {
+                    results.getValues(i).close();
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        } finally {
+            pool.release(relevantEvidence);
+        }
+    }
+}
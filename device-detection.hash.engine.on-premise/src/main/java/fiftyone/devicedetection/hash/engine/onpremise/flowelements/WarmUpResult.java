@@ -0,0 +1,99 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings from a {@link WarmUp} of a data set.
+ */
+public class WarmUpResult {
+
+    private final int records;
+
+    private final int failures;
+
+    private final int threads;
+
+    private final long elapsedNanos;
+
+    WarmUpResult(int records, int failures, int threads, long elapsedNanos) {
+        this.records = records;
+        this.failures = failures;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the number of evidence records processed.
+     * @return number of records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Get the number of evidence records which failed to process.
+     * @return number of failures
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get the number of threads used.
+     * @return number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Get the time taken to process all the records.
+     * @return elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Get the average number of records processed per second across all
+     * threads.
+     * @return records per second
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ?
+            0 : records * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d records (%d failed) on %d threads in %d ms, %.0f per second.",
+            records,
+            failures,
+            threads,
+            getElapsedMillis(),
+            getRecordsPerSecond());
+    }
+}
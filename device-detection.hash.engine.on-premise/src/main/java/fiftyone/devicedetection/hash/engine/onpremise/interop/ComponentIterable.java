@@ -28,6 +28,9 @@ import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ComponentMeta
 import fiftyone.pipeline.engines.fiftyone.data.CollectionIterableBase;
 import fiftyone.pipeline.engines.fiftyone.data.ComponentMetaData;
 
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+
 /**
  * Class which adds the {@link Iterable} and {@link AutoCloseable} interfaces to
  * a native collection representing {@link ComponentMetaData}s.
@@ -40,21 +43,51 @@ public class ComponentIterable
     private final DeviceDetectionHashEngine engine;
 
     /**
-     * Create a new instance.
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Create a new instance for a data set which owns its data.
      * @param engine the engine which the meta data relates to
      * @param collection the native collection of components
      */
     public ComponentIterable(
         DeviceDetectionHashEngine engine,
         ComponentMetaDataCollectionSwig collection) {
+        this(engine, collection, null);
+    }
+
+    /**
+     * Create a new instance.
+     * @param engine the engine which the meta data relates to
+     * @param collection the native collection of components
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ComponentIterable(
+        DeviceDetectionHashEngine engine,
+        ComponentMetaDataCollectionSwig collection,
+        ByteBuffer data) {
         super(collection.getSize());
         this.engine = engine;
+        this.data = data;
         this.collection = collection;
     }
 
     @Override
     protected ComponentMetaData get(long index) {
-        return new ComponentMetaDataHash(engine, collection.getByIndex(index));
+        return new ComponentMetaDataHash(
+            engine,
+            collection.getByIndex(index),
+            data);
+    }
+
+    @Override
+    public Spliterator<ComponentMetaData> spliterator() {
+        return new IndexRangeSpliterator<>(this::get, collection.getSize());
     }
 
     @Override
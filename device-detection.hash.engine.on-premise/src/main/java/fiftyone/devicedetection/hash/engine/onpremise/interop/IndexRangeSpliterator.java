@@ -0,0 +1,105 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.interop;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * {@link Spliterator} over a range of indexes in a native collection. Each
+ * split takes half of the remaining range, so a parallel stream gives each
+ * fork-join worker its own contiguous block of the collection. Items are
+ * only read from the native collection as they are consumed.
+ * <p>
+ * The native collection must remain open until the traversal is complete.
+ * @param <T> type of item in the collection
+ */
+public class IndexRangeSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * Ranges smaller than this are not split, as the overhead of a new task
+     * outweighs reading the items in the current one.
+     */
+    private static final long MIN_SPLIT_SIZE = 64;
+
+    private final LongFunction<T> get;
+
+    private long index;
+
+    private final long fence;
+
+    /**
+     * Create a new instance covering the whole collection.
+     * @param get function returning the item at an index
+     * @param size number of items in the collection
+     */
+    public IndexRangeSpliterator(LongFunction<T> get, long size) {
+        this(get, 0, size);
+    }
+
+    private IndexRangeSpliterator(LongFunction<T> get, long origin, long fence) {
+        this.get = get;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index < fence) {
+            action.accept(get.apply(index++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        long i = index;
+        index = fence;
+        for (; i < fence; i++) {
+            action.accept(get.apply(i));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        long origin = index;
+        long mid = (origin + fence) >>> 1;
+        if (mid - origin < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        index = mid;
+        return new IndexRangeSpliterator<>(get, origin, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
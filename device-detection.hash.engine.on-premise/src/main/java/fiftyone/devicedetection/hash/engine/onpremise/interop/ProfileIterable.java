@@ -28,6 +28,9 @@ import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ProfileMetaDa
 import fiftyone.pipeline.engines.fiftyone.data.CollectionIterableBase;
 import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
 
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+
 /**
  * Class which adds the {@link Iterable} and {@link AutoCloseable} interfaces to
  * a native collection representing {@link ProfileMetaData}s.
@@ -40,21 +43,51 @@ public class ProfileIterable
     private final DeviceDetectionHashEngine engine;
 
     /**
-     * Create a new instance.
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Create a new instance for a data set which owns its data.
      * @param engine the engine which the meta data relates to
      * @param collection the native collection of profiles
      */
     public ProfileIterable(
             DeviceDetectionHashEngine engine,
             ProfileMetaDataCollectionSwig collection) {
+        this(engine, collection, null);
+    }
+
+    /**
+     * Create a new instance.
+     * @param engine the engine which the meta data relates to
+     * @param collection the native collection of profiles
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ProfileIterable(
+            DeviceDetectionHashEngine engine,
+            ProfileMetaDataCollectionSwig collection,
+            ByteBuffer data) {
         super(collection.getSize());
         this.engine = engine;
+        this.data = data;
         this.collection = collection;
     }
 
     @Override
     protected ProfileMetaData get(long index) {
-        return new ProfileMetaDataHash(engine, collection.getByIndex(index));
+        return new ProfileMetaDataHash(
+            engine,
+            collection.getByIndex(index),
+            data);
+    }
+
+    @Override
+    public Spliterator<ProfileMetaData> spliterator() {
+        return new IndexRangeSpliterator<>(this::get, collection.getSize());
     }
 
     @Override
@@ -28,7 +28,9 @@ import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.PropertyMetaD
 import fiftyone.pipeline.engines.fiftyone.data.CollectionIterableCachedBase;
 import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Spliterator;
 
 /**
  * Class which adds the {@link Iterable} and {@link AutoCloseable} interfaces to
@@ -42,7 +44,14 @@ public class PropertyIterable
     private final DeviceDetectionHashEngine engine;
 
     /**
-     * Create a new instance.
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Create a new instance for a data set which owns its data.
      * @param engine the engine which the meta data relates to
      * @param collection the native collection of properties
      */
@@ -50,14 +59,38 @@ public class PropertyIterable
         DeviceDetectionHashEngine engine,
         List<FiftyOneAspectPropertyMetaData> list,
         PropertyMetaDataCollectionSwig collection) {
+        this(engine, list, collection, null);
+    }
+
+    /**
+     * Create a new instance.
+     * @param engine the engine which the meta data relates to
+     * @param collection the native collection of properties
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public PropertyIterable(
+        DeviceDetectionHashEngine engine,
+        List<FiftyOneAspectPropertyMetaData> list,
+        PropertyMetaDataCollectionSwig collection,
+        ByteBuffer data) {
         super(list, collection.getSize());
         this.engine = engine;
+        this.data = data;
         this.collection = collection;
     }
 
     @Override
     protected FiftyOneAspectPropertyMetaData get(long index) {
-        return new PropertyMetaDataHash(engine, collection.getByIndex(index));
+        return new PropertyMetaDataHash(
+            engine,
+            collection.getByIndex(index),
+            data);
+    }
+
+    @Override
+    public Spliterator<FiftyOneAspectPropertyMetaData> spliterator() {
+        return new IndexRangeSpliterator<>(this::get, collection.getSize());
     }
 
     @Override
@@ -28,6 +28,9 @@ import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ValueMetaData
 import fiftyone.pipeline.engines.fiftyone.data.CollectionIterableBase;
 import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
 
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+
 /**
  * Class which adds the {@link Iterable} and {@link AutoCloseable} interfaces to
  * a native collection representing {@link ValueMetaData}s.
@@ -37,24 +40,54 @@ public class ValueIterable
 
     private final DeviceDetectionHashEngine engine;
 
+    /**
+     * Buffer the native data set reads from in place, or null if the data
+     * set owns its data. Held so that the buffer is not freed while the
+     * native source is still in use.
+     */
+    private final ByteBuffer data;
+
     private final ValueMetaDataCollectionSwig collection;
 
     /**
-     * Create a new instance.
+     * Create a new instance for a data set which owns its data.
      * @param engine the engine which the meta data relates to
      * @param collection the native collection of values
      */
     public ValueIterable(
             DeviceDetectionHashEngine engine,
             ValueMetaDataCollectionSwig collection) {
+        this(engine, collection, null);
+    }
+
+    /**
+     * Create a new instance.
+     * @param engine the engine which the meta data relates to
+     * @param collection the native collection of values
+     * @param data buffer the native data set reads from in place, or null
+     *             if the data set owns its data
+     */
+    public ValueIterable(
+            DeviceDetectionHashEngine engine,
+            ValueMetaDataCollectionSwig collection,
+            ByteBuffer data) {
         super(collection.getSize());
         this.engine = engine;
+        this.data = data;
         this.collection = collection;
     }
 
     @Override
     protected ValueMetaData get(long index) {
-        return new ValueMetaDataHash(engine, collection.getByIndex(index));
+        return new ValueMetaDataHash(
+            engine,
+            collection.getByIndex(index),
+            data);
+    }
+
+    @Override
+    public Spliterator<ValueMetaData> spliterator() {
+        return new IndexRangeSpliterator<>(this::get, collection.getSize());
     }
 
     @Override
@@ -132,4 +132,8 @@ public class ConfigHashSwig extends ConfigDeviceDetectionSwig {
     return DeviceDetectionHashEngineModuleJNI.ConfigHashSwig_getTraceRoute(swigCPtr, this);
   }
 
+  public boolean getAllInMemory() {
+    return DeviceDetectionHashEngineModule.Config_GetAllInMemory(this);
+  }
+
 }
@@ -37,4 +37,37 @@ public class DeviceDetectionHashEngineModule {
     return DeviceDetectionHashEngineModuleJNI.Results_ContainsProperty(ResultsBaseSwig.getCPtr(results), results, propertyName);
   }
 
+  public static void Engine_ProcessBatch(EngineHashSwig engine, long[] handles) {
+    DeviceDetectionHashEngineModuleJNI.Engine_ProcessBatch(EngineHashSwig.getCPtr(engine), engine, handles);
+  }
+
+  public static boolean Results_GetValueAsBoolOrDefault(ResultsBaseSwig results, int requiredPropertyIndex, boolean defaultValue) {
+    return DeviceDetectionHashEngineModuleJNI.Results_GetValueAsBoolOrDefault(ResultsBaseSwig.getCPtr(results), results, requiredPropertyIndex, defaultValue);
+  }
+
+  public static int Results_GetValueAsIntegerOrDefault(ResultsBaseSwig results, int requiredPropertyIndex, int defaultValue) {
+    return DeviceDetectionHashEngineModuleJNI.Results_GetValueAsIntegerOrDefault(ResultsBaseSwig.getCPtr(results), results, requiredPropertyIndex, defaultValue);
+  }
+
+  public static double Results_GetValueAsDoubleOrDefault(ResultsBaseSwig results, int requiredPropertyIndex, double defaultValue) {
+    return DeviceDetectionHashEngineModuleJNI.Results_GetValueAsDoubleOrDefault(ResultsBaseSwig.getCPtr(results), results, requiredPropertyIndex, defaultValue);
+  }
+
+  public static EngineHashSwig Engine_CreateFromBuffer(java.nio.ByteBuffer buffer, ConfigHashSwig config, RequiredPropertiesConfigSwig properties) {
+    long cPtr = DeviceDetectionHashEngineModuleJNI.Engine_CreateFromBuffer(buffer, ConfigHashSwig.getCPtr(config), config, RequiredPropertiesConfigSwig.getCPtr(properties), properties);
+    return (cPtr == 0) ? null : new EngineHashSwig(cPtr, true);
+  }
+
+  public static void Engine_GetCollectionSizes(EngineHashSwig engine, long[] sizes) {
+    DeviceDetectionHashEngineModuleJNI.Engine_GetCollectionSizes(EngineHashSwig.getCPtr(engine), engine, sizes);
+  }
+
+  public static boolean Config_GetAllInMemory(ConfigHashSwig config) {
+    return DeviceDetectionHashEngineModuleJNI.Config_GetAllInMemory(ConfigHashSwig.getCPtr(config), config);
+  }
+
+  public static void Engine_GetCollectionCaches(EngineHashSwig engine, long[] values) {
+    DeviceDetectionHashEngineModuleJNI.Engine_GetCollectionCaches(EngineHashSwig.getCPtr(engine), engine, values);
+  }
+
 }
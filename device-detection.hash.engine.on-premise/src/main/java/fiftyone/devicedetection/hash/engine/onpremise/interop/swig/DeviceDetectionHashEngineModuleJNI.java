@@ -270,6 +270,14 @@ public class DeviceDetectionHashEngineModuleJNI {
   public final static native long Results_GetValueAsInteger(long jarg1, ResultsBaseSwig jarg1_, byte[] jarg2);
   public final static native long Results_GetValueAsDouble(long jarg1, ResultsBaseSwig jarg1_, byte[] jarg2);
   public final static native boolean Results_ContainsProperty(long jarg1, ResultsBaseSwig jarg1_, byte[] jarg2);
+  public final static native void Engine_ProcessBatch(long jarg1, EngineHashSwig jarg1_, long[] jarg2);
+  public final static native boolean Results_GetValueAsBoolOrDefault(long jarg1, ResultsBaseSwig jarg1_, int jarg2, boolean jarg3);
+  public final static native int Results_GetValueAsIntegerOrDefault(long jarg1, ResultsBaseSwig jarg1_, int jarg2, int jarg3);
+  public final static native double Results_GetValueAsDoubleOrDefault(long jarg1, ResultsBaseSwig jarg1_, int jarg2, double jarg3);
+  public final static native long Engine_CreateFromBuffer(java.nio.ByteBuffer jarg1, long jarg3, ConfigHashSwig jarg3_, long jarg4, RequiredPropertiesConfigSwig jarg4_);
+  public final static native void Engine_GetCollectionSizes(long jarg1, EngineHashSwig jarg1_, long[] jarg2);
+  public final static native boolean Config_GetAllInMemory(long jarg1, ConfigHashSwig jarg1_);
+  public final static native void Engine_GetCollectionCaches(long jarg1, EngineHashSwig jarg1_, long[] jarg2);
 
   static {
     try {
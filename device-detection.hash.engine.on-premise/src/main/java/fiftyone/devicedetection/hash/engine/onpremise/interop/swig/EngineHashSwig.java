@@ -97,4 +97,35 @@ public class EngineHashSwig extends EngineDeviceDetectionSwig {
     return (cPtr == 0) ? null : new ResultsDeviceDetectionSwig(cPtr, true);
   }
 
+  public static EngineHashSwig fromBuffer(java.nio.ByteBuffer data, ConfigHashSwig config, RequiredPropertiesConfigSwig properties) {
+    if (data.isDirect() == false) {
+      throw new IllegalArgumentException("The data must be in a direct ByteBuffer.");
+    }
+    return DeviceDetectionHashEngineModule.Engine_CreateFromBuffer(data.slice(), config, properties);
+  }
+
+  public long[] getCollectionSizes() {
+    long[] sizes = new long[12];
+    DeviceDetectionHashEngineModule.Engine_GetCollectionSizes(this, sizes);
+    return sizes;
+  }
+  public long[] getCollectionCaches() {
+    long[] values = new long[30];
+    DeviceDetectionHashEngineModule.Engine_GetCollectionCaches(this, values);
+    return values;
+  }
+
+  public ResultsHashSwig[] processBatch(EvidenceDeviceDetectionSwig[] evidence) {
+    long[] handles = new long[evidence.length];
+    for (int i = 0; i < evidence.length; i++) {
+      handles[i] = EvidenceDeviceDetectionSwig.getCPtr(evidence[i]);
+    }
+    DeviceDetectionHashEngineModule.Engine_ProcessBatch(this, handles);
+    ResultsHashSwig[] results = new ResultsHashSwig[handles.length];
+    for (int i = 0; i < handles.length; i++) {
+      results[i] = (handles[i] == 0) ? null : new ResultsHashSwig(handles[i], true);
+    }
+    return results;
+  }
+
 }
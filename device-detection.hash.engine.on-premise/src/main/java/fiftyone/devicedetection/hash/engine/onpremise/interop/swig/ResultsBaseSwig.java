@@ -110,5 +110,14 @@ public class ResultsBaseSwig implements AutoCloseable {
   public boolean containsProperty(byte[] bytes) {
     return DeviceDetectionHashEngineModule.Results_ContainsProperty(this, bytes);
   }
+  public boolean getValueAsBool(int requiredPropertyIndex, boolean defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsBoolOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
+  public int getValueAsInteger(int requiredPropertyIndex, int defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsIntegerOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
+  public double getValueAsDouble(int requiredPropertyIndex, double defaultValue) {
+    return DeviceDetectionHashEngineModule.Results_GetValueAsDoubleOrDefault(this, requiredPropertyIndex, defaultValue);
+  }
 
 }
@@ -0,0 +1,121 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.data;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.IndexRangeSpliterator;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.fiftyone.data.CloseableIterable;
+import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class MetaDataStreamTests extends TestsBase {
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+    }
+
+    @After
+    public void cleanup() {
+        testCleanup();
+    }
+
+    /**
+     * Check that splitting covers every index exactly once and keeps the
+     * order of the collection.
+     */
+    @Test
+    public void MetaDataStream_Spliterator_Ranges() {
+        Spliterator<Long> spliterator =
+            new IndexRangeSpliterator<>(i -> i, 10000);
+        assertEquals(10000, spliterator.getExactSizeIfKnown());
+        Spliterator<Long> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(5000, prefix.estimateSize());
+        assertEquals(5000, spliterator.estimateSize());
+
+        List<Long> values = StreamSupport.stream(
+            new IndexRangeSpliterator<>(i -> i, 10000), true)
+            .collect(Collectors.toList());
+        assertEquals(10000, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, (long) values.get(i));
+        }
+    }
+
+    /**
+     * Check that a parallel stream of profiles returns the same profiles as
+     * iterating the collection.
+     */
+    @Test
+    public void MetaDataStream_Hash_Profiles() throws Exception {
+        Set<Integer> expected = new TreeSet<>();
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 getWrapper().getEngine().getProfiles()) {
+            for (ProfileMetaData profile : profiles) {
+                expected.add(profile.getProfileId());
+            }
+        }
+        try (Stream<ProfileMetaData> profiles =
+                 getWrapper().getEngine().streamProfiles(true)) {
+            Set<Integer> actual = profiles
+                .map(ProfileMetaData::getProfileId)
+                .collect(Collectors.toCollection(TreeSet::new));
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Check that a parallel stream of values returns the same number of
+     * values as a sequential one.
+     */
+    @Test
+    public void MetaDataStream_Hash_Values() {
+        long sequential;
+        try (Stream<ValueMetaData> values =
+                 getWrapper().getEngine().streamValues(false)) {
+            sequential = values.count();
+        }
+        try (Stream<ValueMetaData> values =
+                 getWrapper().getEngine().streamValues(true)) {
+            assertEquals(sequential, values
+                .filter(v -> v.getName() != null)
+                .count());
+        }
+        assertTrue(sequential > 0);
+    }
+}
@@ -0,0 +1,145 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.data;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngine;
+import fiftyone.devicedetection.hash.engine.onpremise.flowelements.DeviceDetectionHashEngineBuilder;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.fiftyone.data.CloseableIterable;
+import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProfileValuesTests extends TestsBase {
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+    }
+
+    @After
+    public void cleanup() {
+        testCleanup();
+    }
+
+    /**
+     * Check that the values returned for each property of a profile are the
+     * same as those found by walking all the values of the profile, and that
+     * each value can be found individually, when the profile values are not
+     * indexed.
+     */
+    @Test
+    public void ProfileValues_Hash_SameValues() throws Exception {
+        verifySample(getWrapper().getEngine());
+    }
+
+    /**
+     * Check that the values returned for each property of a profile are the
+     * same as those found by walking all the values of the profile when the
+     * profile values are indexed.
+     */
+    @Test
+    public void ProfileValues_Hash_Indexed() throws Exception {
+        try (DeviceDetectionHashEngine indexedEngine =
+                 new DeviceDetectionHashEngineBuilder(
+                     LoggerFactory.getILoggerFactory(), null)
+                     .setPerformanceProfile(
+                         Constants.PerformanceProfiles.HighPerformance)
+                     .setAutoUpdate(false)
+                     .setProfileValueIndex(true)
+                     .build(FileUtils.getHashFile().toString(), false)) {
+            verifySample(indexedEngine);
+        }
+    }
+
+    private static void verifySample(DeviceDetectionHashEngine engine)
+        throws Exception {
+        int i = 0;
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 engine.getProfiles()) {
+            for (ProfileMetaData profile : profiles) {
+                if (i % 100 == 0) {
+                    verify(profile);
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Check that a property which is not in the data set, or a value which
+     * the profile does not have, returns no values.
+     */
+    @Test
+    public void ProfileValues_Hash_Missing() throws Exception {
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 getWrapper().getEngine().getProfiles()) {
+            ProfileMetaData profile = profiles.iterator().next();
+            assertFalse(profile.getValues("NotARealProperty")
+                .iterator().hasNext());
+            assertNull(profile.getValue("NotARealProperty", "True"));
+            for (ValueMetaData value : profile.getValues()) {
+                assertNull(profile.getValue(
+                    value.getProperty().getName(),
+                    "NotARealValue"));
+                break;
+            }
+        }
+    }
+
+    private static void verify(ProfileMetaData profile) {
+        Map<String, List<ValueMetaData>> expected = new HashMap<>();
+        for (ValueMetaData value : profile.getValues()) {
+            String property = value.getProperty().getName();
+            if (expected.containsKey(property) == false) {
+                expected.put(property, new ArrayList<ValueMetaData>());
+            }
+            expected.get(property).add(value);
+        }
+        for (Map.Entry<String, List<ValueMetaData>> entry :
+            expected.entrySet()) {
+            List<ValueMetaData> actual = new ArrayList<>();
+            for (ValueMetaData value : profile.getValues(entry.getKey())) {
+                actual.add(value);
+            }
+            assertEquals(entry.getKey(), entry.getValue(), actual);
+            for (ValueMetaData value : entry.getValue()) {
+                assertEquals(
+                    value,
+                    profile.getValue(entry.getKey(), value.getName()));
+            }
+        }
+    }
+}
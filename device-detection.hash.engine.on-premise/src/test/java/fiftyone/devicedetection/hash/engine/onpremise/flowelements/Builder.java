@@ -28,6 +28,8 @@ import org.junit.Test;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.assertSame;
+
 public class Builder {
     protected static final ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
 
@@ -39,11 +41,19 @@ public class Builder {
     }
 
     /**
-     * Check that an exception is thrown when attempting to add a cache to the
-     * on-premise engine.
+     * Check that a results cache can be configured for the on-premise engine.
+     */
+    @Test
+    public void Builder_Cache() {
+        assertSame(builder, builder.setCache(new CacheConfiguration(1000)));
+    }
+
+    /**
+     * Check that an exception is thrown when attempting to add a cache with
+     * no capacity to the on-premise engine.
      */
-    @Test(expected = UnsupportedOperationException.class)
-    public void Builder_CacheDisabled() {
-        builder.setCache(new CacheConfiguration(1000));
+    @Test(expected = IllegalArgumentException.class)
+    public void Builder_CacheInvalidSize() {
+        builder.setCache(new CacheConfiguration(0));
     }
 }
@@ -22,12 +22,21 @@
 
 package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
 
+import fiftyone.caching.CacheBuilder;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants;
 import fiftyone.pipeline.engines.configuration.CacheConfiguration;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.*;
+
 public class BuilderTests {
     protected static final ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
 
@@ -39,11 +48,127 @@ public class BuilderTests {
     }
 
     /**
-     * Check that an exception is thrown when attempting to add a cache to the
-     * on-premise engine.
+     * Check that a results cache can be configured for the on-premise engine.
+     */
+    @Test
+    public void Builder_Cache() {
+        assertSame(builder, builder.setCache(new CacheConfiguration(1000)));
+    }
+
+    /**
+     * Check that an exception is thrown when attempting to add a cache with
+     * no capacity to the on-premise engine.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void Builder_CacheInvalidSize() {
+        builder.setCache(new CacheConfiguration(0));
+    }
+
+    /**
+     * Check that an exception is thrown when attempting to add a cache which
+     * values cannot be put into, as results are added after processing.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void Builder_CacheInvalidBuilder() {
+        builder.setCache(new CacheConfiguration(new CacheBuilder() {}, 1000));
+    }
+
+    /**
+     * Check that collection configurations replace those of the performance
+     * profile in the memory estimate, and that the estimate is based on the
+     * sizes in the data set header.
+     */
+    @Test
+    public void Builder_CollectionConfigurationEstimate() {
+        builder.setPerformanceProfile(Constants.PerformanceProfiles.LowMemory)
+            .setCollectionConfiguration(
+                HashCollection.Nodes,
+                CollectionConfiguration.loaded())
+            .setCollectionConfiguration(
+                HashCollection.Strings,
+                CollectionConfiguration.cached(1000));
+        MemoryEstimate estimate = builder.estimateMemory(
+            FileUtils.getHashFile().toString());
+
+        assertFalse(estimate.isAllInMemory());
+        assertEquals(
+            CollectionConfiguration.loaded(),
+            estimate.getCollections().get(HashCollection.Nodes));
+        assertTrue(estimate.getSize(HashCollection.Nodes) > 0);
+        assertTrue(
+            estimate.getSize(HashCollection.Nodes) <
+            FileUtils.getHashFile().length());
+        assertEquals(
+            estimate.getSize(HashCollection.Nodes),
+            estimate.getEstimatedBytes(HashCollection.Nodes));
+        long strings = estimate.getEstimatedBytes(HashCollection.Strings);
+        assertTrue(strings > 0);
+        assertTrue(strings <= 1000L * (
+            estimate.getSize(HashCollection.Strings) /
+                estimate.getCount(HashCollection.Strings) +
+            MemoryEstimate.CACHE_ENTRY_BYTES));
+        assertEquals(
+            HashCollection.values().length,
+            estimate.getCollections().size());
+        assertTrue(estimate.getTotalBytes() < FileUtils.getHashFile().length());
+    }
+
+    /**
+     * Check that the memory estimate for the MaxPerformance profile is the
+     * whole data file.
+     */
+    @Test
+    public void Builder_CollectionConfigurationMaxPerformance() {
+        builder.setPerformanceProfile(
+            Constants.PerformanceProfiles.MaxPerformance);
+        MemoryEstimate estimate = builder.estimateMemory(
+            FileUtils.getHashFile().toString());
+        assertTrue(estimate.isAllInMemory());
+        assertEquals(
+            FileUtils.getHashFile().length(),
+            estimate.getTotalBytes());
+    }
+
+    /**
+     * Check that invalid collection configurations are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void Builder_CollectionConfigurationInvalid() {
+        new CollectionConfiguration(CollectionConfiguration.ALL, 100, 0);
+    }
+
+    /**
+     * Check that an engine with a mix of loaded and cached collections
+     * processes evidence.
      */
-    @Test(expected = UnsupportedOperationException.class)
-    public void Builder_CacheDisabled() {
-        builder.setCache(new CacheConfiguration(1000));
+    @Test
+    public void Builder_CollectionConfigurationBuild() throws Exception {
+        try (DeviceDetectionHashEngine engine = builder
+                 .setPerformanceProfile(
+                     Constants.PerformanceProfiles.HighPerformance)
+                 .setCollectionConfiguration(
+                     HashCollection.Strings,
+                     CollectionConfiguration.cached(5000))
+                 .setCollectionConfiguration(
+                     HashCollection.Values,
+                     CollectionConfiguration.cached(5000, 4))
+                 .setCollectionConfiguration(
+                     HashCollection.Profiles,
+                     CollectionConfiguration.onDemand())
+                 .setAutoUpdate(false)
+                 .build(FileUtils.getHashFile().toString(), false);
+             Pipeline pipeline = new PipelineBuilder(loggerFactory)
+                 .addFlowElement(engine)
+                 .build();
+             FlowData flowData = pipeline.createFlowData()) {
+            flowData.addEvidence(
+                "header.user-agent",
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 13_2 like Mac OS X) " +
+                    "AppleWebKit/605.1.15 (KHTML, like Gecko) " +
+                    "Version/13.0.3 Mobile/15E148 Safari/604.1");
+            flowData.process();
+            assertNotNull(
+                flowData.get(DeviceDataHash.class).getDeviceId().getValue());
+        }
     }
 }
@@ -0,0 +1,264 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.exceptions.PipelineConfigurationException;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.fiftyone.data.CloseableIterable;
+import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class DataBufferTests extends TestsBase {
+
+    private static final ILoggerFactory loggerFactory =
+        LoggerFactory.getILoggerFactory();
+
+    private DeviceDetectionHashEngine bufferEngine;
+    private Pipeline bufferPipeline;
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+        bufferEngine = new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setPerformanceProfile(Constants.PerformanceProfiles.MaxPerformance)
+            .setUpdateMatchedUserAgent(true)
+            .setAutoUpdate(false)
+            .build(map());
+        bufferPipeline = new PipelineBuilder(loggerFactory)
+            .addFlowElement(bufferEngine)
+            .build();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        bufferPipeline.close();
+        bufferEngine.close();
+        testCleanup();
+    }
+
+    private static MappedByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            FileUtils.getHashFile().toPath(),
+            StandardOpenOption.READ)) {
+            return channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                0,
+                channel.size());
+        }
+    }
+
+    /**
+     * Check that an engine reading the data set from a mapped buffer returns
+     * the same values as one reading it from the file.
+     */
+    @Test
+    public void DataBuffer_Hash_SameValues() throws Exception {
+        for (String userAgent : getUserAgents().getRandomUserAgents(20)) {
+            try (FlowData expected =
+                     getWrapper().getPipeline().createFlowData();
+                 FlowData actual = bufferPipeline.createFlowData()) {
+                expected.addEvidence("header.user-agent", userAgent);
+                expected.process();
+                actual.addEvidence("header.user-agent", userAgent);
+                actual.process();
+                ResultsCacheTests.compare(
+                    bufferEngine,
+                    expected.get(DeviceDataHash.class),
+                    actual.get(DeviceDataHash.class));
+            }
+        }
+    }
+
+    /**
+     * Check that the engine can be refreshed from a new buffer.
+     */
+    @Test
+    public void DataBuffer_Hash_Refresh() throws Exception {
+        String identifier =
+            bufferEngine.getDataFileMetaData().getIdentifier();
+        bufferEngine.refreshData(identifier, map());
+        String userAgent =
+            getUserAgents().getRandomUserAgents(1).iterator().next();
+        try (FlowData flowData = bufferPipeline.createFlowData()) {
+            flowData.addEvidence("header.user-agent", userAgent);
+            flowData.process();
+            assertNotNull(
+                flowData.get(DeviceDataHash.class).getDeviceId().getValue());
+        }
+    }
+
+    /**
+     * Check that refreshing an engine built from a buffer without new data
+     * is rejected, rather than silently reloading the old buffer.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void DataBuffer_Hash_RefreshFromFile() throws Exception {
+        bufferEngine.refreshData(
+            bufferEngine.getDataFileMetaData().getIdentifier());
+    }
+
+    /**
+     * Check that an engine built from a buffer can be refreshed from a byte
+     * array. The data set must free the array's copy of the data, so building
+     * from a buffer must not leave the shared native configuration set to
+     * keep it.
+     */
+    @Test
+    public void DataBuffer_Hash_RefreshFromBytes() throws Exception {
+        String identifier =
+            bufferEngine.getDataFileMetaData().getIdentifier();
+        byte[] data = Files.readAllBytes(FileUtils.getHashFile().toPath());
+        bufferEngine.refreshData(identifier, data);
+        bufferEngine.refreshData(identifier, map());
+        bufferEngine.refreshData(identifier, data);
+        for (String userAgent : getUserAgents().getRandomUserAgents(5)) {
+            try (FlowData expected =
+                     getWrapper().getPipeline().createFlowData();
+                 FlowData actual = bufferPipeline.createFlowData()) {
+                expected.addEvidence("header.user-agent", userAgent);
+                expected.process();
+                actual.addEvidence("header.user-agent", userAgent);
+                actual.process();
+                ResultsCacheTests.compare(
+                    bufferEngine,
+                    expected.get(DeviceDataHash.class),
+                    actual.get(DeviceDataHash.class));
+            }
+        }
+    }
+
+    /**
+     * Check that meta data from an engine built from a buffer can still be
+     * read after a refresh has replaced the buffer, as the meta data holds
+     * the buffer its native source reads from.
+     */
+    @Test
+    public void DataBuffer_Hash_MetaDataAfterRefresh() throws Exception {
+        String identifier =
+            bufferEngine.getDataFileMetaData().getIdentifier();
+        FiftyOneAspectPropertyMetaData property =
+            bufferEngine.getProperty("IsMobile");
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 bufferEngine.getProfiles()) {
+            bufferEngine.refreshData(identifier, map());
+            System.gc();
+            int count = 0;
+            for (ProfileMetaData profile : profiles) {
+                if (count++ % 100 == 0) {
+                    for (ValueMetaData value : profile.getValues()) {
+                        assertNotNull(value.getName());
+                    }
+                }
+            }
+            assertTrue(count > 0);
+        }
+        assertNotNull(property.getComponent().getName());
+        for (ValueMetaData value : property.getValues()) {
+            assertNotNull(value.getName());
+        }
+    }
+
+    /**
+     * Check that an engine can be built by streaming the data file, and
+     * returns the same values as one reading it from the file.
+     */
+    @Test
+    public void DataBuffer_Hash_Stream() throws Exception {
+        try (InputStream data = new FileInputStream(FileUtils.getHashFile());
+             DeviceDetectionHashEngine streamEngine =
+                 new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+                     .setPerformanceProfile(
+                         Constants.PerformanceProfiles.MaxPerformance)
+                     .setUpdateMatchedUserAgent(true)
+                     .setAutoUpdate(false)
+                     .build(data);
+             Pipeline streamPipeline = new PipelineBuilder(loggerFactory)
+                 .addFlowElement(streamEngine)
+                 .build()) {
+            for (String userAgent : getUserAgents().getRandomUserAgents(5)) {
+                try (FlowData expected =
+                         getWrapper().getPipeline().createFlowData();
+                     FlowData actual = streamPipeline.createFlowData()) {
+                    expected.addEvidence("header.user-agent", userAgent);
+                    expected.process();
+                    actual.addEvidence("header.user-agent", userAgent);
+                    actual.process();
+                    ResultsCacheTests.compare(
+                        streamEngine,
+                        expected.get(DeviceDataHash.class),
+                        actual.get(DeviceDataHash.class));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that a heap buffer is rejected, as it has no fixed address for
+     * the native engine to read from.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void DataBuffer_Hash_HeapBuffer() throws Exception {
+        new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setAutoUpdate(false)
+            .build(ByteBuffer.allocate(16));
+    }
+
+    /**
+     * Check that collection configurations are rejected when the engine is
+     * built from memory, as every collection is already in memory.
+     */
+    @Test(expected = PipelineConfigurationException.class)
+    public void DataBuffer_Hash_CollectionConfiguration() throws Exception {
+        new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setPerformanceProfile(
+                Constants.PerformanceProfiles.HighPerformance)
+            .setCollectionConfiguration(
+                HashCollection.Nodes,
+                CollectionConfiguration.cached(1000))
+            .setAutoUpdate(false)
+            .build(map());
+    }
+}
@@ -0,0 +1,107 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class DataFileStreamTests {
+
+    private static byte[] createData() {
+        byte[] data = new byte[200 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    private static String md5(byte[] data) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(data)) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static void assertContent(byte[] expected, MappedByteBuffer actual) {
+        assertEquals(expected.length, actual.remaining());
+        byte[] bytes = new byte[expected.length];
+        actual.get(bytes);
+        assertArrayEquals(expected, bytes);
+    }
+
+    /**
+     * Check that uncompressed data is copied unchanged.
+     */
+    @Test
+    public void DataFileStream_Uncompressed() throws Exception {
+        byte[] data = createData();
+        assertContent(
+            data,
+            DataFileStream.map(new ByteArrayInputStream(data), null, md5(data)));
+    }
+
+    /**
+     * Check that gzipped data is decompressed, and that the MD5 hash is of
+     * the compressed data as read from the stream.
+     */
+    @Test
+    public void DataFileStream_Gzipped() throws Exception {
+        byte[] data = createData();
+        byte[] compressed = gzip(data);
+        assertContent(
+            data,
+            DataFileStream.map(
+                new ByteArrayInputStream(compressed),
+                null,
+                md5(compressed).toUpperCase()));
+    }
+
+    /**
+     * Check that data which does not match the expected MD5 hash is
+     * rejected.
+     */
+    @Test(expected = IOException.class)
+    public void DataFileStream_Md5Mismatch() throws Exception {
+        byte[] data = createData();
+        DataFileStream.map(
+            new ByteArrayInputStream(data),
+            null,
+            md5(new byte[] { 1, 2, 3 }));
+    }
+}
@@ -28,6 +28,7 @@ import fiftyone.devicedetection.shared.DeviceDataBase;
 import fiftyone.devicedetection.shared.DeviceDataBaseOnPremise;
 import fiftyone.pipeline.core.data.FlowData;
 import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.data.AspectPropertyValue;
 import fiftyone.pipeline.engines.exceptions.PropertyMissingException;
 import fiftyone.pipeline.engines.services.MissingPropertyReason;
 import fiftyone.pipeline.engines.services.MissingPropertyResult;
@@ -39,6 +40,20 @@ import org.slf4j.Logger;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
@@ -316,6 +331,227 @@ public class DeviceDataTests extends TestsBase {
         }
     }
 
+    /**
+     * Check that when the native results are added with a required property
+     * index, values are read from the results by index rather than by name,
+     * and that properties which are not in the index fall back to the name.
+     */
+    @Test
+    public void DeviceData_RequiredPropertyIndex() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results);
+            StringValueSwig stringValue = mock(StringValueSwig.class);
+            when(stringValue.hasValue()).thenReturn(false);
+            when(results.getValueAsString(anyInt())).thenReturn(stringValue);
+            Map<String, Class<?>> types = new HashMap<>();
+            types.put("IsMobile", Boolean.class);
+            data.setResults(
+                results,
+                new RequiredPropertyIndex(
+                    Collections.singletonList("IsMobile"),
+                    types));
+
+            data.getValueAsString("ismobile");
+            verify(results, times(1)).getValueAsString(0);
+            verify(results, never()).getValueAsString(any(byte[].class));
+
+            data.getValueAsString("InvalidProperty");
+            verify(results, times(1)).getValueAsString(any(byte[].class));
+        }
+    }
+
+    /**
+     * Check that when the same property is read repeatedly, including from
+     * multiple threads, the value is only fetched from the native results
+     * once, and every caller gets the same instance.
+     */
+    @Test
+    public void DeviceData_MemoisedValues() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results);
+            when(results.containsProperty(any(byte[].class))).thenReturn(true);
+            data.setResults(results);
+
+            Object first = data.getAs(
+                "IsMobile",
+                AspectPropertyValue.class,
+                Boolean.class);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<Object>> futures = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    futures.add(executor.submit(() -> data.getAs(
+                        "IsMobile",
+                        AspectPropertyValue.class,
+                        Boolean.class)));
+                }
+                for (Future<Object> future : futures) {
+                    AspectPropertyValue<?> value =
+                        (AspectPropertyValue<?>) future.get();
+                    assertSame(first, value);
+                    assertFalse(value.hasValue());
+                }
+            }
+            finally {
+                executor.shutdown();
+            }
+            verify(results, times(1)).getValueAsBool(any(byte[].class));
+        }
+    }
+
+    /**
+     * Check that the primitive getters read values from the native results by
+     * required property index without creating a native value wrapper, and
+     * return the default for properties which are not available.
+     */
+    @Test
+    public void DeviceData_PrimitiveValues() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results = mock(ResultsHashSwig.class);
+            when(results.getValueAsInteger(0, -1)).thenReturn(1080);
+            when(results.getValueAsBool(1, false)).thenReturn(true);
+            when(results.getValueAsDouble(2, -1d)).thenReturn(5.5d);
+            when(results.containsProperty(any(byte[].class))).thenReturn(false);
+            Map<String, Class<?>> types = new HashMap<>();
+            types.put("ScreenPixelsHeight", Integer.class);
+            types.put("IsMobile", Boolean.class);
+            types.put("ScreenInchesDiagonal", Double.class);
+            data.setResults(
+                results,
+                new RequiredPropertyIndex(
+                    Arrays.asList(
+                        "ScreenPixelsHeight",
+                        "IsMobile",
+                        "ScreenInchesDiagonal"),
+                    types));
+
+            assertEquals(1080, data.getIntValue("ScreenPixelsHeight", -1));
+            assertTrue(data.getBoolValue("IsMobile", false));
+            assertEquals(
+                5.5d,
+                data.getDoubleValue("ScreenInchesDiagonal", -1d),
+                0);
+            assertEquals(-1, data.getIntValue("InvalidProperty", -1));
+            verify(results, never()).getValueAsInteger(anyInt());
+            verify(results, never()).getValueAsBool(anyInt());
+            verify(results, never()).getValueAsDouble(anyInt());
+        }
+    }
+
+    /**
+     * Check that property names which differ only in case are memoised as
+     * the same property.
+     */
+    @Test
+    public void DeviceData_MemoisedValues_IgnoreCase() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results);
+            when(results.containsProperty(any(byte[].class))).thenReturn(true);
+            data.setResults(results);
+
+            data.getAs("IsMobile", AspectPropertyValue.class, Boolean.class);
+            data.getAs("ismobile", AspectPropertyValue.class, Boolean.class);
+            data.getAs("ISMOBILE", AspectPropertyValue.class, Boolean.class);
+            verify(results, times(1)).getValueAsBool(any(byte[].class));
+        }
+    }
+
+    /**
+     * Check that a value shared between callers cannot be changed by one of
+     * them.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void DeviceData_MemoisedValues_ReadOnly() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results);
+            when(results.containsProperty(any(byte[].class))).thenReturn(true);
+            data.setResults(results);
+
+            AspectPropertyValue<Boolean> first = data.getAs(
+                "IsMobile",
+                AspectPropertyValue.class,
+                Boolean.class);
+            try {
+                first.setValue(true);
+                fail("Shared values should not be modifiable.");
+            }
+            catch (UnsupportedOperationException e) {
+                // Expected.
+            }
+            AspectPropertyValue<Boolean> second = data.getAs(
+                "IsMobile",
+                AspectPropertyValue.class,
+                Boolean.class);
+            assertFalse(second.hasValue());
+        }
+    }
+
+    /**
+     * Check that memoised values are discarded when more results are added,
+     * so the next read fetches the value again.
+     */
+    @Test
+    public void DeviceData_MemoisedValues_ClearedByResults() throws Exception {
+        try (FlowData flowData = getWrapper().getPipeline().createFlowData()) {
+            DeviceDataHashDefault data = new DeviceDataHashDefault(
+                logger,
+                flowData,
+                getWrapper().getEngine(),
+                missingPropertyService);
+
+            ResultsHashSwig results1 = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results1);
+            when(results1.containsProperty(any(byte[].class))).thenReturn(true);
+            ResultsHashSwig results2 = mock(ResultsHashSwig.class);
+            configureNativeGettersNoValue(results2);
+            when(results2.containsProperty(any(byte[].class))).thenReturn(true);
+
+            data.setResults(results1);
+            data.getAs("IsMobile", AspectPropertyValue.class, Boolean.class);
+            data.getAs("IsMobile", AspectPropertyValue.class, Boolean.class);
+            verify(results1, times(1)).getValueAsBool(any(byte[].class));
+
+            data.setResults(results2);
+            data.getAs("IsMobile", AspectPropertyValue.class, Boolean.class);
+            verify(results1, times(2)).getValueAsBool(any(byte[].class));
+        }
+    }
+
     /**
      * Check that once a {@link DeviceDataHashDefault} instance has been closed,
      * an {@link IllegalStateException} is throw when calling get methods.
@@ -0,0 +1,88 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+public class EagerResultsTests extends TestsBase {
+
+    private static final ILoggerFactory loggerFactory =
+        LoggerFactory.getILoggerFactory();
+
+    private DeviceDetectionHashEngine eagerEngine;
+    private Pipeline eagerPipeline;
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+        eagerEngine = new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setPerformanceProfile(Constants.PerformanceProfiles.HighPerformance)
+            .setUpdateMatchedUserAgent(true)
+            .setAutoUpdate(false)
+            .setEagerResults(true)
+            .build(FileUtils.getHashFile().toString(), false);
+        eagerPipeline = new PipelineBuilder(loggerFactory)
+            .addFlowElement(eagerEngine)
+            .build();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        eagerPipeline.close();
+        eagerEngine.close();
+        testCleanup();
+    }
+
+    /**
+     * Check that the values copied from the native results are the same as
+     * those returned directly from native results.
+     */
+    @Test
+    public void EagerResults_Hash_SameValues() throws Exception {
+        for (String userAgent : getUserAgents().getRandomUserAgents(20)) {
+            try (FlowData expected =
+                     getWrapper().getPipeline().createFlowData();
+                 FlowData actual = eagerPipeline.createFlowData()) {
+                expected.addEvidence("header.user-agent", userAgent);
+                expected.process();
+                actual.addEvidence("header.user-agent", userAgent);
+                actual.process();
+                ResultsCacheTests.compare(
+                    eagerEngine,
+                    expected.get(DeviceDataHash.class),
+                    actual.get(DeviceDataHash.class));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.Swig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EvidenceDeviceDetectionSwig;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class EvidenceMarshallerTests {
+
+    private static final List<String> engineKeys = Arrays.asList(
+        "header.user-agent",
+        "query.user-agent",
+        "header.sec-ch-ua",
+        "query.51D_ProfileIds");
+
+    /**
+     * Get the string from null terminated bytes.
+     * @param bytes to read
+     * @return string up to the null terminator
+     */
+    private static String asString(byte[] bytes) {
+        int length = 0;
+        while (bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Check that all engine keys can be found regardless of case, and that
+     * keys which are not used by the engine are not.
+     */
+    @Test
+    public void EvidenceMarshaller_IndexOf() {
+        EvidenceMarshaller marshaller = new EvidenceMarshaller(engineKeys);
+        for (int i = 0; i < engineKeys.size(); i++) {
+            String key = engineKeys.get(i);
+            assertEquals(i, marshaller.indexOf(key));
+            assertEquals(i, marshaller.indexOf(key.toUpperCase()));
+            assertEquals(i, marshaller.indexOf(key.toLowerCase()));
+        }
+        assertEquals(-1, marshaller.indexOf("header.other"));
+        assertEquals(-1, marshaller.indexOf(""));
+    }
+
+    /**
+     * Check that a large number of keys all get their own slot, and that
+     * duplicate keys which only differ by case are removed.
+     */
+    @Test
+    public void EvidenceMarshaller_ManyKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            keys.add("header.key-" + i);
+        }
+        keys.add("HEADER.KEY-0");
+        EvidenceMarshaller marshaller = new EvidenceMarshaller(keys);
+        assertEquals(500, marshaller.getKeys().size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, marshaller.indexOf("Header.Key-" + i));
+        }
+    }
+
+    /**
+     * Check that only the evidence used by the engine is added to the native
+     * evidence, and that the key is the one used by the engine.
+     */
+    @Test
+    public void EvidenceMarshaller_Marshal() {
+        EvidenceMarshaller marshaller = new EvidenceMarshaller(engineKeys);
+        Map<String, Object> evidence =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        evidence.put("Header.User-Agent", "Mozilla/5.0");
+        evidence.put("header.other", "other");
+        evidence.put("QUERY.51d_profileids", 12280);
+
+        final Map<String, String> added = new TreeMap<>();
+        EvidenceDeviceDetectionSwig target =
+            mock(EvidenceDeviceDetectionSwig.class);
+        doAnswer(invocation -> {
+            // The value buffer is reused, so copy it now.
+            added.put(
+                asString(invocation.getArgument(0)),
+                asString(invocation.getArgument(1)));
+            return null;
+        }).when(target).addFromBytes(any(byte[].class), any(byte[].class));
+
+        marshaller.marshal(evidence, target);
+
+        assertEquals(2, added.size());
+        assertEquals("Mozilla/5.0", added.get("header.user-agent"));
+        assertEquals("12280", added.get("query.51D_ProfileIds"));
+    }
+
+    /**
+     * Check that values are encoded in the same way as
+     * {@link Swig#asBytes(String)}, including long values and characters
+     * which cannot be represented in ASCII.
+     */
+    @Test
+    public void EvidenceMarshaller_Encode() {
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longValue.append((char) ('a' + i % 26));
+        }
+        String[] values = new String[]{
+            "",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64)",
+            "caf\u00e9",
+            "emoji \ud83d\ude00 end",
+            "lone \ud83d surrogate",
+            longValue.toString()
+        };
+        for (String value : values) {
+            assertEquals(
+                asString(Swig.asBytes(value)),
+                asString(EvidenceMarshaller.encode(value)));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.interop.Swig;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.EvidenceDeviceDetectionSwig;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EvidencePoolTests {
+
+    /**
+     * Check that a released instance is cleared and then reused by the next
+     * call to take.
+     */
+    @Test
+    public void EvidencePool_Reuse() {
+        try (EvidencePool pool = new EvidencePool(2)) {
+            EvidenceDeviceDetectionSwig evidence = pool.take();
+            evidence.addFromBytes(
+                Swig.asBytes("header.user-agent"),
+                Swig.asBytes("Mozilla/5.0"));
+            assertEquals(1, evidence.size());
+            pool.release(evidence);
+            assertEquals(1, pool.getIdleCount());
+
+            EvidenceDeviceDetectionSwig reused = pool.take();
+            assertSame(evidence, reused);
+            assertTrue(reused.isEmpty());
+            assertEquals(0, pool.getIdleCount());
+            pool.release(reused);
+        }
+    }
+
+    /**
+     * Check that no more than the capacity of the pool is retained.
+     */
+    @Test
+    public void EvidencePool_Capacity() {
+        try (EvidencePool pool = new EvidencePool(2)) {
+            EvidenceDeviceDetectionSwig[] taken =
+                new EvidenceDeviceDetectionSwig[5];
+            for (int i = 0; i < taken.length; i++) {
+                taken[i] = pool.take();
+            }
+            for (EvidenceDeviceDetectionSwig evidence : taken) {
+                pool.release(evidence);
+            }
+            assertEquals(2, pool.getIdleCount());
+        }
+    }
+
+    /**
+     * Check that closing the pool frees idle instances, and that instances
+     * released after it is closed are not retained.
+     */
+    @Test
+    public void EvidencePool_Close() {
+        EvidencePool pool = new EvidencePool(2);
+        EvidenceDeviceDetectionSwig first = pool.take();
+        EvidenceDeviceDetectionSwig second = pool.take();
+        pool.release(first);
+        pool.close();
+        assertEquals(0, pool.getIdleCount());
+        pool.release(second);
+        assertEquals(0, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,137 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.fiftyone.data.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MetaDataSnapshotTests extends TestsBase {
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        testCleanup();
+    }
+
+    /**
+     * Check that properties are returned from the snapshot, so the same
+     * instance is returned each time regardless of the case of the name, and
+     * that unknown properties return null.
+     */
+    @Test
+    public void MetaDataSnapshot_Hash_Properties() {
+        DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        for (FiftyOneAspectPropertyMetaData property : engine.getProperties()) {
+            assertSame(property, engine.getProperty(property.getName()));
+            assertSame(
+                property,
+                engine.getProperty(property.getName().toUpperCase()));
+        }
+        assertNull(engine.getProperty("NotARealProperty"));
+    }
+
+    /**
+     * Check that the values found from the snapshot index are the same as
+     * those in the native collection.
+     */
+    @Test
+    public void MetaDataSnapshot_Hash_Values() throws Exception {
+        DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        int i = 0;
+        try (CloseableIterable<ValueMetaData> values = engine.getValues()) {
+            for (ValueMetaData value : values) {
+                if (i % 100 == 0) {
+                    ValueMetaData found = engine.getValue(
+                        value.getProperty().getName(),
+                        value.getName());
+                    assertNotNull(value.toString(), found);
+                    assertEquals(value, found);
+                }
+                i++;
+            }
+        }
+        assertNull(engine.getValue("IsMobile", "NotARealValue"));
+        assertNull(engine.getValue("NotARealProperty", "True"));
+    }
+
+    /**
+     * Check that the profiles found from the snapshot index are the same as
+     * those in the native collection, and that an unknown profile id returns
+     * null.
+     */
+    @Test
+    public void MetaDataSnapshot_Hash_Profiles() throws Exception {
+        DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        int i = 0;
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 engine.getProfiles()) {
+            for (ProfileMetaData profile : profiles) {
+                if (i % 100 == 0) {
+                    ProfileMetaData found =
+                        engine.getProfile(profile.getProfileId());
+                    assertNotNull(found);
+                    assertEquals(profile.getProfileId(), found.getProfileId());
+                }
+                i++;
+            }
+        }
+        assertNull(engine.getProfile(-1));
+    }
+
+    /**
+     * Check that the components are returned from the snapshot, and that a
+     * refresh replaces the snapshot.
+     */
+    @Test
+    public void MetaDataSnapshot_Hash_Refresh() throws Exception {
+        DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        int components = 0;
+        for (ComponentMetaData component : engine.getComponents()) {
+            assertNotNull(component.getName());
+            components++;
+        }
+        assertTrue(components > 0);
+        FiftyOneAspectPropertyMetaData before = engine.getProperty("IsMobile");
+
+        engine.refreshData(engine.getDataFileMetaData().getIdentifier());
+
+        FiftyOneAspectPropertyMetaData after = engine.getProperty("IsMobile");
+        assertNotSame(before, after);
+        assertEquals(before.getName(), after.getName());
+        int componentsAfter = 0;
+        for (ComponentMetaData component : engine.getComponents()) {
+            componentsAfter++;
+        }
+        assertEquals(components, componentsAfter);
+    }
+}
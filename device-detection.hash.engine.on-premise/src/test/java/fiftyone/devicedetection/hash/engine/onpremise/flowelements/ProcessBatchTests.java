@@ -0,0 +1,94 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.engines.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProcessBatchTests extends TestsBase {
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+    }
+
+    @After
+    public void cleanup() {
+        testCleanup();
+    }
+
+    /**
+     * Check that processing a batch of User-Agents gives the same results as
+     * processing each one individually.
+     */
+    @Test
+    public void ProcessBatch_Hash_SameAsProcess() throws Exception {
+        List<FlowData> batch = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        try {
+            for (String userAgent : getUserAgents().getRandomUserAgents(100)) {
+                try (FlowData single =
+                         getWrapper().getPipeline().createFlowData()) {
+                    single.addEvidence("header.user-agent", userAgent);
+                    single.process();
+                    expected.add(single.get(DeviceDataHash.class)
+                        .getDeviceId().getValue());
+                }
+                FlowData flowData = getWrapper().getPipeline().createFlowData();
+                flowData.addEvidence("header.user-agent", userAgent);
+                batch.add(flowData);
+            }
+
+            getWrapper().getEngine().processBatch(batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(
+                    expected.get(i),
+                    batch.get(i).get(DeviceDataHash.class)
+                        .getDeviceId().getValue());
+            }
+        } finally {
+            for (FlowData flowData : batch) {
+                flowData.close();
+            }
+        }
+    }
+
+    /**
+     * Check that an empty batch does not call the native engine.
+     */
+    @Test
+    public void ProcessBatch_Hash_Empty() throws Exception {
+        getWrapper().getEngine().processBatch(new ArrayList<>());
+    }
+}
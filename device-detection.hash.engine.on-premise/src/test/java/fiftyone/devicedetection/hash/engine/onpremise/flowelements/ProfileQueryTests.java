@@ -0,0 +1,158 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.fiftyone.data.CloseableIterable;
+import fiftyone.pipeline.engines.fiftyone.data.ProfileMetaData;
+import fiftyone.pipeline.engines.fiftyone.data.ValueMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProfileQueryTests extends TestsBase {
+
+    private DeviceDetectionHashEngine indexedEngine;
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+        indexedEngine = new DeviceDetectionHashEngineBuilder(
+            LoggerFactory.getILoggerFactory(), null)
+            .setPerformanceProfile(Constants.PerformanceProfiles.HighPerformance)
+            .setAutoUpdate(false)
+            .setProfileQueryIndex(true)
+            .build(FileUtils.getHashFile().toString(), false);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        indexedEngine.close();
+        testCleanup();
+    }
+
+    /**
+     * Check that every value of a sample of profiles finds the profile.
+     */
+    @Test
+    public void ProfileQuery_Hash_FindsProfile() throws Exception {
+        int i = 0;
+        try (CloseableIterable<ProfileMetaData> profiles =
+                 indexedEngine.getProfiles()) {
+            for (ProfileMetaData profile : profiles) {
+                if (i % 100 == 0) {
+                    for (ValueMetaData value : profile.getValues()) {
+                        Map<Byte, int[]> result = indexedEngine.findProfileIds(
+                            Collections.singletonMap(
+                                value.getProperty().getName(),
+                                value.getName()));
+                        assertEquals(1, result.size());
+                        int[] ids = result.get(
+                            profile.getComponent().getComponentId());
+                        assertNotNull(value.toString(), ids);
+                        assertTrue(
+                            value.toString(),
+                            Arrays.binarySearch(ids, profile.getProfileId()) >= 0);
+                    }
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Check that conditions on different components are returned as
+     * separate groups, each holding only the profiles of its component
+     * which meet its condition.
+     */
+    @Test
+    public void ProfileQuery_Hash_Components() {
+        Map<String, String> conditions = new HashMap<>();
+        conditions.put("IsMobile", "True");
+        conditions.put("PlatformName", "Android");
+        Map<Byte, int[]> result = indexedEngine.findProfileIds(conditions);
+        assertEquals(2, result.size());
+        for (Map.Entry<Byte, int[]> group : result.entrySet()) {
+            int[] ids = group.getValue();
+            assertTrue(ids.length > 0);
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i - 1] < ids[i]);
+            }
+            for (int id : ids) {
+                ProfileMetaData profile = indexedEngine.getProfile(id);
+                assertEquals(
+                    group.getKey().byteValue(),
+                    profile.getComponent().getComponentId());
+                if (profile.getComponent().getName().equals("Hardware")) {
+                    assertNotNull(profile.getValue("IsMobile", "True"));
+                } else {
+                    assertNotNull(
+                        profile.getValue("PlatformName", "Android"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that a value which is not in the data set matches nothing.
+     */
+    @Test
+    public void ProfileQuery_Hash_UnknownValue() {
+        Map<String, String> conditions = new HashMap<>();
+        conditions.put("IsMobile", "NotARealValue");
+        Map<Byte, int[]> result = indexedEngine.findProfileIds(conditions);
+        assertEquals(1, result.size());
+        assertEquals(0, result.values().iterator().next().length);
+    }
+
+    /**
+     * Check that a condition on a property which is not in the data set is
+     * rejected rather than ignored, even alongside valid conditions.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void ProfileQuery_Hash_UnknownProperty() {
+        Map<String, String> conditions = new HashMap<>();
+        conditions.put("IsMobile", "True");
+        conditions.put("NotARealProperty", "True");
+        indexedEngine.findProfileIds(conditions);
+    }
+
+    /**
+     * Check that querying an engine without the index fails.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void ProfileQuery_Hash_NotEnabled() {
+        getWrapper().getEngine().findProfileIds(
+            Collections.singletonMap("IsMobile", "True"));
+    }
+}
@@ -0,0 +1,130 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.engines.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class RefreshTests extends TestsBase {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void init() throws Exception {
+        executorService = Executors.newCachedThreadPool();
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+    }
+
+    @After
+    public void cleanup() {
+        testCleanup();
+        executorService.shutdown();
+    }
+
+    /**
+     * Check that results which were produced before a refresh can still be
+     * read after it, as the previous native engine is not freed until the
+     * results are closed.
+     */
+    @Test
+    public void Refresh_Hash_ResultsOutliveRefresh() throws Exception {
+        DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        String userAgent =
+            getUserAgents().getRandomUserAgents(1).iterator().next();
+        try (FlowData flowData =
+                 getWrapper().getPipeline().createFlowData()) {
+            flowData.addEvidence("header.user-agent", userAgent);
+            flowData.process();
+            DeviceDataHash deviceData = flowData.get(DeviceDataHash.class);
+
+            engine.refreshData(engine.getDataFileMetaData().getIdentifier());
+
+            assertNotNull(deviceData.getDeviceId().getValue());
+            assertNotNull(deviceData.getIsMobile());
+        }
+    }
+
+    /**
+     * Check that processing continues without errors while the data is
+     * refreshed repeatedly.
+     */
+    @Test
+    public void Refresh_Hash_ConcurrentProcessing() throws Exception {
+        final DeviceDetectionHashEngine engine = getWrapper().getEngine();
+        final List<String> userAgents = new ArrayList<>();
+        for (String userAgent : getUserAgents().getRandomUserAgents(50)) {
+            userAgents.add(userAgent);
+        }
+        final AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(executorService.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    int processed = 0;
+                    while (running.get()) {
+                        for (String userAgent : userAgents) {
+                            try (FlowData flowData = getWrapper()
+                                .getPipeline().createFlowData()) {
+                                flowData.addEvidence(
+                                    "header.user-agent",
+                                    userAgent);
+                                flowData.process();
+                                assertNotNull(flowData
+                                    .get(DeviceDataHash.class)
+                                    .getDeviceId()
+                                    .getValue());
+                                processed++;
+                            }
+                        }
+                    }
+                    return processed;
+                }
+            }));
+        }
+        try {
+            for (int i = 0; i < 3; i++) {
+                engine.refreshData(
+                    engine.getDataFileMetaData().getIdentifier());
+            }
+        } finally {
+            running.set(false);
+        }
+        for (Future<Integer> worker : workers) {
+            assertTrue(worker.get() > 0);
+        }
+        assertNotNull(engine.getProperty("IsMobile"));
+    }
+}
@@ -0,0 +1,197 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.caching.LruPutCache;
+import fiftyone.caching.PutCache;
+import fiftyone.caching.PutCacheBuilder;
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.data.DeviceDataHash;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.configuration.CacheConfiguration;
+import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import fiftyone.pipeline.engines.exceptions.NoValueException;
+import fiftyone.pipeline.engines.fiftyone.data.FiftyOneAspectPropertyMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ResultsCacheTests extends TestsBase {
+
+    private static final ILoggerFactory loggerFactory =
+        LoggerFactory.getILoggerFactory();
+
+    private DeviceDetectionHashEngine cachedEngine;
+    private Pipeline cachedPipeline;
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+        cachedEngine = new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setPerformanceProfile(Constants.PerformanceProfiles.HighPerformance)
+            .setUpdateMatchedUserAgent(true)
+            .setAutoUpdate(false)
+            .setCache(new CacheConfiguration(100))
+            .build(FileUtils.getHashFile().toString(), false);
+        cachedPipeline = new PipelineBuilder(loggerFactory)
+            .addFlowElement(cachedEngine)
+            .build();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        cachedPipeline.close();
+        cachedEngine.close();
+        testCleanup();
+    }
+
+    /**
+     * Check that the values returned from the cached engine are the same as
+     * those returned from native results, both when the results are first
+     * added to the cache and when they are returned from it.
+     */
+    @Test
+    public void ResultsCache_Hash_SameValues() throws Exception {
+        for (String userAgent : getUserAgents().getRandomUserAgents(20)) {
+            try (FlowData expected =
+                     getWrapper().getPipeline().createFlowData()) {
+                expected.addEvidence("header.user-agent", userAgent);
+                expected.process();
+                for (int i = 0; i < 2; i++) {
+                    try (FlowData actual = cachedPipeline.createFlowData()) {
+                        actual.addEvidence("header.user-agent", userAgent);
+                        actual.process();
+                        compare(
+                            cachedEngine,
+                            expected.get(DeviceDataHash.class),
+                            actual.get(DeviceDataHash.class));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the results cache is built by the builder in the cache
+     * configuration, with the configured size, and that results are read
+     * from it.
+     */
+    @Test
+    public void ResultsCache_Hash_ConfiguredBuilder() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        PutCacheBuilder builder = new PutCacheBuilder() {
+            @Override
+            public <K, V> PutCache<K, V> build(int cacheSize) {
+                sizes.add(cacheSize);
+                return new LruPutCache.Builder().build(cacheSize);
+            }
+        };
+        try (DeviceDetectionHashEngine engine =
+                 new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+                     .setPerformanceProfile(
+                         Constants.PerformanceProfiles.HighPerformance)
+                     .setAutoUpdate(false)
+                     .setCache(new CacheConfiguration(builder, 50))
+                     .build(FileUtils.getHashFile().toString(), false);
+             Pipeline pipeline = new PipelineBuilder(loggerFactory)
+                 .addFlowElement(engine)
+                 .build()) {
+            String userAgent = getUserAgents().getRandomUserAgent(0);
+            for (int i = 0; i < 2; i++) {
+                try (FlowData flowData = pipeline.createFlowData()) {
+                    flowData.addEvidence("header.user-agent", userAgent);
+                    flowData.process();
+                }
+            }
+            assertEquals(1, sizes.size());
+            assertEquals(50, sizes.get(0).intValue());
+            assertEquals(1, engine.getStatistics().getResultsCache().getHits());
+        }
+    }
+
+    /**
+     * Check that all the values in the two device data instances are the
+     * same.
+     * @param engine the engine which produced the results
+     * @param expected device data with the expected values
+     * @param actual device data to check
+     */
+    static void compare(
+        DeviceDetectionHashEngine engine,
+        DeviceDataHash expected,
+        DeviceDataHash actual) throws NoValueException {
+        assertEquals(
+            expected.getDeviceId().getValue(),
+            actual.getDeviceId().getValue());
+        assertEquals(
+            expected.getUserAgents().getValue(),
+            actual.getUserAgents().getValue());
+        for (FiftyOneAspectPropertyMetaData property :
+            engine.getProperties()) {
+            if (property.getComponent() == null) {
+                // Match metrics are compared above.
+                continue;
+            }
+            AspectPropertyValue<List<String>> expectedValues =
+                expected.getValues(property.getName());
+            AspectPropertyValue<List<String>> actualValues =
+                actual.getValues(property.getName());
+            assertEquals(
+                property.getName(),
+                expectedValues.hasValue(),
+                actualValues.hasValue());
+            if (expectedValues.hasValue()) {
+                assertEquals(
+                    property.getName(),
+                    expectedValues.getValue(),
+                    actualValues.getValue());
+            }
+            Object expectedValue = expected.asKeyMap()
+                .get(property.getName().toLowerCase());
+            Object actualValue = actual.asKeyMap()
+                .get(property.getName().toLowerCase());
+            assertEquals(
+                property.getName(),
+                expectedValue == null ? null : toString(expectedValue),
+                actualValue == null ? null : toString(actualValue));
+        }
+    }
+
+    private static String toString(Object value) throws NoValueException {
+        AspectPropertyValue<?> aspectValue = (AspectPropertyValue<?>) value;
+        return aspectValue.hasValue() ?
+            String.valueOf(aspectValue.getValue()) :
+            aspectValue.getNoValueMessage();
+    }
+}
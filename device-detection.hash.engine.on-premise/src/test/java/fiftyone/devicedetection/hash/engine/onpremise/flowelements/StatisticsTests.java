@@ -0,0 +1,248 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.hash.engine.onpremise.TestsBase;
+import fiftyone.devicedetection.hash.engine.onpremise.interop.swig.ProfileMetaDataCollectionSwig;
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.core.flowelements.PipelineBuilder;
+import fiftyone.pipeline.engines.Constants;
+import fiftyone.pipeline.engines.configuration.CacheConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StatisticsTests extends TestsBase {
+
+    private static final ILoggerFactory loggerFactory =
+        LoggerFactory.getILoggerFactory();
+
+    private DeviceDetectionHashEngine cachedEngine;
+    private Pipeline cachedPipeline;
+
+    @Before
+    public void init() throws Exception {
+        testInitialize(Constants.PerformanceProfiles.HighPerformance);
+        cachedEngine = new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+            .setPerformanceProfile(Constants.PerformanceProfiles.LowMemory)
+            .setCollectionConfiguration(
+                HashCollection.Profiles,
+                CollectionConfiguration.cached(1000))
+            .setAutoUpdate(false)
+            .setCache(new CacheConfiguration(10))
+            .setJmxStatistics(true)
+            .build(FileUtils.getHashFile().toString(), false);
+        cachedPipeline = new PipelineBuilder(loggerFactory)
+            .addFlowElement(cachedEngine)
+            .build();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        cachedPipeline.close();
+        cachedEngine.close();
+        testCleanup();
+    }
+
+    /**
+     * Check that the statistics report the configuration each native
+     * collection was created with, and the number of items from the data
+     * set header.
+     */
+    @Test
+    public void Statistics_Hash_Collections() {
+        EngineStatistics statistics = cachedEngine.getStatistics();
+        assertEquals(
+            FileUtils.getHashFile().length(),
+            statistics.getDataFileSize());
+        assertEquals(
+            HashCollection.values().length,
+            statistics.getCollections().size());
+        CollectionStatistics profiles =
+            statistics.getCollection(HashCollection.Profiles);
+        assertEquals(1000, profiles.getConfiguration().getCapacity());
+        assertEquals(
+            cachedEngine.withMetaData(m -> {
+                ProfileMetaDataCollectionSwig collection = m.getProfiles();
+                try {
+                    return collection.getSize();
+                } finally {
+                    collection.delete();
+                }
+            }).longValue(),
+            profiles.getCount());
+        assertTrue(profiles.getResidentEntries() <= 1000);
+        assertTrue(
+            statistics.getCollection(HashCollection.Nodes).getCount() > 0);
+        assertTrue(statistics.getEstimatedBytes() > 0);
+        assertEquals(
+            statistics.getMemoryEstimate().getTotalBytes(),
+            statistics.getEstimatedBytes());
+    }
+
+    /**
+     * Check that hits and misses are counted for the results
+     * cache.
+     */
+    @Test
+    public void Statistics_Hash_ResultsCache() throws Exception {
+        Set<String> userAgents = new LinkedHashSet<>();
+        for (String userAgent : getUserAgents().getRandomUserAgents(20)) {
+            userAgents.add(userAgent);
+        }
+        for (String userAgent : userAgents) {
+            for (int i = 0; i < 2; i++) {
+                try (FlowData flowData = cachedPipeline.createFlowData()) {
+                    flowData.addEvidence("header.user-agent", userAgent);
+                    flowData.process();
+                }
+            }
+        }
+        int processed = userAgents.size();
+        CacheStatistics cache = cachedEngine.getStatistics().getResultsCache();
+        assertNotNull(cache);
+        assertEquals(processed, cache.getHits());
+        assertEquals(processed, cache.getMisses());
+        assertEquals(10, cache.getCapacity());
+        assertEquals(0.5, cache.getHitRatio(), 0.0001);
+    }
+
+    /**
+     * Check that the hits and misses of the native cache of a collection are
+     * counted, and that the estimated evictions and items in memory follow
+     * them.
+     */
+    @Test
+    public void Statistics_Hash_CollectionCache() throws Exception {
+        for (String userAgent : getUserAgents().getRandomUserAgents(100)) {
+            try (FlowData flowData = cachedPipeline.createFlowData()) {
+                flowData.addEvidence("header.user-agent", userAgent);
+                flowData.process();
+            }
+        }
+        EngineStatistics statistics = cachedEngine.getStatistics();
+        CollectionStatistics profiles =
+            statistics.getCollection(HashCollection.Profiles);
+        assertTrue(profiles.getMisses() > 0);
+        assertEquals(
+            Math.min(1000, profiles.getMisses()),
+            profiles.getResidentEntries());
+        assertEquals(
+            Math.max(0, profiles.getMisses() - 1000),
+            profiles.getEstimatedEvictions());
+        assertTrue(profiles.getResidentBytes() > 0);
+        assertTrue(profiles.getResidentBytes() <= profiles.getEstimatedBytes());
+        assertTrue(
+            statistics.getResidentBytes() >= profiles.getResidentBytes());
+    }
+
+    /**
+     * Check that every item of a collection which is fully loaded is
+     * reported as in memory, with no cache hits or misses.
+     */
+    @Test
+    public void Statistics_Hash_CollectionLoaded() {
+        EngineStatistics statistics =
+            getWrapper().getEngine().getStatistics();
+        MemoryEstimate estimate = statistics.getMemoryEstimate();
+        for (CollectionStatistics collection :
+            statistics.getCollections().values()) {
+            assertEquals(
+                collection.getCount(),
+                collection.getResidentEntries());
+            assertEquals(
+                estimate.getSize(collection.getCollection()),
+                collection.getResidentBytes());
+            assertEquals(0, collection.getHits());
+            assertEquals(0, collection.getMisses());
+        }
+    }
+
+    /**
+     * Check that the statistics are registered as JMX attributes, and are
+     * unregistered when the engine is closed.
+     */
+    @Test
+    public void Statistics_Hash_Jmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = cachedEngine.getJmxName();
+        assertNotNull(name);
+        assertTrue(server.isRegistered(name));
+        assertEquals(
+            FileUtils.getHashFile().length(),
+            server.getAttribute(name, "DataFileSize"));
+        assertEquals(
+            10,
+            server.getAttribute(name, "ResultsCacheCapacity"));
+        assertNotNull(server.getAttribute(name, "CollectionCounts"));
+        assertNotNull(server.getAttribute(name, "CollectionCacheHits"));
+        assertNotNull(server.getAttribute(name, "CollectionCacheMisses"));
+        assertNotNull(server.getAttribute(name, "CollectionCacheEstimatedEvictions"));
+        assertNotNull(server.getAttribute(name, "CollectionResidentBytes"));
+        assertNotNull(server.getAttribute(name, "ResidentBytes"));
+    }
+
+    /**
+     * Check that the JMX bean is unregistered when the engine is closed,
+     * and that each engine is registered under its own name.
+     */
+    @Test
+    public void Statistics_Hash_JmxClose() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name;
+        try (DeviceDetectionHashEngine engine =
+                 new DeviceDetectionHashEngineBuilder(loggerFactory, null)
+                     .setPerformanceProfile(
+                         Constants.PerformanceProfiles.LowMemory)
+                     .setAutoUpdate(false)
+                     .setJmxStatistics(true)
+                     .build(FileUtils.getHashFile().toString(), false)) {
+            name = engine.getJmxName();
+            assertNotNull(name);
+            assertNotEquals(cachedEngine.getJmxName(), name);
+            assertTrue(server.isRegistered(name));
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    /**
+     * Check that an engine which is not configured for JMX does not
+     * register its statistics.
+     */
+    @Test
+    public void Statistics_Hash_NoJmx() {
+        assertNull(getWrapper().getEngine().getJmxName());
+        assertNull(getWrapper().getEngine().getStatistics().getResultsCache());
+    }
+}
@@ -0,0 +1,130 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection.hash.engine.onpremise.flowelements;
+
+import fiftyone.devicedetection.shared.testhelpers.FileUtils;
+import fiftyone.pipeline.engines.Constants;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+public class WarmUpTests {
+
+    /**
+     * Check that evidence records are read from a YAML file, including
+     * quoted values.
+     */
+    @Test
+    public void WarmUp_ReadYaml() throws Exception {
+        File file = File.createTempFile("warmup", ".yml");
+        try {
+            Files.write(file.toPath(), Arrays.asList(
+                "---",
+                "header.user-agent: 'Mozilla/5.0 (it''s quoted)'",
+                "query.sec-ch-ua-mobile: ?0",
+                "---",
+                "header.user-agent: \"Mozilla/5.0\"",
+                "..."), StandardCharsets.UTF_8);
+            List<Map<String, Object>> corpus =
+                new WarmUp(file, 100, 1).getCorpus();
+            assertEquals(2, corpus.size());
+            assertEquals(
+                "Mozilla/5.0 (it's quoted)",
+                corpus.get(0).get("header.user-agent"));
+            assertEquals("?0", corpus.get(0).get("query.sec-ch-ua-mobile"));
+            assertEquals("Mozilla/5.0", corpus.get(1).get("header.user-agent"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Check that a plain file is read as one User-Agent per line, up to the
+     * limit.
+     */
+    @Test
+    public void WarmUp_ReadUserAgents() throws Exception {
+        File file = File.createTempFile("warmup", ".csv");
+        try {
+            Files.write(
+                file.toPath(),
+                Arrays.asList("UA1", "", "UA2", "UA3"),
+                StandardCharsets.UTF_8);
+            List<Map<String, Object>> corpus =
+                new WarmUp(file, 2, 1).getCorpus();
+            assertEquals(2, corpus.size());
+            assertEquals("UA1", corpus.get(0).get("header.user-agent"));
+            assertEquals("UA2", corpus.get(1).get("header.user-agent"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Check that the corpus is processed when the engine is built and again
+     * when the data is refreshed.
+     */
+    @Test
+    public void WarmUp_Hash_LoadAndRefresh() throws Exception {
+        File evidence = FileUtils.getEvidenceFile();
+        assumeNotNull(evidence);
+        try (DeviceDetectionHashEngine engine =
+                 new DeviceDetectionHashEngineBuilder(
+                     LoggerFactory.getILoggerFactory(), null)
+                     .setPerformanceProfile(
+                         Constants.PerformanceProfiles.LowMemory)
+                     .setAutoUpdate(false)
+                     .setWarmUpFile(evidence.getAbsolutePath())
+                     .setWarmUpLimit(200)
+                     .setWarmUpThreads(2)
+                     .build(FileUtils.getHashFile().toString(), false)) {
+            WarmUpResult first = engine.getLastWarmUp();
+            assertNotNull(first);
+            assertEquals(200, first.getRecords());
+            assertEquals(0, first.getFailures());
+            assertEquals(2, first.getThreads());
+
+            engine.refreshData(engine.getDataFileMetaData().getIdentifier());
+
+            assertNotSame(first, engine.getLastWarmUp());
+            assertEquals(200, engine.getLastWarmUp().getRecords());
+        }
+    }
+
+    /**
+     * Check that invalid settings are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void WarmUp_InvalidThreads() {
+        new WarmUp(Arrays.<Map<String, String>>asList(), 0);
+    }
+}
@@ -29,13 +29,18 @@ import fiftyone.pipeline.core.data.types.JavaScript;
 import fiftyone.pipeline.engines.data.AspectData;
 import fiftyone.pipeline.engines.data.AspectPropertyMetaData;
 import fiftyone.pipeline.engines.data.AspectPropertyValue;
+import fiftyone.pipeline.engines.exceptions.NoValueException;
 import fiftyone.pipeline.engines.flowelements.AspectEngine;
 import fiftyone.pipeline.engines.services.MissingPropertyService;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static fiftyone.pipeline.util.Types.getPrimitiveTypeMap;
 
@@ -45,9 +50,17 @@ import static fiftyone.pipeline.util.Types.getPrimitiveTypeMap;
 public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
 
     protected final Map<Class<?>, Class<?>> primitiveTypes;
-    private final Object dataLock = new Object();
-    private final Object getLock = new Object();
-    private boolean mapPopulated = false;
+    private final ReentrantLock dataLock = new ReentrantLock();
+    private volatile boolean mapPopulated = false;
+
+    /**
+     * Values which have already been fetched from the underlying results,
+     * keyed on lower case property name. Values are published without a
+     * lock, and once a value is here the same read-only instance is
+     * returned to every reader.
+     */
+    private final ConcurrentMap<String, MemoisedValue> memoisedValues =
+        new ConcurrentHashMap<>();
 
     /**
      * Constructs a new instance.
@@ -67,6 +80,26 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
         primitiveTypes = getPrimitiveTypeMap();
     }
 
+    /**
+     * Discard any values which have already been fetched, so they are read
+     * again from the underlying results. Implementations must call this
+     * whenever results are added.
+     */
+    protected void clearMemoisedValues() {
+        memoisedValues.clear();
+        mapPopulated = false;
+    }
+
+    /**
+     * Property names are not case sensitive, so get the form they are
+     * memoised under.
+     * @param propertyName name of the property
+     * @return lower case name
+     */
+    private static String normalise(String propertyName) {
+        return propertyName.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Determine whether a property is available to return values from the
      * underlying results.
@@ -76,7 +109,10 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
     protected abstract boolean propertyIsAvailable(String propertyName);
 
     /**
-     * Get the values for the specified property as a {@link List}. For
+     * Get the values for the specified property as a {@link List}. The value
+     * getters can be called concurrently for different properties, so
+     * implementations whose underlying results are not safe to read
+     * concurrently must synchronise these themselves. For
      * on-premise engines, this is the raw form they are stored in the data file
      * as.
      * @param propertyName name of the property to get values for
@@ -131,6 +167,117 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
     protected abstract AspectPropertyValue<JavaScript> getValueAsJavaScript(
         String propertyName);
 
+    /**
+     * Get the value for the specified property as an int, or the default if
+     * it has no value. This can be called concurrently with the other value
+     * getters. Implementations should override this to read the value
+     * directly from the underlying results. The default implementation
+     * unwraps the value returned by {@link #getValueAsInteger(String)}.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if there is no value
+     * @return value as an int
+     */
+    protected int getValueAsInteger(String propertyName, int defaultValue) {
+        AspectPropertyValue<Integer> value = getValueAsInteger(propertyName);
+        try {
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (NoValueException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get the value for the specified property as a boolean, or the default if
+     * it has no value. This can be called concurrently with the other value
+     * getters. Implementations should override this to read the value
+     * directly from the underlying results. The default implementation
+     * unwraps the value returned by {@link #getValueAsBool(String)}.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if there is no value
+     * @return value as a boolean
+     */
+    protected boolean getValueAsBool(String propertyName, boolean defaultValue) {
+        AspectPropertyValue<Boolean> value = getValueAsBool(propertyName);
+        try {
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (NoValueException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get the value for the specified property as a double, or the default if
+     * it has no value. This can be called concurrently with the other value
+     * getters. Implementations should override this to read the value
+     * directly from the underlying results. The default implementation
+     * unwraps the value returned by {@link #getValueAsDouble(String)}.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if there is no value
+     * @return value as a double
+     */
+    protected double getValueAsDouble(String propertyName, double defaultValue) {
+        AspectPropertyValue<Double> value = getValueAsDouble(propertyName);
+        try {
+            return value != null && value.hasValue() ?
+                value.getValue() :
+                defaultValue;
+        } catch (NoValueException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get the value of the specified property as an int, without allocating
+     * an {@link AspectPropertyValue} or boxing the value where the underlying
+     * results support it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available,
+     *                     has no value, or is not an integer
+     * @return the value, or defaultValue
+     */
+    public int getIntValue(String propertyName, int defaultValue) {
+        if (propertyIsAvailable(propertyName) == false) {
+            return defaultValue;
+        }
+        return getValueAsInteger(propertyName, defaultValue);
+    }
+
+    /**
+     * Get the value of the specified property as a boolean, without
+     * allocating an {@link AspectPropertyValue} or boxing the value where the
+     * underlying results support it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available
+     *                     or has no value
+     * @return the value, or defaultValue
+     */
+    public boolean getBoolValue(String propertyName, boolean defaultValue) {
+        if (propertyIsAvailable(propertyName) == false) {
+            return defaultValue;
+        }
+        return getValueAsBool(propertyName, defaultValue);
+    }
+
+    /**
+     * Get the value of the specified property as a double, without allocating
+     * an {@link AspectPropertyValue} or boxing the value where the underlying
+     * results support it.
+     * @param propertyName name of the property to get the value for
+     * @param defaultValue value to return if the property is not available,
+     *                     has no value, or is not a number
+     * @return the value, or defaultValue
+     */
+    public double getDoubleValue(String propertyName, double defaultValue) {
+        if (propertyIsAvailable(propertyName) == false) {
+            return defaultValue;
+        }
+        return getValueAsDouble(propertyName, defaultValue);
+    }
+
     /**
      * By default, the base map will not be populated as doing so is a fairly
      * expensive operation. Instead, we override the AsDictionary method to
@@ -140,7 +287,8 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
     @Override
     public Map<String, Object> asKeyMap() {
         if (mapPopulated == false) {
-            synchronized (dataLock) {
+            dataLock.lock();
+            try {
                 if (mapPopulated == false) {
                     Map<String, Object> map = new TreeMap<>(
                         String.CASE_INSENSITIVE_ORDER);
@@ -156,6 +304,9 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
                     mapPopulated = true;
                 }
             }
+            finally {
+                dataLock.unlock();
+            }
         }
         // Now that the base map has been populated,
         // we can return it.
@@ -204,50 +355,168 @@ public abstract class DeviceDataBaseOnPremise extends DeviceDataBase {
                     type = (Class<T>)AspectPropertyValue.class;
                     parameterisedTypes = new Class<?>[]{ getPropertyType(key) };
                 }
-                synchronized (getLock) {
-                    Object obj = null;
-                    if (type.equals(AspectPropertyValue.class)){
-                        if (parameterisedTypes.length > 0) {
-                            Class<?> innerType = parameterisedTypes[0];
-                            if (innerType.equals(String.class)) {
-                                obj = getValueAsString(key);
-                            } else if (innerType.equals(Boolean.class)) {
-                                obj = getValueAsBool(key);
-                            } else if (innerType.equals(Integer.class)) {
-                                obj = getValueAsInteger(key);
-                            } else if (innerType.equals(Double.class)) {
-                                obj = getValueAsDouble(key);
-                            } else if (innerType.equals(List.class)) {
-                                obj = getValues(key);
-                            } else if (innerType.equals(JavaScript.class)) {
-                                obj = getValueAsJavaScript(key);
-                            } else {
-                                obj = getValueAsString(key);
-                            }
-                        }
-                        else {
-                            obj = getValueAsString(key);
-                        }
-                    }
-                    try {
-                        T value;
-                        if (type.isPrimitive()) {
-                            value = (T) primitiveTypes.get(type).cast(obj);
-                        } else {
-                            value = type.cast(obj);
-                        }
-                        result.setValue(value);
-                    } catch (ClassCastException e) {
-                        throw new ClassCastException(
-                            "Expected property '" + key + "' to be of " +
-                                "type '" + type.getSimpleName() + "' but it is " +
-                                "'" +
-                                (obj == null ? "null" : obj.getClass().getSimpleName()) +
-                                "'");
+                Object obj = null;
+                if (type.equals(AspectPropertyValue.class)) {
+                    obj = getMemoisedValue(
+                        key,
+                        parameterisedTypes.length > 0 ?
+                            parameterisedTypes[0] :
+                            String.class);
+                }
+                try {
+                    T value;
+                    if (type.isPrimitive()) {
+                        value = (T) primitiveTypes.get(type).cast(obj);
+                    } else {
+                        value = type.cast(obj);
                     }
+                    result.setValue(value);
+                } catch (ClassCastException e) {
+                    throw new ClassCastException(
+                        "Expected property '" + key + "' to be of " +
+                            "type '" + type.getSimpleName() + "' but it is " +
+                            "'" +
+                            (obj == null ? "null" : obj.getClass().getSimpleName()) +
+                            "'");
                 }
             }
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the value of the property as the inner type requested. If the value
+     * has already been fetched as this type, the memoised value is returned
+     * without locking or allocating. Otherwise the value is fetched from the
+     * underlying results and published for subsequent reads. If two readers
+     * fetch the same value at once, both return the one which was published
+     * first. Values are wrapped so they cannot be modified, as the same
+     * instance is shared by every reader.
+     * @param key name of the property
+     * @param innerType type of value within the {@link AspectPropertyValue}
+     * @return the value
+     */
+    private Object getMemoisedValue(String key, Class<?> innerType) {
+        String name = normalise(key);
+        MemoisedValue memoised = memoisedValues.get(name);
+        if (memoised != null && memoised.type.equals(innerType)) {
+            return memoised.value;
+        }
+        Object obj = getValue(key, innerType);
+        if (obj == null) {
+            return null;
+        }
+        MemoisedValue fetched = new MemoisedValue(innerType, readOnly(obj));
+        while (true) {
+            MemoisedValue existing = memoisedValues.putIfAbsent(name, fetched);
+            if (existing == null) {
+                return fetched.value;
+            }
+            if (existing.type.equals(innerType)) {
+                return existing.value;
+            }
+            // The property was memoised as a different type, so replace it.
+            if (memoisedValues.replace(name, existing, fetched)) {
+                return fetched.value;
+            }
+        }
+    }
+
+    /**
+     * Fetch the value of the property as the inner type requested from the
+     * underlying results.
+     * @param key name of the property
+     * @param innerType type of value within the {@link AspectPropertyValue}
+     * @return the value
+     */
+    private Object getValue(String key, Class<?> innerType) {
+        if (innerType.equals(String.class)) {
+            return getValueAsString(key);
+        } else if (innerType.equals(Boolean.class)) {
+            return getValueAsBool(key);
+        } else if (innerType.equals(Integer.class)) {
+            return getValueAsInteger(key);
+        } else if (innerType.equals(Double.class)) {
+            return getValueAsDouble(key);
+        } else if (innerType.equals(List.class)) {
+            return getValues(key);
+        } else if (innerType.equals(JavaScript.class)) {
+            return getValueAsJavaScript(key);
+        } else {
+            return getValueAsString(key);
+        }
+    }
+
+    /**
+     * Wrap the value so it cannot be modified, if it is a property value.
+     * @param value value fetched from the underlying results
+     * @return read-only value
+     */
+    private static Object readOnly(Object value) {
+        return value instanceof AspectPropertyValue ?
+            new ReadOnlyValue<>((AspectPropertyValue<?>) value) :
+            value;
+    }
+
+    /**
+     * A value fetched from the underlying results, along with the type it was
+     * fetched as.
+     */
+    private static final class MemoisedValue {
+        private final Class<?> type;
+        private final Object value;
+
+        private MemoisedValue(Class<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Property value which is shared between readers, so cannot be
+     * modified. Values in lists are already unmodifiable.
+     * @param <T> type of value
+     */
+    private static final class ReadOnlyValue<T>
+        implements AspectPropertyValue<T> {
+        private final AspectPropertyValue<T> value;
+
+        private ReadOnlyValue(AspectPropertyValue<T> value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean hasValue() {
+            return value.hasValue();
+        }
+
+        @Override
+        public T getValue() throws NoValueException {
+            return value.getValue();
+        }
+
+        @Override
+        public void setValue(T value) {
+            throw new UnsupportedOperationException(
+                "Property values are shared between readers, so cannot be " +
+                    "modified.");
+        }
+
+        @Override
+        public String getNoValueMessage() {
+            return value.getNoValueMessage();
+        }
+
+        @Override
+        public void setNoValueMessage(String message) {
+            throw new UnsupportedOperationException(
+                "Property values are shared between readers, so cannot be " +
+                    "modified.");
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+}
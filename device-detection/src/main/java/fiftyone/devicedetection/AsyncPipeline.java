@@ -0,0 +1,250 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection;
+
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps a {@link Pipeline} to offload processing of {@link FlowData} from
+ * the calling thread. Each call to {@link #processAsync(FlowData)} returns
+ * straight away with a {@link CompletableFuture} which is completed when
+ * processing finishes, so the calling thread (e.g. an event loop thread) is
+ * never blocked waiting on the cloud service.
+ * <p>
+ * This does not make the cloud request itself non-blocking. The pipeline
+ * still processes synchronously, so each detection in flight blocks a
+ * thread of the {@link Executor} until the cloud service responds, and the
+ * number of detections in flight is limited by the number of threads. On
+ * Java 21 and above, an executor which creates a virtual thread per task is
+ * the best fit, as a thread waiting on the cloud service then costs very
+ * little. Otherwise, a bounded pool of daemon threads is used. Its threads
+ * are only started when there are detections to run, and stop again once
+ * idle, so the default maximum is sized for the number of cloud requests
+ * which can usefully wait at once rather than the number of processors.
+ * Detections which arrive while every thread is busy wait in a bounded
+ * queue. Once the queue is full, the future returned is completed
+ * exceptionally with a {@link RejectedExecutionException} rather than more
+ * threads or memory being used.
+ * <p>
+ * Closing this instance closes the pipeline, and the executor if it was
+ * created by this instance.
+ */
+public class AsyncPipeline implements AutoCloseable {
+
+    /**
+     * Default maximum number of threads in the pool created when no executor
+     * is provided.
+     */
+    public static final int DEFAULT_THREADS = 256;
+
+    /**
+     * Default number of detections which can wait for a thread in the pool
+     * created when no executor is provided.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    private final Pipeline pipeline;
+
+    private final Executor executor;
+
+    /**
+     * The executor created by this instance, or null if the executor was
+     * provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Construct a new instance which processes using a pool of
+     * {@link #DEFAULT_THREADS} daemon threads with a queue of
+     * {@link #DEFAULT_QUEUE_SIZE}.
+     * @param pipeline the pipeline to process with
+     */
+    public AsyncPipeline(Pipeline pipeline) {
+        this(pipeline, null);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param pipeline the pipeline to process with
+     * @param executor the executor to process on, or null to use a pool of
+     *                 {@link #DEFAULT_THREADS} daemon threads with a queue
+     *                 of {@link #DEFAULT_QUEUE_SIZE}
+     */
+    public AsyncPipeline(Pipeline pipeline, Executor executor) {
+        this(pipeline, executor, DEFAULT_THREADS, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Construct a new instance which processes using a bounded pool of
+     * daemon threads.
+     * @param pipeline the pipeline to process with
+     * @param threads maximum number of threads in the pool
+     * @param queueSize number of detections which can wait for a thread
+     *                  before further detections are rejected
+     */
+    public AsyncPipeline(Pipeline pipeline, int threads, int queueSize) {
+        this(pipeline, null, threads, queueSize);
+    }
+
+    private AsyncPipeline(
+        Pipeline pipeline,
+        Executor executor,
+        int threads,
+        int queueSize) {
+        if (pipeline == null) {
+            throw new IllegalArgumentException("pipeline must not be null.");
+        }
+        if (threads <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException(
+                "threads and queueSize must be greater than 0.");
+        }
+        this.pipeline = pipeline;
+        if (executor == null) {
+            this.ownedExecutor = createExecutor(threads, queueSize);
+            this.executor = ownedExecutor;
+        }
+        else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Create a pool of daemon threads which are started as needed up to the
+     * maximum, and stopped again once they have been idle for a minute.
+     * Tasks submitted when the queue is full are rejected.
+     * @param threads maximum number of threads
+     * @param queueSize maximum number of waiting tasks
+     * @return new executor
+     */
+    private static ExecutorService createExecutor(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger(0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            1,
+            TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(
+                    runnable,
+                    "51d-async-pipeline-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Get the pipeline which is used for processing.
+     * @return the pipeline
+     */
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Create a new {@link FlowData} instance from the pipeline.
+     * @return new flow data which must be closed by the caller
+     */
+    public FlowData createFlowData() {
+        return pipeline.createFlowData();
+    }
+
+    /**
+     * Process the flow data asynchronously.
+     * @param flowData flow data containing the evidence to process
+     * @return future which is completed with the same flow data when
+     * processing has finished, or exceptionally if processing failed
+     */
+    public CompletableFuture<FlowData> processAsync(FlowData flowData) {
+        CompletableFuture<FlowData> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    flowData.process();
+                    future.complete(flowData);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Create a new {@link FlowData} with the evidence provided, and process
+     * it asynchronously. The flow data must be closed by the caller once the
+     * results have been used. If processing fails, the flow data is closed
+     * before the future is completed.
+     * @param evidence evidence to process
+     * @return future which is completed with the new flow data when
+     * processing has finished, or exceptionally with the same exception as
+     * {@link #processAsync(FlowData)} if processing failed
+     */
+    public CompletableFuture<FlowData> processAsync(
+        Map<String, ?> evidence) {
+        FlowData flowData = createFlowData();
+        flowData.addEvidence(evidence);
+        // A dependent stage would wrap the exception in a
+        // CompletionException, so complete a new future directly.
+        CompletableFuture<FlowData> future = new CompletableFuture<>();
+        processAsync(flowData).whenComplete((result, error) -> {
+            if (error == null) {
+                future.complete(result);
+            }
+            else {
+                try {
+                    flowData.close();
+                } catch (Exception e) {
+                    error.addSuppressed(e);
+                }
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        pipeline.close();
+    }
+}
@@ -0,0 +1,278 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection;
+
+import fiftyone.devicedetection.cloud.data.DeviceDataCloud;
+import fiftyone.devicedetection.cloud.flowelements.DeviceDataCloudInternal;
+import fiftyone.pipeline.core.data.EvidenceKeyFilter;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processes a batch of evidence sets using a cloud device detection
+ * {@link Pipeline}, returning one {@link CloudBatchResult} per entry. Each
+ * result holds either the device data or the error for its entry, so one
+ * failing evidence set does not lose the results for the rest of the batch.
+ * <p>
+ * The cloud service takes a single set of evidence per request, so the
+ * number of requests is kept down in other ways. Evidence sets which are the
+ * same once filtered by the pipeline's evidence key filter (i.e. would send
+ * the same request to the cloud service) are only processed once. Each
+ * duplicate entry gets its own copy of the device data, so changes to one
+ * are not seen in another. The unique sets are processed with a fixed
+ * number of requests in flight at once, over the persistent connections
+ * kept by the HTTP client. Each response is decoded in a single pass by the
+ * device detection cloud engine, as for any other request.
+ * <p>
+ * Cloud device data holds its values on the heap, so it can be used after
+ * the {@link FlowData} it came from has been closed. Each {@link FlowData}
+ * is closed once it has been processed, and the results can be kept after
+ * the batch completes.
+ */
+public class CloudBatchProcessor implements AutoCloseable {
+
+    private final Pipeline pipeline;
+
+    private final Executor executor;
+
+    private final int concurrency;
+
+    /**
+     * The executor created by this instance, or null if the executor was
+     * provided.
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Construct a new instance which processes on its own pool of daemon
+     * threads.
+     * @param pipeline cloud device detection pipeline to process with
+     * @param concurrency maximum number of evidence sets processed at once
+     */
+    public CloudBatchProcessor(Pipeline pipeline, int concurrency) {
+        this(pipeline, null, concurrency);
+    }
+
+    /**
+     * Construct a new instance.
+     * @param pipeline cloud device detection pipeline to process with
+     * @param executor the executor to process on, or null to use a pool of
+     *                 daemon threads
+     * @param concurrency maximum number of evidence sets processed at once
+     */
+    public CloudBatchProcessor(
+        Pipeline pipeline,
+        Executor executor,
+        int concurrency) {
+        if (pipeline == null) {
+            throw new IllegalArgumentException("pipeline must not be null.");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException(
+                "The concurrency must be greater than 0.");
+        }
+        this.pipeline = pipeline;
+        this.concurrency = concurrency;
+        if (executor == null) {
+            AtomicInteger threads = new AtomicInteger(0);
+            this.ownedExecutor = Executors.newFixedThreadPool(
+                concurrency,
+                runnable -> {
+                    Thread thread = new Thread(
+                        runnable,
+                        "51d-cloud-batch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            this.executor = ownedExecutor;
+        }
+        else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Get the pipeline which is used for processing.
+     * @return the pipeline
+     */
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Process the batch of evidence sets, blocking until all have been
+     * processed.
+     * @param evidenceSets evidence sets to process
+     * @return result for each evidence set, in the same order
+     */
+    public List<CloudBatchResult> process(
+        List<? extends Map<String, ?>> evidenceSets) {
+        return processAsync(evidenceSets).join();
+    }
+
+    /**
+     * Process the batch of evidence sets asynchronously. The future is
+     * always completed normally once every evidence set has either been
+     * processed or failed.
+     * @param evidenceSets evidence sets to process
+     * @return future which is completed with the result for each evidence
+     * set, in the same order
+     */
+    public CompletableFuture<List<CloudBatchResult>> processAsync(
+        List<? extends Map<String, ?>> evidenceSets) {
+        // Map each evidence set to the index of the first set which would
+        // send the same request.
+        EvidenceKeyFilter filter = pipeline.getEvidenceKeyFilter();
+        Map<Map<String, String>, Integer> uniqueIndexes = new HashMap<>();
+        List<Map<String, ?>> unique = new ArrayList<>();
+        int[] indexes = new int[evidenceSets.size()];
+        for (int i = 0; i < evidenceSets.size(); i++) {
+            Map<String, String> key = filter(filter, evidenceSets.get(i));
+            Integer index = uniqueIndexes.get(key);
+            if (index == null) {
+                index = unique.size();
+                uniqueIndexes.put(key, index);
+                unique.add(evidenceSets.get(i));
+            }
+            indexes[i] = index;
+        }
+
+        DeviceDataCloud[] results = new DeviceDataCloud[unique.size()];
+        Throwable[] errors = new Throwable[unique.size()];
+        AtomicInteger next = new AtomicInteger(0);
+        int workers = Math.min(concurrency, unique.size());
+        List<CompletableFuture<Throwable>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            CompletableFuture<Throwable> future = new CompletableFuture<>();
+            futures.add(future);
+            Runnable worker = () -> {
+                int index;
+                while ((index = next.getAndIncrement()) < results.length) {
+                    try {
+                        results[index] = process(unique.get(index));
+                    } catch (Throwable e) {
+                        errors[index] = e;
+                    }
+                }
+                future.complete(null);
+            };
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                future.complete(e);
+            }
+        }
+
+        return CompletableFuture
+            .allOf(futures.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                // If every worker was rejected, nothing has processed the
+                // remaining evidence sets.
+                Throwable rejected = null;
+                for (CompletableFuture<Throwable> future : futures) {
+                    if (future.join() != null) {
+                        rejected = future.join();
+                    }
+                }
+                boolean[] used = new boolean[results.length];
+                List<CloudBatchResult> list = new ArrayList<>(indexes.length);
+                for (int index : indexes) {
+                    DeviceDataCloud result = results[index];
+                    Throwable error = errors[index];
+                    if (result == null && error == null) {
+                        error = rejected;
+                    }
+                    if (result != null && used[index]) {
+                        result = copy(result);
+                    }
+                    used[index] = true;
+                    list.add(new CloudBatchResult(result, error));
+                }
+                return list;
+            });
+    }
+
+    private DeviceDataCloud process(Map<String, ?> evidence) throws Exception {
+        try (FlowData flowData = pipeline.createFlowData()) {
+            flowData.addEvidence(evidence).process();
+            return flowData.get(DeviceDataCloud.class);
+        }
+    }
+
+    /**
+     * Get a separate instance of the device data for a duplicate entry.
+     * Only device data from the device detection cloud engine can be
+     * copied. Any other implementation is returned as it is.
+     * @param deviceData device data to copy
+     * @return copy of the device data
+     */
+    private static DeviceDataCloud copy(DeviceDataCloud deviceData) {
+        return deviceData instanceof DeviceDataCloudInternal ?
+            ((DeviceDataCloudInternal) deviceData).copy() :
+            deviceData;
+    }
+
+    /**
+     * Get the evidence which would be sent to the cloud service.
+     * @param filter the pipeline's evidence key filter
+     * @param evidence all evidence
+     * @return filtered evidence
+     */
+    private static Map<String, String> filter(
+        EvidenceKeyFilter filter,
+        Map<String, ?> evidence) {
+        Map<String, String> filtered = new TreeMap<>();
+        for (Map.Entry<String, ?> entry : evidence.entrySet()) {
+            if (filter == null || filter.include(entry.getKey())) {
+                // Evidence keys are case-insensitive.
+                filtered.put(
+                    entry.getKey().toLowerCase(),
+                    entry.getValue() == null ?
+                        null :
+                        entry.getValue().toString());
+            }
+        }
+        return filtered;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        pipeline.close();
+    }
+}
@@ -0,0 +1,66 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+package fiftyone.devicedetection;
+
+import fiftyone.devicedetection.cloud.data.DeviceDataCloud;
+
+/**
+ * Result for one evidence set in a batch processed by
+ * {@link CloudBatchProcessor}. Either the device data or the error which
+ * stopped the evidence set from being processed is set, so that a failure
+ * for one evidence set does not lose the results for the rest of the batch.
+ */
+public class CloudBatchResult {
+
+    private final DeviceDataCloud deviceData;
+
+    private final Throwable error;
+
+    CloudBatchResult(DeviceDataCloud deviceData, Throwable error) {
+        this.deviceData = deviceData;
+        this.error = error;
+    }
+
+    /**
+     * Get whether the evidence set was processed successfully.
+     * @return true if the device data is available
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Get the device data for the evidence set.
+     * @return device data, or null if processing failed
+     */
+    public DeviceDataCloud getDeviceData() {
+        return deviceData;
+    }
+
+    /**
+     * Get the error which stopped the evidence set from being processed.
+     * @return the error, or null if processing succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -23,6 +23,8 @@
 package fiftyone.devicedetection;
 
 import fiftyone.devicedetection.cloud.flowelements.DeviceDetectionCloudEngineBuilder;
+import fiftyone.devicedetection.cloud.services.CachingHttpClient;
+import fiftyone.devicedetection.cloud.services.CoalescingHttpClient;
 import fiftyone.pipeline.cloudrequestengine.flowelements.CloudRequestEngine;
 import fiftyone.pipeline.cloudrequestengine.flowelements.CloudRequestEngineBuilder;
 import fiftyone.pipeline.core.flowelements.Pipeline;
@@ -32,6 +34,8 @@ import fiftyone.pipeline.engines.flowelements.CloudPipelineBuilderBase;
 import fiftyone.pipeline.engines.services.HttpClient;
 import org.slf4j.ILoggerFactory;
 
+import java.util.concurrent.Executor;
+
 /**
  * Builder used to create pipelines with an cloud-based 
  * device detection engine.
@@ -41,6 +45,20 @@ public class DeviceDetectionCloudPipelineBuilder
 
     private final HttpClient httpClient;
 
+    private boolean requestCoalescing = false;
+
+    private long responseCacheTimeToLiveMillis = 0;
+
+    private long responseCacheStaleMillis = 0;
+
+    private long responseCacheMaxSize = 16 * 1024 * 1024;
+
+    private Executor asyncExecutor = null;
+
+    private int asyncThreads = AsyncPipeline.DEFAULT_THREADS;
+
+    private int asyncQueueSize = AsyncPipeline.DEFAULT_QUEUE_SIZE;
+
     /**
      * Internal Constructor.
      * This builder should only be created through the 
@@ -55,6 +73,127 @@ public class DeviceDetectionCloudPipelineBuilder
         this.httpClient = httpClient;
     }
 
+    /**
+     * Enable or disable coalescing of identical requests to the cloud
+     * service. When enabled, a request which is made while an identical
+     * request (i.e. with the same evidence) is still in flight shares the
+     * response to that request instead of making its own.
+     * By default, this is disabled.
+     * @param enabled true to coalesce identical requests
+     * @return this builder
+     * @see CoalescingHttpClient
+     */
+    public DeviceDetectionCloudPipelineBuilder setRequestCoalescing(
+        boolean enabled) {
+        this.requestCoalescing = enabled;
+        return this;
+    }
+
+    /**
+     * Set the time in milliseconds that a response from the cloud service is
+     * cached for. Repeat requests with the same evidence within this time
+     * are answered without a round trip to the cloud service. A value of 0
+     * disables the response cache.
+     * By default, this is 0.
+     * @param millis time to live in milliseconds
+     * @return this builder
+     * @see CachingHttpClient
+     */
+    public DeviceDetectionCloudPipelineBuilder setResponseCacheTimeToLive(
+        long millis) {
+        this.responseCacheTimeToLiveMillis = millis;
+        return this;
+    }
+
+    /**
+     * Set the time in milliseconds after a cached response expires that it
+     * can still be returned while it is refreshed in the background. Only
+     * used if the response cache is enabled.
+     * By default, this is 0.
+     * @param millis stale-while-revalidate period in milliseconds
+     * @return this builder
+     */
+    public DeviceDetectionCloudPipelineBuilder setResponseCacheStaleWhileRevalidate(
+        long millis) {
+        this.responseCacheStaleMillis = millis;
+        return this;
+    }
+
+    /**
+     * Set the approximate maximum number of bytes held by the response cache.
+     * Only used if the response cache is enabled.
+     * By default, this is 16MB.
+     * @param bytes maximum size in bytes
+     * @return this builder
+     */
+    public DeviceDetectionCloudPipelineBuilder setResponseCacheMaxSize(
+        long bytes) {
+        this.responseCacheMaxSize = bytes;
+        return this;
+    }
+
+    /**
+     * Set the executor which pipelines created by {@link #buildAsync()}
+     * process on. For example, on Java 21 and above, an executor which
+     * creates a virtual thread per task.
+     * By default, a bounded pool of daemon threads is created for each
+     * pipeline. See {@link #setAsyncThreads(int, int)}.
+     * @param executor the executor to process on
+     * @return this builder
+     */
+    public DeviceDetectionCloudPipelineBuilder setAsyncExecutor(
+        Executor executor) {
+        this.asyncExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Set the size of the pool of daemon threads which pipelines created by
+     * {@link #buildAsync()} process on when no executor is set using
+     * {@link #setAsyncExecutor(Executor)}. Detections which arrive when the
+     * queue is full fail with a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     * By default, there are {@link AsyncPipeline#DEFAULT_THREADS} threads
+     * and a queue of {@link AsyncPipeline#DEFAULT_QUEUE_SIZE}.
+     * @param threads maximum number of threads
+     * @param queueSize number of detections which can wait for a thread
+     * @return this builder
+     */
+    public DeviceDetectionCloudPipelineBuilder setAsyncThreads(
+        int threads,
+        int queueSize) {
+        this.asyncThreads = threads;
+        this.asyncQueueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * Build the pipeline using the configured values, and wrap it to process
+     * asynchronously.
+     * @return A new {@link AsyncPipeline} wrapping a pipeline built by
+     * {@link #build()}.
+     * @throws Exception
+     */
+    public AsyncPipeline buildAsync() throws Exception {
+        return asyncExecutor != null ?
+            new AsyncPipeline(build(), asyncExecutor) :
+            new AsyncPipeline(build(), asyncThreads, asyncQueueSize);
+    }
+
+    /**
+     * Build the pipeline using the configured values, and wrap it to process
+     * batches of evidence.
+     * @param concurrency maximum number of evidence sets from a batch which
+     *                    are processed at once
+     * @return A new {@link CloudBatchProcessor} wrapping a pipeline built by
+     * {@link #build()}. If an executor has been set with
+     * {@link #setAsyncExecutor(Executor)}, the batch is processed on it.
+     * @throws Exception
+     */
+    public CloudBatchProcessor buildBatch(int concurrency) throws Exception {
+        return new CloudBatchProcessor(build(), asyncExecutor, concurrency);
+    }
+
     /**
      * Build the pipeline using the configured values.
      * @return A new pipeline instance that contains a cloud request engine for 
@@ -65,8 +204,20 @@ public class DeviceDetectionCloudPipelineBuilder
     @Override
     public Pipeline build() throws Exception {
         // Configure and build the cloud request engine
+        HttpClient client = httpClient;
+        if (requestCoalescing) {
+            client = new CoalescingHttpClient(client);
+        }
+        if (responseCacheTimeToLiveMillis > 0) {
+            client = new CachingHttpClient(
+                loggerFactory.getLogger(CachingHttpClient.class.getName()),
+                client,
+                responseCacheTimeToLiveMillis,
+                responseCacheStaleMillis,
+                responseCacheMaxSize);
+        }
         CloudRequestEngineBuilder cloudRequestEngineBuilder =
-            new CloudRequestEngineBuilder(loggerFactory, httpClient);
+            new CloudRequestEngineBuilder(loggerFactory, client);
         if (lazyLoading) {
             cloudRequestEngineBuilder.setLazyLoading(new LazyLoadingConfiguration(
                 (int) lazyLoadingTimeoutMillis));
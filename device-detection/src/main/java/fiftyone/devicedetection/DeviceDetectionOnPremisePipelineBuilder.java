@@ -38,6 +38,8 @@ import fiftyone.pipeline.engines.services.HttpClient;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,6 +54,9 @@ public class DeviceDetectionOnPremisePipelineBuilder
     private String filename;
     private boolean createTempDataCopy;
     private byte[] engineData;
+    private ByteBuffer engineBuffer;
+    private InputStream engineStream;
+    private String engineStreamMd5;
     private int concurrency = -1;
     private Integer difference = null;
     private Boolean allowUnmatched = null;
@@ -130,6 +135,34 @@ public class DeviceDetectionOnPremisePipelineBuilder
         return this;
     }
 
+    /**
+     * Set the direct buffer to use as a data source when creating the
+     * engine. The engine reads the data file from the buffer in place.
+     * @param data The entire device detection data file in a direct buffer.
+     * @return This builder instance.
+     */
+    DeviceDetectionOnPremisePipelineBuilder setEngineData(ByteBuffer data) {
+        this.engineBuffer = data;
+        return this;
+    }
+
+    /**
+     * Set the stream to read the data file from when creating the engine.
+     * The stream is read in a single pass, and decompressed if it is
+     * gzipped.
+     * @param data Stream containing the entire device detection data file.
+     * @param md5 Hex encoded MD5 hash of the data in the stream, or null if
+     *            the data should not be verified.
+     * @return This builder instance.
+     */
+    DeviceDetectionOnPremisePipelineBuilder setEngineData(
+        InputStream data,
+        String md5) {
+        this.engineStream = data;
+        this.engineStreamMd5 = md5;
+        return this;
+    }
+
     /**
      * Set share usage enabled/disabled.
      * Defaults to enabled.
@@ -534,6 +567,10 @@ public class DeviceDetectionOnPremisePipelineBuilder
             engine = builder.build(filename, createTempDataCopy);
         } else if (engineData != null) {
             engine = builder.build(engineData);
+        } else if (engineBuffer != null) {
+            engine = builder.build(engineBuffer);
+        } else if (engineStream != null) {
+            engine = builder.build(engineStream, engineStreamMd5);
         } else {
             throw new PipelineConfigurationException(
                 "No source for engine data. " +
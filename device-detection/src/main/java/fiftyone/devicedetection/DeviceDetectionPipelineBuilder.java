@@ -29,6 +29,9 @@ import fiftyone.pipeline.engines.services.HttpClientDefault;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 /**
  * Builder used to create a Pipeline with a device detection engine.
  */
@@ -142,6 +145,49 @@ public class DeviceDetectionPipelineBuilder {
         return builder;
     }
 
+    /**
+     * Use a 51Degrees on-premise device detection engine to
+     * perform device detection, reading the data file in place from a direct
+     * buffer such as a {@link java.nio.MappedByteBuffer}. No copy of the data
+     * file is made on the heap or in native memory.
+     * @param data The device detection data file in a direct buffer.
+     * @return A builder that can be used to configure and build a pipeline
+     * that will use the on-premise detection engine.
+     */
+    public DeviceDetectionOnPremisePipelineBuilder useOnPremise(
+            ByteBuffer data) {
+        DeviceDetectionOnPremisePipelineBuilder builder =
+                new DeviceDetectionOnPremisePipelineBuilder(
+                        loggerFactory,
+                        dataUpdateService,
+                        httpClient);
+        builder.setEngineData(data);
+        return builder;
+    }
+
+    /**
+     * Use a 51Degrees on-premise device detection engine to
+     * perform device detection, streaming the data file from an input stream
+     * rather than reading it into a byte array first. Gzipped data is
+     * decompressed as it is read.
+     * @param data Stream containing the device detection data file.
+     * @param md5 Hex encoded MD5 hash of the data in the stream, computed
+     *            while it is read, or null if the data should not be verified.
+     * @return A builder that can be used to configure and build a pipeline
+     * that will use the on-premise detection engine.
+     */
+    public DeviceDetectionOnPremisePipelineBuilder useOnPremise(
+            InputStream data,
+            String md5) {
+        DeviceDetectionOnPremisePipelineBuilder builder =
+                new DeviceDetectionOnPremisePipelineBuilder(
+                        loggerFactory,
+                        dataUpdateService,
+                        httpClient);
+        builder.setEngineData(data, md5);
+        return builder;
+    }
+
     /**
      * Use the 51Degrees Cloud service to perform device detection.
      * @param resourceKey The resource key to use when querying the cloud service. 
@@ -0,0 +1,156 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection;
+
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class AsyncPipelineTests {
+
+    /**
+     * Check that the future is completed with the flow data once it has been
+     * processed on the executor, and not on the calling thread.
+     */
+    @Test
+    public void AsyncPipeline_Process() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        FlowData flowData = mock(FlowData.class);
+        Thread caller = Thread.currentThread();
+        Thread[] processThread = new Thread[1];
+        when(flowData.process()).thenAnswer(invocation -> {
+            processThread[0] = Thread.currentThread();
+            return flowData;
+        });
+
+        try (AsyncPipeline async = new AsyncPipeline(pipeline)) {
+            CompletableFuture<FlowData> future = async.processAsync(flowData);
+            assertSame(flowData, future.get(10, TimeUnit.SECONDS));
+            verify(flowData).process();
+            assertNotSame(caller, processThread[0]);
+        }
+        verify(pipeline).close();
+    }
+
+    /**
+     * Check that an exception thrown while processing completes the future
+     * exceptionally, and that flow data created by the pipeline is closed.
+     */
+    @Test
+    public void AsyncPipeline_Exception() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        FlowData flowData = mock(FlowData.class);
+        when(pipeline.createFlowData()).thenReturn(flowData);
+        when(flowData.addEvidence(anyMap())).thenReturn(flowData);
+        RuntimeException exception = new RuntimeException("test");
+        when(flowData.process()).thenThrow(exception);
+
+        try (AsyncPipeline async = new AsyncPipeline(pipeline, Runnable::run)) {
+            CompletableFuture<FlowData> future = async.processAsync(
+                Collections.singletonMap("header.user-agent", "test"));
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail("An ExecutionException should have been thrown");
+            } catch (ExecutionException e) {
+                assertSame(exception, e.getCause());
+            }
+            verify(flowData).close();
+        }
+    }
+
+    /**
+     * Check that a failure processing evidence completes the future with the
+     * exception itself, as processAsync(FlowData) does, rather than wrapped
+     * in a CompletionException.
+     */
+    @Test
+    public void AsyncPipeline_Exception_NotWrapped() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        FlowData flowData = mock(FlowData.class);
+        when(pipeline.createFlowData()).thenReturn(flowData);
+        when(flowData.addEvidence(anyMap())).thenReturn(flowData);
+        RuntimeException exception = new RuntimeException("test");
+        when(flowData.process()).thenThrow(exception);
+
+        try (AsyncPipeline async = new AsyncPipeline(pipeline, Runnable::run)) {
+            Throwable error = async.processAsync(
+                Collections.singletonMap("header.user-agent", "test"))
+                .handle((result, e) -> e)
+                .get(10, TimeUnit.SECONDS);
+            assertSame(exception, error);
+        }
+    }
+
+    /**
+     * Check that once every thread in the default pool is busy and the
+     * queue is full, further detections fail rather than starting more
+     * threads.
+     */
+    @Test
+    public void AsyncPipeline_QueueFull() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        FlowData flowData = mock(FlowData.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flowData.process()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return flowData;
+        });
+
+        try (AsyncPipeline async = new AsyncPipeline(pipeline, 1, 1)) {
+            CompletableFuture<FlowData> running = async.processAsync(flowData);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<FlowData> queued = async.processAsync(flowData);
+            CompletableFuture<FlowData> rejected = async.processAsync(flowData);
+            try {
+                rejected.get(10, TimeUnit.SECONDS);
+                fail("An ExecutionException should have been thrown");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            release.countDown();
+            assertSame(flowData, running.get(10, TimeUnit.SECONDS));
+            assertSame(flowData, queued.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Check that the pool size and queue size must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void AsyncPipeline_InvalidThreads() {
+        new AsyncPipeline(mock(Pipeline.class), 0, 1);
+    }
+}
@@ -0,0 +1,199 @@
+/* *********************************************************************
+ * This Original Work is copyright of 51 Degrees Mobile Experts Limited.
+ * Copyright 2026 51 Degrees Mobile Experts Limited, Davidson House,
+ * Forbury Square, Reading, Berkshire, United Kingdom RG1 3EU.
+ *
+ * This Original Work is licensed under the European Union Public Licence
+ * (EUPL) v.1.2 and is subject to its terms as set out below.
+ *
+ * If a copy of the EUPL was not distributed with this file, You can obtain
+ * one at https://opensource.org/licenses/EUPL-1.2.
+ *
+ * The 'Compatible Licences' set out in the Appendix to the EUPL (as may be
+ * amended by the European Commission) shall be deemed incompatible for
+ * the purposes of the Work and the provisions of the compatibility
+ * clause in Article 5 of the EUPL shall not apply.
+ *
+ * If using the Work as, or as part of, a network application, by
+ * including the attribution notice(s) required under Article 5 of the EUPL
+ * in the end user terms of the application under an appropriate heading,
+ * such notice(s) shall fulfill the requirements of that article.
+ * ********************************************************************* */
+
+package fiftyone.devicedetection;
+
+import com.sun.net.httpserver.HttpServer;
+import fiftyone.devicedetection.cloud.data.DeviceDataCloud;
+import fiftyone.pipeline.core.data.EvidenceKeyFilterWhitelist;
+import fiftyone.pipeline.core.data.FlowData;
+import fiftyone.pipeline.core.flowelements.Pipeline;
+import fiftyone.pipeline.engines.services.HttpClientDefault;
+import org.junit.Test;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class CloudBatchProcessorTests {
+
+    /**
+     * Check that each evidence set gets a result in the same order, and that
+     * evidence sets which only differ in evidence that is not sent to the
+     * cloud service are only processed once.
+     */
+    @Test
+    public void CloudBatch_Deduplicates() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        when(pipeline.getEvidenceKeyFilter()).thenReturn(
+            new EvidenceKeyFilterWhitelist(
+                Collections.singletonList("header.user-agent")));
+        DeviceDataCloud first = mock(DeviceDataCloud.class);
+        DeviceDataCloud second = mock(DeviceDataCloud.class);
+        FlowData firstData = mockFlowData(first);
+        FlowData secondData = mockFlowData(second);
+        when(pipeline.createFlowData()).thenReturn(firstData, secondData);
+
+        List<Map<String, ?>> batch = Arrays.asList(
+            evidence("ua-1", "a"),
+            evidence("ua-2", "a"),
+            evidence("ua-1", "b"));
+        try (CloudBatchProcessor processor =
+                 new CloudBatchProcessor(pipeline, Runnable::run, 1)) {
+            List<CloudBatchResult> results = processor.process(batch);
+            assertEquals(3, results.size());
+            assertSame(first, results.get(0).getDeviceData());
+            assertSame(second, results.get(1).getDeviceData());
+            assertTrue(results.get(2).isSuccess());
+        }
+        verify(pipeline, times(2)).createFlowData();
+        verify(firstData).close();
+        verify(secondData).close();
+    }
+
+    /**
+     * Check that an exception thrown while processing an evidence set is
+     * returned in the result for that entry, and the other entries are
+     * still processed.
+     */
+    @Test
+    public void CloudBatch_Exception() throws Exception {
+        Pipeline pipeline = mock(Pipeline.class);
+        FlowData failing = mock(FlowData.class);
+        when(failing.addEvidence(anyMap())).thenReturn(failing);
+        RuntimeException exception = new RuntimeException("test");
+        when(failing.process()).thenThrow(exception);
+        DeviceDataCloud device = mock(DeviceDataCloud.class);
+        FlowData succeeding = mockFlowData(device);
+        when(pipeline.createFlowData()).thenReturn(failing, succeeding);
+
+        try (CloudBatchProcessor processor =
+                 new CloudBatchProcessor(pipeline, Runnable::run, 1)) {
+            List<CloudBatchResult> results = processor.process(Arrays.asList(
+                evidence("ua-1", "a"),
+                evidence("ua-2", "a"),
+                evidence("ua-1", "b")));
+            assertFalse(results.get(0).isSuccess());
+            assertSame(exception, results.get(0).getError());
+            assertNull(results.get(0).getDeviceData());
+            assertTrue(results.get(1).isSuccess());
+            assertSame(device, results.get(1).getDeviceData());
+            assertSame(exception, results.get(2).getError());
+        }
+    }
+
+    /**
+     * Check a batch against a local HTTP server standing in for the cloud
+     * service. Duplicate entries only send one request but get their own
+     * device data, and the values can be read after each flow data has been
+     * closed.
+     */
+    @Test
+    public void CloudBatch_LocalService() throws Exception {
+        AtomicInteger dataCalls = new AtomicInteger(0);
+        HttpServer server = HttpServer.create(
+            new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String response;
+            if (path.contains("accessibleproperties")) {
+                response = "{\"Products\": {\"device\": {" +
+                    "\"DataTier\": \"CloudV4Free\", \"Properties\": [" +
+                    "{\"Name\": \"IsMobile\", \"Type\": \"Boolean\", " +
+                    "\"Category\": \"Device\"}, " +
+                    "{\"Name\": \"HardwareVendor\", \"Type\": \"String\", " +
+                    "\"Category\": \"Device\"}]}}}";
+            } else if (path.contains("evidencekeys")) {
+                response = "[\"header.user-agent\", \"query.user-agent\"]";
+            } else {
+                dataCalls.incrementAndGet();
+                response = "{\"device\": {\"ismobile\": true, " +
+                    "\"hardwarevendor\": \"Test\"}}";
+            }
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(
+                "Content-Type",
+                "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        try {
+            ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+            try (CloudBatchProcessor processor =
+                     new DeviceDetectionPipelineBuilder(
+                         loggerFactory,
+                         new HttpClientDefault())
+                         .useCloud("key")
+                         .setEndPoint("http://localhost:" +
+                             server.getAddress().getPort() + "/")
+                         .buildBatch(2)) {
+                List<CloudBatchResult> results = processor.process(
+                    Arrays.asList(
+                        evidence("ua-1", "a"),
+                        evidence("ua-1", "b")));
+                assertEquals(1, dataCalls.get());
+                DeviceDataCloud first = results.get(0).getDeviceData();
+                DeviceDataCloud second = results.get(1).getDeviceData();
+                assertNotSame(first, second);
+                assertTrue(first.getIsMobile().getValue());
+                assertEquals("Test", second.getHardwareVendor().getValue());
+
+                first.getIsMobile().setValue(false);
+                assertTrue(second.getIsMobile().getValue());
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static FlowData mockFlowData(DeviceDataCloud device) {
+        FlowData flowData = mock(FlowData.class);
+        when(flowData.addEvidence(anyMap())).thenReturn(flowData);
+        when(flowData.process()).thenReturn(flowData);
+        when(flowData.get(DeviceDataCloud.class)).thenReturn(device);
+        return flowData;
+    }
+
+    private static Map<String, Object> evidence(String userAgent, String other) {
+        Map<String, Object> evidence = new HashMap<>();
+        evidence.put("header.user-agent", userAgent);
+        evidence.put("query.other", other);
+        return evidence;
+    }
+}
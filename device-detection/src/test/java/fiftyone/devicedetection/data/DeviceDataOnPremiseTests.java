@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -220,6 +221,51 @@ public class DeviceDataOnPremiseTests {
         assertEquals(expected, ((AspectPropertyValue<?>)mapValue).getValue());
     }
 
+    @Test
+    public void getIntValue() {
+        setupElementProperties(Integer.class);
+        TestResults<Integer> results =
+            new TestResults<Integer>(
+                logger,
+                flowData,
+                engine,
+                missingPropertyService,
+                1);
+
+        assertEquals(1, results.getIntValue(testPropertyName, -1));
+        assertEquals(-1, results.getIntValue("missing", -1));
+    }
+
+    @Test
+    public void getBoolValue() {
+        setupElementProperties(Boolean.class);
+        TestResults<Boolean> results =
+            new TestResults<Boolean>(
+                logger,
+                flowData,
+                engine,
+                missingPropertyService,
+                true);
+
+        assertTrue(results.getBoolValue(testPropertyName, false));
+        assertFalse(results.getBoolValue("missing", false));
+    }
+
+    @Test
+    public void getDoubleValue() {
+        setupElementProperties(Double.class);
+        TestResults<Double> results =
+            new TestResults<Double>(
+                logger,
+                flowData,
+                engine,
+                missingPropertyService,
+                1.5);
+
+        assertEquals(1.5, results.getDoubleValue(testPropertyName, -1), 0);
+        assertEquals(-1, results.getDoubleValue("missing", -1), 0);
+    }
+
     private class TestResults<T> extends DeviceDataBaseOnPremise {
         private Object value;
 